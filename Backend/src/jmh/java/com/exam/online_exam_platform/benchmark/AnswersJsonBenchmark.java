@@ -0,0 +1,81 @@
+package com.exam.online_exam_platform.benchmark;
+
+import com.exam.online_exam_platform.config.JacksonConfig;
+import com.exam.online_exam_platform.dto.QuestionSnapshot;
+import com.exam.online_exam_platform.entity.Question;
+import com.exam.online_exam_platform.util.AnswerKey;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a stored answers JSON ({"questionId": "option"}) with the shared
+ * ObjectMapper: untyped Map (what submit used to do), the typed Map that
+ * AttemptAnswerStore reads, and the streaming decode into an answer sheet.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="AnswersJsonBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswersJsonBenchmark {
+
+    private static final TypeReference<Map<String, String>> ANSWERS_TYPE = new TypeReference<>() {};
+
+    @Param({"50", "500"})
+    public int questions;
+
+    // configured like the application's bean
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private AnswerKey key;
+    private String answersJson;
+
+    @Setup
+    public void setup() throws Exception {
+        Random random = new Random(42);
+        List<QuestionSnapshot> snapshots = new ArrayList<>(questions);
+        Map<String, String> answers = new HashMap<>();
+
+        for (int i = 0; i < questions; i++) {
+            Question q = new Question();
+            q.setId(1_000L + i);
+            q.setQuestionText("Question " + i);
+            q.setOptionA("Option A of question " + i);
+            q.setOptionB("Option B of question " + i);
+            q.setOptionC("Option C of question " + i);
+            q.setOptionD("Option D of question " + i);
+            q.setCorrectAnswer(q.getOptions().get(random.nextInt(4)));
+            snapshots.add(QuestionSnapshot.of(q));
+
+            if (random.nextInt(10) != 0) {
+                answers.put(String.valueOf(q.getId()), q.getOptions().get(random.nextInt(4)));
+            }
+        }
+
+        key = AnswerKey.compile(snapshots);
+        answersJson = objectMapper.writeValueAsString(answers);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, String> untypedMap() throws Exception {
+        return objectMapper.readValue(answersJson, Map.class);
+    }
+
+    @Benchmark
+    public Map<String, String> typedMap() throws Exception {
+        return objectMapper.readValue(answersJson, ANSWERS_TYPE);
+    }
+
+    @Benchmark
+    public byte[] streamingDecode() {
+        return key.decode(objectMapper.getFactory(), answersJson);
+    }
+}
@@ -0,0 +1,125 @@
+package com.exam.online_exam_platform.benchmark;
+
+import com.exam.online_exam_platform.entity.Result;
+import com.exam.online_exam_platform.service.DashboardAggregates;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The admin dashboard's recent exams / top / at-risk students: the old
+ * in-memory aggregation over every result row (minus its per-row lookups)
+ * vs reading {@link DashboardAggregates}, plus the cost of recording one
+ * new result there.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DashboardBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @Param({"10000", "100000"})
+    public int results;
+
+    private List<Result> all;
+    private DashboardAggregates aggregates;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        random = new Random(42);
+        all = new ArrayList<>(results);
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+
+        for (int i = 0; i < results; i++) {
+            all.add(result(start.plusSeconds(i * 60L)));
+        }
+
+        // no transaction manager needed: outside a transaction record() applies at once
+        aggregates = new DashboardAggregates(null, null);
+        aggregates.record(all);
+    }
+
+    private Result result(Instant submittedAt) {
+        Result r = new Result();
+        r.setExamId(1L + random.nextInt(200));
+        r.setStudentId(1L + random.nextInt(2_000));
+        r.setScore(random.nextInt(101));
+        r.setSubmittedAt(submittedAt);
+        return r;
+    }
+
+    @Benchmark
+    public Object legacyOverview() {
+        Map<Long, List<Result>> byExam = all.stream().collect(Collectors.groupingBy(Result::getExamId));
+
+        List<Map<String, Object>> recentExams = new ArrayList<>();
+        for (var entry : byExam.entrySet()) {
+            Result latest = entry.getValue().stream()
+                    .filter(r -> r.getSubmittedAt() != null)
+                    .max(Comparator.comparing(Result::getSubmittedAt))
+                    .orElse(null);
+
+            Map<String, Object> map = new HashMap<>();
+            map.put("examId", entry.getKey());
+            map.put("date", latest != null ? latest.getSubmittedAt() : null);
+            map.put("participants", entry.getValue().size());
+            recentExams.add(map);
+        }
+        recentExams.sort((a, b) -> {
+            Instant d1 = (Instant) a.get("date");
+            Instant d2 = (Instant) b.get("date");
+            if (d1 == null) return 1;
+            if (d2 == null) return -1;
+            return d2.compareTo(d1);
+        });
+        recentExams = recentExams.stream().limit(5).toList();
+
+        Map<Long, List<Result>> byStudent = all.stream().collect(Collectors.groupingBy(Result::getStudentId));
+
+        List<Map<String, Object>> averages = new ArrayList<>();
+        for (var entry : byStudent.entrySet()) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("studentId", entry.getKey());
+            map.put("score", Math.round(entry.getValue().stream().mapToInt(Result::getScore).average().orElse(0)));
+            averages.add(map);
+        }
+
+        List<Map<String, Object>> top = averages.stream()
+                .sorted((a, b) -> ((Long) b.get("score")).compareTo((Long) a.get("score")))
+                .limit(3)
+                .toList();
+
+        List<Map<String, Object>> atRisk = averages.stream()
+                .filter(s -> (Long) s.get("score") < 40)
+                .sorted((a, b) -> ((Long) a.get("score")).compareTo((Long) b.get("score")))
+                .limit(3)
+                .toList();
+
+        return List.of(recentExams, top, atRisk);
+    }
+
+    @Benchmark
+    public Object aggregatesOverview() {
+        return List.of(
+                aggregates.averageScore(),
+                aggregates.passRate(),
+                aggregates.recentExams(10),
+                aggregates.topStudents(6),
+                aggregates.bottomStudents(6)
+        );
+    }
+
+    // one submit: the exam and student already have results, as they mostly do
+    @Benchmark
+    public void aggregatesRecord() {
+        aggregates.record(List.of(result(Instant.now())));
+    }
+}
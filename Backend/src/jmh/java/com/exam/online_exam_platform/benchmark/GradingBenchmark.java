@@ -0,0 +1,94 @@
+package com.exam.online_exam_platform.benchmark;
+
+import com.exam.online_exam_platform.dto.QuestionSnapshot;
+import com.exam.online_exam_platform.entity.Question;
+import com.exam.online_exam_platform.util.AnswerKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading one submission: the entity + string-compare loop submit used to
+ * run vs the compiled {@link AnswerKey}. Both start from the submitted JSON.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="GradingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingBenchmark {
+
+    @Param({"50", "500"})
+    public int questions;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Question> entities;
+    private AnswerKey key;
+    private String answersJson;
+    private Map<String, String> answers;
+
+    @Setup
+    public void setup() throws Exception {
+        Random random = new Random(42);
+        entities = new ArrayList<>(questions);
+        answers = new HashMap<>();
+
+        for (int i = 0; i < questions; i++) {
+            Question q = new Question();
+            q.setId(1_000L + i);
+            q.setQuestionText("Question " + i);
+            q.setOptionA("Option A of question " + i);
+            q.setOptionB("Option B of question " + i);
+            q.setOptionC("Option C of question " + i);
+            q.setOptionD("Option D of question " + i);
+            q.setCorrectAnswer(q.getOptions().get(random.nextInt(4)));
+            entities.add(q);
+
+            // ~90% answered, picked at random
+            if (random.nextInt(10) != 0) {
+                answers.put(String.valueOf(q.getId()), q.getOptions().get(random.nextInt(4)));
+            }
+        }
+
+        key = AnswerKey.compile(entities.stream().map(QuestionSnapshot::of).toList());
+        answersJson = objectMapper.writeValueAsString(answers);
+
+        if (legacyLoop() != compiledKey()) {
+            throw new IllegalStateException("Grading mismatch");
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public int legacyLoop() throws Exception {
+        Map<String, String> submitted = objectMapper.readValue(answersJson, Map.class);
+
+        int correct = 0;
+        for (Question q : entities) {
+            if (q.getCorrectAnswer() != null &&
+                    q.getCorrectAnswer().equals(submitted.get(String.valueOf(q.getId())))) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    @Benchmark
+    public int compiledKey() {
+        return key.grade(key.decode(objectMapper.getFactory(), answersJson));
+    }
+
+    // grading alone, answers already parsed (the submit path)
+    @Benchmark
+    public int compiledKeyFromMap() {
+        byte[] sheet = key.newSheet();
+        key.markAll(sheet, answers);
+        return key.grade(sheet);
+    }
+}
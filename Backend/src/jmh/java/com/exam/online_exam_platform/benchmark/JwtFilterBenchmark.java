@@ -0,0 +1,152 @@
+package com.exam.online_exam_platform.benchmark;
+
+import com.exam.online_exam_platform.security.JwtFilter;
+import com.exam.online_exam_platform.security.JwtUtil;
+import com.exam.online_exam_platform.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating the same bearer token, end to end
+ * through the filter (authentication object and SecurityContext included):
+ * the old parserBuilder-per-request filter, the filter with a reused parser
+ * but no cache, and the filter with the verified-token cache.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtFilterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtUtil jwtUtil;
+    private LegacyJwtFilter legacyFilter;
+    private JwtFilter reusedParserFilter;
+    private JwtFilter cachedFilter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET);
+        legacyFilter = new LegacyJwtFilter(jwtUtil);
+        reusedParserFilter = new JwtFilter(new VerifiedTokenCache(jwtUtil, 0));
+        cachedFilter = new JwtFilter(new VerifiedTokenCache(jwtUtil, 50_000));
+
+        request = new MockHttpServletRequest("POST", "/student/exams/1/autosave");
+        request.setServletPath("/student/exams/1/autosave");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(42L, "student@exam.test", "STUDENT"));
+    }
+
+    // what JwtFilter.doFilterInternal did per request before
+    @Benchmark
+    public Object legacyFilter() throws Exception {
+        return authenticate(legacyFilter);
+    }
+
+    @Benchmark
+    public Object reusedParserFilter() throws Exception {
+        return authenticate(reusedParserFilter);
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    // the context is thread-bound; cleared here rather than in a per-invocation @TearDown
+    private Object authenticate(OncePerRequestFilter filter) throws Exception {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /* ================= BEFORE ================= */
+
+    /** The filter as it was: a new parser for every request, no cache. */
+    static final class LegacyJwtFilter extends OncePerRequestFilter {
+
+        private final JwtUtil jwtUtil;
+
+        LegacyJwtFilter(JwtUtil jwtUtil) {
+            this.jwtUtil = jwtUtil;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            String path = request.getServletPath();
+
+            return path.startsWith("/auth/")
+                    || path.equals("/health")
+                    || "OPTIONS".equalsIgnoreCase(request.getMethod());
+        }
+
+        @Override
+        protected void doFilterInternal(
+                HttpServletRequest request,
+                HttpServletResponse response,
+                FilterChain filterChain
+        ) throws ServletException, IOException {
+
+            String authHeader = request.getHeader("Authorization");
+
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                try {
+                    String token = authHeader.substring(7);
+
+                    Claims claims = Jwts.parserBuilder()
+                            .setSigningKey(jwtUtil.getKey())
+                            .build()
+                            .parseClaimsJws(token)
+                            .getBody();
+
+                    String email = claims.getSubject();
+                    String role = claims.get("role", String.class);
+
+                    if (email != null
+                            && role != null
+                            && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(
+                                        email,
+                                        null,
+                                        List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                                );
+
+                        SecurityContextHolder.getContext()
+                                .setAuthentication(authentication);
+                    }
+
+                } catch (Exception ex) {
+                    SecurityContextHolder.clearContext();
+                }
+            }
+
+            filterChain.doFilter(request, response);
+        }
+    }
+}
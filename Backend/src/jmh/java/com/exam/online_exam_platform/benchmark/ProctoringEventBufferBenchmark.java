@@ -0,0 +1,74 @@
+package com.exam.online_exam_platform.benchmark;
+
+import com.exam.online_exam_platform.entity.ProctoringEventType;
+import com.exam.online_exam_platform.repository.ProctoringEventJdbcRepository.EventRow;
+import com.exam.online_exam_platform.util.RingBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory half of proctoring event ingest: request threads offering
+ * a page's batch of events to the ring buffer while the writer drains it a
+ * JDBC batch at a time. Producer throughput is requests/s; times the batch
+ * size, that is events/s before the database is involved.
+ *
+ * A full buffer refuses the offer (the 429 path), so offer reports whether
+ * the batch went in; with the writer keeping up it always should.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProctoringEventBufferBenchmark"
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProctoringEventBufferBenchmark {
+
+    private static final int CAPACITY = 65_536;
+    private static final int WRITE_BATCH = 1_000;
+
+    // events per request: a tab switch is hidden + blur + visible + focus
+    @Param({"4", "50"})
+    public int events;
+
+    private RingBuffer<EventRow> buffer;
+    private List<EventRow> batch;
+
+    @Setup
+    public void setup() {
+        buffer = new RingBuffer<>(CAPACITY);
+
+        ProctoringEventType[] types = ProctoringEventType.values();
+        Instant now = Instant.now();
+        batch = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            batch.add(new EventRow(1L, types[i % types.length], now.plusMillis(i), now, null));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Drained {
+        final List<EventRow> sink = new ArrayList<>(WRITE_BATCH);
+    }
+
+    @Benchmark
+    @Group("ingest")
+    @GroupThreads(3)
+    public boolean offer() {
+        return buffer.offerAll(batch);
+    }
+
+    @Benchmark
+    @Group("ingest")
+    @GroupThreads(1)
+    public int drain(Drained drained) {
+        int n = buffer.drainTo(drained.sink, WRITE_BATCH);
+        drained.sink.clear();
+        return n;
+    }
+}
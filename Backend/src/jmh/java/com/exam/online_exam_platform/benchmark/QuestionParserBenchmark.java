@@ -0,0 +1,137 @@
+package com.exam.online_exam_platform.benchmark;
+
+import com.exam.online_exam_platform.util.PdfQuestionParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Question-block parsing: the DOTALL regex the import used to run vs the
+ * single-pass tokenizer.
+ *
+ *   Bank        — n valid questions (10k ≈ a large question bank)
+ *   Adversarial — n blocks that all lack the ANSWER line. Every nested lazy
+ *                 group of the regex retries each later marker, so its cost
+ *                 explodes with n (kept to tiny n so it finishes); the
+ *                 tokenizer is run on the same shape up to 10k blocks.
+ *
+ * Linear scaling = time per op grows in step with n.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="QuestionParserBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionParserBenchmark {
+
+    private static final Pattern LEGACY_QUESTION_BLOCK = Pattern.compile(
+            "Q\\d+\\.\\s*(.*?)\\n" +
+                    "A\\.\\s*(.*?)\\n" +
+                    "B\\.\\s*(.*?)\\n" +
+                    "C\\.\\s*(.*?)\\n" +
+                    "D\\.\\s*(.*?)\\n" +
+                    "\\s*ANSWER:\\s*(.*?)\\n",
+            Pattern.DOTALL | Pattern.CASE_INSENSITIVE
+    );
+
+    @State(Scope.Benchmark)
+    public static class Bank {
+        @Param({"1000", "10000"})
+        public int blocks;
+
+        String text;
+
+        @Setup
+        public void setup() {
+            text = blocks(blocks, true);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Adversarial {
+        @Param({"10", "20", "40"})
+        public int blocks;
+
+        String text;
+
+        @Setup
+        public void setup() {
+            text = blocks(blocks, false);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class AdversarialLarge {
+        @Param({"1000", "10000"})
+        public int blocks;
+
+        String text;
+
+        @Setup
+        public void setup() {
+            text = blocks(blocks, false);
+        }
+    }
+
+    static String blocks(int n, boolean withAnswers) {
+        StringBuilder sb = new StringBuilder(n * 120);
+        for (int i = 1; i <= n; i++) {
+            sb.append("Q").append(i).append(". What is the value of item ").append(i).append("?\n")
+                    .append("A. alpha ").append(i).append('\n')
+                    .append("B. beta ").append(i).append('\n')
+                    .append("C. gamma ").append(i).append('\n')
+                    .append("D. delta ").append(i).append('\n');
+            if (withAnswers) {
+                sb.append("ANSWER: beta ").append(i).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /* ================= WELL-FORMED ================= */
+
+    @Benchmark
+    public int legacyRegexBank(Bank bank) {
+        return legacy(bank.text);
+    }
+
+    @Benchmark
+    public int tokenizerBank(Bank bank) {
+        return tokenizer(bank.text);
+    }
+
+    /* ================= ADVERSARIAL ================= */
+
+    @Benchmark
+    public int legacyRegexAdversarial(Adversarial adversarial) {
+        return legacy(adversarial.text);
+    }
+
+    @Benchmark
+    public int tokenizerAdversarial(Adversarial adversarial) {
+        return tokenizer(adversarial.text);
+    }
+
+    @Benchmark
+    public int tokenizerAdversarialLarge(AdversarialLarge adversarial) {
+        return tokenizer(adversarial.text);
+    }
+
+    private static int legacy(String text) {
+        Matcher matcher = LEGACY_QUESTION_BLOCK.matcher(text);
+        int found = 0;
+        while (matcher.find()) {
+            found += matcher.group(6).length() >= 0 ? 1 : 0;
+        }
+        return found;
+    }
+
+    private static int tokenizer(String text) {
+        PdfQuestionParser.Parsed parsed = PdfQuestionParser.parse(text);
+        return parsed.questions().size() + parsed.errors().size();
+    }
+}
@@ -0,0 +1,139 @@
+package com.exam.online_exam_platform.benchmark;
+
+import com.exam.online_exam_platform.repository.ResultExportJdbcRepository;
+import com.exam.online_exam_platform.util.CsvWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV export throughput from the JDBC cursor into a discarded stream,
+ * against a file-backed H2 database (so the table is not in the heap).
+ *
+ * "rows" is reported as rows/sec. Peak heap after each iteration is printed;
+ * the fork runs with a small -Xmx to show the export does not grow with
+ * the row count.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ResultCsvExportBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx48m")
+public class ResultCsvExportBenchmark {
+
+    @Param({"200000"})
+    public int results;
+
+    private ResultExportJdbcRepository exportRepository;
+    private TransactionTemplate readOnlyTx;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:./target/jmh-csv-export;CACHE_SIZE=8192", "sa", ""
+        );
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255))");
+        jdbc.execute("CREATE TABLE exams (id BIGINT PRIMARY KEY, title VARCHAR(255), course_id BIGINT)");
+        jdbc.execute("""
+                CREATE TABLE results (
+                    id BIGINT PRIMARY KEY, user_id BIGINT, exam_id BIGINT,
+                    score INT, total_questions INT, correct_answers INT, violations INT,
+                    status VARCHAR(20), submission_reason VARCHAR(50), submitted_at TIMESTAMP
+                )
+                """);
+
+        int students = 5_000;
+        int exams = 100;
+
+        batch(jdbc, "INSERT INTO users VALUES (?, ?, ?)", students,
+                i -> new Object[]{i, "Student, No. " + i, "student" + i + "@exam.test"});
+        batch(jdbc, "INSERT INTO exams VALUES (?, ?, ?)", exams,
+                i -> new Object[]{i, "Exam \"" + i + "\"", i % 10});
+        batch(jdbc, "INSERT INTO results VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", results,
+                i -> new Object[]{
+                        i, i % students, i % exams,
+                        i % 101, 50, i % 51, i % 4,
+                        "SUBMITTED", "MANUAL_SUBMIT",
+                        Timestamp.from(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(i))
+                });
+
+        exportRepository = new ResultExportJdbcRepository(jdbc);
+        readOnlyTx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeak() {
+        long peak = heapPools().stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        System.out.printf("%n  peak heap: %.1f MB%n", peak / (1024.0 * 1024.0));
+    }
+
+    @Benchmark
+    public long exportAll(Rows counter) throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8), 64 * 1024
+        );
+        CsvWriter csv = new CsvWriter(writer);
+        csv.row(ResultExportJdbcRepository.CSV_HEADER);
+
+        Long rows = readOnlyTx.execute(tx -> exportRepository.writeCsv(null, null, csv));
+        writer.flush();
+
+        counter.rows += rows;
+        return rows;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pools.add(pool);
+        }
+        return pools;
+    }
+
+    private interface RowFactory {
+        Object[] row(int i);
+    }
+
+    private static void batch(JdbcTemplate jdbc, String sql, int count, RowFactory rows) {
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < count; i++) {
+            batch.add(rows.row(i));
+            if (batch.size() == 1000) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbc.batchUpdate(sql, batch);
+    }
+}
@@ -0,0 +1,51 @@
+package com.exam.online_exam_platform.benchmark;
+
+import com.exam.online_exam_platform.dto.ResultPdfDTO;
+import com.exam.online_exam_platform.util.ResultPdfGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one result statement: into a byte[] (the old download path)
+ * vs straight into the response stream, which the cache miss path does.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ResultPdfBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultPdfBenchmark {
+
+    private ResultPdfDTO dto;
+
+    @Setup
+    public void setup() {
+        dto = new ResultPdfDTO(
+                "Student 42",
+                "student42@example.com",
+                "Data Structures — Mid Term",
+                72,
+                "PASS",
+                50,
+                36,
+                1,
+                Instant.parse("2026-03-14T09:30:00Z")
+        );
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return ResultPdfGenerator.generate(dto);
+    }
+
+    @Benchmark
+    public void toStream() {
+        ResultPdfGenerator.generate(dto, OutputStream.nullOutputStream());
+    }
+}
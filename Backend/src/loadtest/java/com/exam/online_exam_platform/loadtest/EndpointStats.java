@@ -0,0 +1,79 @@
+package com.exam.online_exam_platform.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one endpoint. Every latency is kept (a long per
+ * request), so percentiles are exact; a 5,000 student hour is a few MB.
+ *
+ * 429s from start/resume admission are counted as throttled, not errors:
+ * the student retries after Retry-After like the real client.
+ */
+final class EndpointStats {
+
+    final String name;
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long errors;
+    private long throttled;
+    private long firstStartNanos = Long.MAX_VALUE;
+    private long lastEndNanos;
+    private final Map<String, Long> outcomes = new TreeMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long startNanos, long endNanos, int status, Throwable failure) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = endNanos - startNanos;
+        firstStartNanos = Math.min(firstStartNanos, startNanos);
+        lastEndNanos = Math.max(lastEndNanos, endNanos);
+
+        String outcome;
+        if (failure != null) {
+            errors++;
+            outcome = failure.getClass().getSimpleName();
+        } else if (status == 429) {
+            throttled++;
+            outcome = "429";
+        } else {
+            if (status >= 400) errors++;
+            outcome = String.valueOf(status);
+        }
+        outcomes.merge(outcome, 1L, Long::sum);
+    }
+
+    synchronized Map<String, Object> summary() {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+
+        double windowSeconds = count == 0 ? 0 : (lastEndNanos - firstStartNanos) / 1e9;
+
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("endpoint", name);
+        s.put("requests", count);
+        s.put("errors", errors);
+        s.put("throttled", throttled);
+        s.put("errorRate", count == 0 ? 0.0 : (double) errors / count);
+        s.put("throughputPerSec", windowSeconds <= 0 ? 0.0 : count / windowSeconds);
+        s.put("p50Ms", percentileMs(sorted, 0.50));
+        s.put("p95Ms", percentileMs(sorted, 0.95));
+        s.put("p99Ms", percentileMs(sorted, 0.99));
+        s.put("maxMs", count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+        s.put("outcomes", new LinkedHashMap<>(outcomes));
+        return s;
+    }
+
+    private static double percentileMs(long[] sorted, double q) {
+        if (sorted.length == 0) return 0.0;
+        int rank = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, rank)] / 1e6;
+    }
+}
@@ -0,0 +1,115 @@
+package com.exam.online_exam_platform.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Async HTTP against the app under test. Every call is timed into the
+ * {@link EndpointStats} of its endpoint name (null = not recorded, used for
+ * the harness's own metric polling).
+ */
+final class LoadClient {
+
+    record Response(int status, String body, Optional<String> retryAfter) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    final ObjectMapper json = new ObjectMapper();
+
+    private final Scenario scenario;
+    private final HttpClient http;
+    private final Map<String, EndpointStats> stats = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    LoadClient(Scenario scenario, Executor executor) {
+        this.scenario = scenario;
+        // plain HTTP/1.1, one connection per in-flight request, like browsers behind a proxy
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(scenario.httpTimeoutMs))
+                .executor(executor)
+                .build();
+    }
+
+    CompletableFuture<Response> get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET().build());
+    }
+
+    CompletableFuture<Response> post(String endpoint, String path, String token, Object body) {
+        String payload;
+        try {
+            payload = json.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(endpoint, request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build());
+    }
+
+    JsonNode parse(Response response) {
+        try {
+            return json.readTree(response.body());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected response: " + abbreviate(response.body()), e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(scenario.baseUrl + path))
+                .timeout(Duration.ofMillis(scenario.httpTimeoutMs));
+        if (token != null) b.header("Authorization", "Bearer " + token);
+        return b;
+    }
+
+    private CompletableFuture<Response> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((res, error) -> {
+                    long end = System.nanoTime();
+                    Throwable failure = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    if (endpoint != null) {
+                        stats(endpoint).record(start, end, res == null ? 0 : res.statusCode(), failure);
+                    }
+                    if (failure != null) {
+                        throw failure instanceof RuntimeException r ? r : new RuntimeException(failure);
+                    }
+                    return new Response(res.statusCode(), res.body(), res.headers().firstValue("Retry-After"));
+                });
+    }
+
+    /* ================= STATS ================= */
+
+    EndpointStats stats(String endpoint) {
+        synchronized (stats) {
+            return stats.computeIfAbsent(endpoint, EndpointStats::new);
+        }
+    }
+
+    List<EndpointStats> allStats() {
+        synchronized (stats) {
+            return List.copyOf(stats.values());
+        }
+    }
+
+    static String abbreviate(String s) {
+        return s == null || s.length() <= 200 ? s : s.substring(0, 200) + "…";
+    }
+}
@@ -0,0 +1,292 @@
+package com.exam.online_exam_platform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drives a running instance of the app with simulated students sitting one
+ * exam, then prints per-endpoint throughput / p50 / p95 / p99 / error rate
+ * and the server's connection-pool wait, and writes the same as JSON.
+ *
+ *   mvn -Ploadtest test-compile exec:exec -Dload.args="src/loadtest/scenarios/deadline-5000.properties exam-id=7"
+ *
+ * The exam must exist and be open; students are signed up on first use.
+ * Pool wait needs admin-email / admin-password (read from
+ * /admin/metrics/db-pool, so it covers all traffic on the server).
+ */
+public final class LoadSimulation {
+
+    private static final long FINISH_GRACE_MS = 180_000;
+
+    private final Scenario scenario;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    private final LoadClient client;
+
+    private final List<VirtualStudent> students = new ArrayList<>();
+    private final List<Map<String, Object>> poolSamples = Collections.synchronizedList(new ArrayList<>());
+    private String adminToken;
+    private long t0Nanos;
+
+    private LoadSimulation(Scenario scenario) {
+        this.scenario = scenario;
+        this.timer = Executors.newScheduledThreadPool(2, daemon("load-timer"));
+        this.workers = Executors.newFixedThreadPool(scenario.workerThreads, daemon("load-http"));
+        this.client = new LoadClient(scenario, workers);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: LoadSimulation [scenario.properties] [key=value ...]  (exam-id is required)");
+            System.exit(2);
+        }
+        Scenario scenario = Scenario.fromArgs(args);
+        new LoadSimulation(scenario).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        log("Target %s, exam %d, %d students", scenario.baseUrl, scenario.examId, scenario.students);
+
+        Map<String, Object> poolBefore = adminLogin() ? dbPool() : null;
+
+        /* ---------- login ramp ---------- */
+
+        List<CompletableFuture<Boolean>> logins = new ArrayList<>(scenario.students);
+        long rampNanos = TimeUnit.SECONDS.toNanos(scenario.loginRampSeconds);
+        long rampStart = System.nanoTime();
+
+        for (int i = 0; i < scenario.students; i++) {
+            VirtualStudent student = new VirtualStudent(i, scenario, client, timer);
+            students.add(student);
+
+            CompletableFuture<Boolean> done = new CompletableFuture<>();
+            long delay = rampNanos * i / scenario.students;
+            timer.schedule(() -> student.login().whenComplete((ok, e) -> done.complete(ok != null && ok)),
+                    delay, TimeUnit.NANOSECONDS);
+            logins.add(done);
+        }
+        CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).join();
+
+        long loggedIn = logins.stream().filter(CompletableFuture::join).count();
+        log("%d/%d students logged in after %.1fs", loggedIn, scenario.students,
+                (System.nanoTime() - rampStart) / 1e9);
+
+        /* ---------- exam sitting ---------- */
+
+        t0Nanos = System.nanoTime();
+        log("T0");
+
+        for (int i = 0; i < students.size(); i++) {
+            if (!logins.get(i).join()) continue;
+            VirtualStudent student = students.get(i);
+            Random random = new Random(i);
+
+            timer.schedule(student::start, spreadMs(random, 0, scenario.startSpreadSeconds), TimeUnit.MILLISECONDS);
+            timer.schedule(student::submit,
+                    spreadMs(random, scenario.submitAtSeconds, scenario.submitSpreadSeconds), TimeUnit.MILLISECONDS);
+        }
+
+        List<ScheduledFuture<?>> background = new ArrayList<>();
+        background.add(timer.scheduleAtFixedRate(this::progress, 5, 5, TimeUnit.SECONDS));
+        if (adminToken != null) {
+            background.add(timer.scheduleAtFixedRate(this::samplePool,
+                    0, scenario.poolSampleIntervalMs, TimeUnit.MILLISECONDS));
+            if (scenario.adminDashboardIntervalMs > 0) {
+                background.add(timer.scheduleAtFixedRate(
+                        () -> client.get("admin-dashboard", "/admin/dashboard/overview", adminToken),
+                        scenario.adminDashboardIntervalMs, scenario.adminDashboardIntervalMs, TimeUnit.MILLISECONDS));
+            }
+        }
+
+        long deadlineMs = TimeUnit.SECONDS.toMillis(scenario.submitAtSeconds + scenario.submitSpreadSeconds)
+                + FINISH_GRACE_MS;
+        CompletableFuture<Void> all = CompletableFuture.allOf(
+                students.stream().map(VirtualStudent::finished).toArray(CompletableFuture[]::new));
+        try {
+            all.get(deadlineMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log("Gave up waiting for %d students", students.stream().filter(s -> !s.finished().isDone()).count());
+        }
+        background.forEach(f -> f.cancel(false));
+        log("Finished at T+%.1fs", sinceT0Seconds());
+
+        /* ---------- report ---------- */
+
+        Map<String, Object> poolAfter = adminToken != null ? dbPool() : null;
+        report(loggedIn, poolBefore, poolAfter);
+
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static long spreadMs(Random random, int atSeconds, int spreadSeconds) {
+        long spread = TimeUnit.SECONDS.toMillis(spreadSeconds);
+        return TimeUnit.SECONDS.toMillis(atSeconds) + (spread == 0 ? 0 : (long) (random.nextDouble() * spread));
+    }
+
+    /* ================= ADMIN / POOL ================= */
+
+    private boolean adminLogin() {
+        if (scenario.adminEmail == null) {
+            log("No admin-email: skipping pool wait and the admin dashboard");
+            return false;
+        }
+        LoadClient.Response res = client.post(null, "/auth/login", null,
+                Map.of("email", scenario.adminEmail, "password", scenario.adminPassword)).join();
+        if (!res.ok()) {
+            log("Admin login failed (%d): skipping pool wait and the admin dashboard", res.status());
+            return false;
+        }
+        adminToken = client.parse(res).path("token").asText(null);
+        return adminToken != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> dbPool() {
+        LoadClient.Response res = client.get(null, "/admin/metrics/db-pool", adminToken).join();
+        if (!res.ok()) return null;
+        try {
+            return client.json.readValue(res.body(), Map.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void samplePool() {
+        client.get(null, "/admin/metrics/db-pool", adminToken).thenAccept(res -> {
+            if (!res.ok()) return;
+            JsonNode pool = client.parse(res);
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("t", Math.round(sinceT0Seconds() * 10) / 10.0);
+            sample.put("active", pool.path("active").asInt());
+            sample.put("pendingThreads", pool.path("pendingThreads").asInt());
+            sample.put("timeouts", pool.path("timeouts").asLong());
+            poolSamples.add(sample);
+        });
+    }
+
+    // percentiles of the waits during this run only: bucket counts after minus before
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> poolWait(Map<String, Object> before, Map<String, Object> after) {
+        List<Number> b = (List<Number>) before.get("waitBucketsMicros");
+        List<Number> a = (List<Number>) after.get("waitBucketsMicros");
+
+        List<Long> delta = new ArrayList<>(a.size());
+        long total = 0;
+        for (int i = 0; i < a.size(); i++) {
+            long d = a.get(i).longValue() - (i < b.size() ? b.get(i).longValue() : 0);
+            delta.add(d);
+            total += d;
+        }
+
+        Map<String, Object> wait = new LinkedHashMap<>();
+        wait.put("acquired", total);
+        wait.put("timeouts", ((Number) after.get("timeouts")).longValue() - ((Number) before.get("timeouts")).longValue());
+        wait.put("p50Ms", bucketPercentileMs(delta, total, 0.50));
+        wait.put("p95Ms", bucketPercentileMs(delta, total, 0.95));
+        wait.put("p99Ms", bucketPercentileMs(delta, total, 0.99));
+        wait.put("maxMsSinceStartup", after.get("waitMaxMs"));
+        return wait;
+    }
+
+    // upper bound of the power-of-two bucket (bucket i = below 2^i µs)
+    private static double bucketPercentileMs(List<Long> buckets, long total, double q) {
+        if (total == 0) return 0.0;
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.size(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return (1L << i) / 1000.0;
+        }
+        return (1L << (buckets.size() - 1)) / 1000.0;
+    }
+
+    /* ================= REPORT ================= */
+
+    private void progress() {
+        Map<VirtualStudent.Outcome, Long> outcomes = outcomes();
+        long active = students.stream().filter(VirtualStudent::isActive).count();
+        log("T+%.0fs active=%d %s", sinceT0Seconds(), active, outcomes);
+    }
+
+    private Map<VirtualStudent.Outcome, Long> outcomes() {
+        return students.stream()
+                .map(s -> s.finished().getNow(null))
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), () -> new EnumMap<>(VirtualStudent.Outcome.class),
+                        Collectors.counting()));
+    }
+
+    private void report(long loggedIn, Map<String, Object> poolBefore, Map<String, Object> poolAfter) throws Exception {
+        List<Map<String, Object>> endpoints = client.allStats().stream().map(EndpointStats::summary).toList();
+
+        System.out.println();
+        System.out.printf("%-18s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "err%", "p50 ms", "p95 ms", "p99 ms", "max ms", "429s");
+        for (Map<String, Object> e : endpoints) {
+            System.out.printf("%-18s %9d %8.1f %6.2f%% %9.1f %9.1f %9.1f %9.1f %9d%n",
+                    e.get("endpoint"), e.get("requests"), e.get("throughputPerSec"),
+                    100 * (double) e.get("errorRate"), e.get("p50Ms"), e.get("p95Ms"), e.get("p99Ms"),
+                    e.get("maxMs"), e.get("throttled"));
+        }
+
+        Map<String, Object> poolWait = null;
+        if (poolBefore != null && poolAfter != null) {
+            poolWait = poolWait(poolBefore, poolAfter);
+            int maxPending = poolSamples.stream().mapToInt(s -> (int) s.get("pendingThreads")).max().orElse(0);
+            poolWait.put("maxPendingThreads", maxPending);
+            System.out.printf("%nDB pool wait: %s acquisitions, p50 <= %s ms, p95 <= %s ms, p99 <= %s ms, "
+                            + "%s timeouts, up to %d threads waiting%n",
+                    poolWait.get("acquired"), poolWait.get("p50Ms"), poolWait.get("p95Ms"), poolWait.get("p99Ms"),
+                    poolWait.get("timeouts"), maxPending);
+        }
+
+        Map<VirtualStudent.Outcome, Long> outcomes = outcomes();
+        System.out.printf("%nStudents: %d, logged in %d, %s%n", scenario.students, loggedIn, outcomes);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("baseUrl", scenario.baseUrl);
+        report.put("examId", scenario.examId);
+        report.put("students", scenario.students);
+        report.put("loggedIn", loggedIn);
+        report.put("outcomes", outcomes);
+        report.put("endpoints", endpoints);
+        report.put("dbPoolWait", poolWait);
+        report.put("dbPoolSamples", poolSamples);
+
+        Path out = Path.of(scenario.report);
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        client.json.writer(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    /* ================= UTIL ================= */
+
+    private double sinceT0Seconds() {
+        return t0Nanos == 0 ? 0 : (System.nanoTime() - t0Nanos) / 1e9;
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[%s] %s%n", Instant.now(), String.format(format, args));
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
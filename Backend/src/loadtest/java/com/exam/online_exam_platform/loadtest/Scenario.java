@@ -0,0 +1,157 @@
+package com.exam.online_exam_platform.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * One load scenario, read from a .properties file and/or key=value
+ * arguments (arguments win). See src/loadtest/scenarios for examples.
+ *
+ * Timeline: every student logs in first (spread over login-ramp-seconds),
+ * then the clock starts (T0). Each student starts or resumes the attempt at
+ * T0 + [0, start-spread-seconds), answers a question every think-time-ms,
+ * autosaves every autosave-interval-ms and submits at
+ * T0 + submit-at-seconds + [0, submit-spread-seconds).
+ */
+final class Scenario {
+
+    final String baseUrl;
+    final long examId;
+
+    final int students;
+    final int firstStudent;
+    final String studentEmail;
+    final String studentPassword;
+    final boolean signup;
+
+    // admin login: db pool sampling and the admin dashboard
+    final String adminEmail;
+    final String adminPassword;
+
+    final int loginRampSeconds;
+    final int startSpreadSeconds;
+    final int submitAtSeconds;
+    final int submitSpreadSeconds;
+
+    final long thinkTimeMinMs;
+    final long thinkTimeMaxMs;
+    final long autosaveIntervalMs;
+    final boolean deltaAutosave;
+    final long studentDashboardIntervalMs;
+    final long proctoringIntervalMs;
+    final int proctoringBatch;
+    final long adminDashboardIntervalMs;
+    final boolean awaitGrading;
+
+    final long httpTimeoutMs;
+    final int workerThreads;
+    final long poolSampleIntervalMs;
+    final String report;
+
+    private Scenario(Properties p) {
+        baseUrl = stripSlash(p.getProperty("base-url", "http://localhost:8080"));
+        examId = Long.parseLong(required(p, "exam-id"));
+
+        students = intProp(p, "students", 100);
+        firstStudent = intProp(p, "first-student", 1);
+        studentEmail = p.getProperty("student-email", "load-student-%d@load.test");
+        studentPassword = p.getProperty("student-password", "load-test-password");
+        signup = Boolean.parseBoolean(p.getProperty("signup", "true"));
+
+        adminEmail = blankToNull(p.getProperty("admin-email"));
+        adminPassword = blankToNull(p.getProperty("admin-password"));
+
+        loginRampSeconds = intProp(p, "login-ramp-seconds", 30);
+        startSpreadSeconds = intProp(p, "start-spread-seconds", 0);
+        submitAtSeconds = intProp(p, "submit-at-seconds", 60);
+        submitSpreadSeconds = intProp(p, "submit-spread-seconds", 0);
+
+        long[] think = range(p.getProperty("think-time-ms", "3000-8000"));
+        thinkTimeMinMs = think[0];
+        thinkTimeMaxMs = think[1];
+        autosaveIntervalMs = longProp(p, "autosave-interval-ms", 10_000);
+        deltaAutosave = !"full".equalsIgnoreCase(p.getProperty("autosave", "delta"));
+        studentDashboardIntervalMs = longProp(p, "student-dashboard-interval-ms", 0);
+        proctoringIntervalMs = longProp(p, "proctoring-interval-ms", 0);
+        proctoringBatch = intProp(p, "proctoring-batch", 4);
+        adminDashboardIntervalMs = longProp(p, "admin-dashboard-interval-ms", 5_000);
+        awaitGrading = Boolean.parseBoolean(p.getProperty("await-grading", "true"));
+
+        httpTimeoutMs = longProp(p, "http-timeout-ms", 30_000);
+        workerThreads = intProp(p, "worker-threads", Math.max(4, Runtime.getRuntime().availableProcessors()));
+        poolSampleIntervalMs = longProp(p, "pool-sample-interval-ms", 1_000);
+        report = p.getProperty("report", "target/load-report.json");
+
+        if (students < 1) throw new IllegalArgumentException("students must be at least 1");
+        if (proctoringBatch < 1) throw new IllegalArgumentException("proctoring-batch must be at least 1");
+        if (thinkTimeMinMs < 1 || thinkTimeMaxMs < thinkTimeMinMs) {
+            throw new IllegalArgumentException("think-time-ms must be a positive range, e.g. 3000-8000");
+        }
+    }
+
+    /** {@code [scenario.properties] [key=value ...]} */
+    static Scenario fromArgs(String[] args) throws IOException {
+        Properties p = new Properties();
+
+        for (String arg : args) {
+            if (!arg.isBlank() && arg.indexOf('=') < 0) {
+                try (Reader in = Files.newBufferedReader(Path.of(arg))) {
+                    p.load(in);
+                }
+            }
+        }
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) p.setProperty(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+        }
+        return new Scenario(p);
+    }
+
+    String email(int student) {
+        return String.format(studentEmail, firstStudent + student);
+    }
+
+    long thinkTimeMs(Random random) {
+        return thinkTimeMinMs + (long) (random.nextDouble() * (thinkTimeMaxMs - thinkTimeMinMs));
+    }
+
+    /* ================= PARSING ================= */
+
+    private static String required(Properties p, String key) {
+        String v = blankToNull(p.getProperty(key));
+        if (v == null) throw new IllegalArgumentException(key + " is required");
+        return v;
+    }
+
+    private static int intProp(Properties p, String key, int def) {
+        String v = blankToNull(p.getProperty(key));
+        return v == null ? def : Integer.parseInt(v.replace("_", ""));
+    }
+
+    private static long longProp(Properties p, String key, long def) {
+        String v = blankToNull(p.getProperty(key));
+        return v == null ? def : Long.parseLong(v.replace("_", ""));
+    }
+
+    // "3000-8000" or "5000"
+    private static long[] range(String v) {
+        int dash = v.indexOf('-', 1);
+        if (dash < 0) {
+            long fixed = Long.parseLong(v.trim());
+            return new long[]{fixed, fixed};
+        }
+        return new long[]{Long.parseLong(v.substring(0, dash).trim()), Long.parseLong(v.substring(dash + 1).trim())};
+    }
+
+    private static String blankToNull(String v) {
+        return v == null || v.isBlank() ? null : v.trim();
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
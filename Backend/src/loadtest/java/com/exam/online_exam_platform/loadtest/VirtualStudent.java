@@ -0,0 +1,318 @@
+package com.exam.online_exam_platform.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated student, driven by timers rather than a thread of its own,
+ * so thousands fit in a handful of threads:
+ *
+ *   login (signing up first if needed) → start/resume the attempt (retrying
+ *   429s after Retry-After) → pick an answer every think time, autosave
+ *   every interval, optionally poll the dashboard and send proctoring
+ *   events → submit → poll the grading status until GRADED.
+ *
+ * State is only touched while holding the student's monitor; callbacks
+ * arrive on the HTTP client's worker threads.
+ */
+final class VirtualStudent {
+
+    enum Outcome { LOGIN_FAILED, START_FAILED, NOT_ACTIVE, SUBMIT_FAILED, SUBMITTED, GRADED }
+
+    private static final TypeReference<Map<String, String>> ANSWERS_TYPE = new TypeReference<>() {};
+    private static final String[] PROCTORING_TYPES = {"TAB_HIDDEN", "WINDOW_BLUR", "TAB_VISIBLE", "WINDOW_FOCUS"};
+    private static final long GRADING_POLL_MS = 1_000;
+    private static final long GRADING_TIMEOUT_MS = 120_000;
+
+    private final int index;
+    private final Scenario scenario;
+    private final LoadClient client;
+    private final ScheduledExecutorService timer;
+    private final Random random;
+
+    private final String examPath;
+
+    private String token;
+    private final List<Long> questionIds = new ArrayList<>();
+    private final List<List<String>> options = new ArrayList<>();
+    private final Map<String, String> answers = new HashMap<>();
+    private final Map<String, String> unsaved = new HashMap<>();
+    private long seq;
+    private boolean active;
+    private boolean submitDue;
+    private ScheduledFuture<?> thinking;
+    private final List<ScheduledFuture<?>> loops = new ArrayList<>();
+
+    private long submittedAtNanos;
+    private final CompletableFuture<Outcome> finished = new CompletableFuture<>();
+
+    VirtualStudent(int index, Scenario scenario, LoadClient client, ScheduledExecutorService timer) {
+        this.index = index;
+        this.scenario = scenario;
+        this.client = client;
+        this.timer = timer;
+        this.random = new Random(index);
+        this.examPath = "/student/exams/" + scenario.examId;
+    }
+
+    CompletableFuture<Outcome> finished() {
+        return finished;
+    }
+
+    synchronized boolean isActive() {
+        return active;
+    }
+
+    /* ================= LOGIN ================= */
+
+    CompletableFuture<Boolean> login() {
+        String email = scenario.email(index);
+
+        return requestToken(email).thenCompose(ok -> {
+            if (ok || !scenario.signup) return CompletableFuture.completedFuture(ok);
+
+            Map<String, String> signup = Map.of(
+                    "name", "Load Student " + (scenario.firstStudent + index),
+                    "email", email,
+                    "password", scenario.studentPassword
+            );
+            return client.post("signup", "/auth/signup", null, signup)
+                    .thenCompose(res -> requestToken(email));
+        }).exceptionally(e -> false).thenApply(ok -> {
+            if (!ok) finished.complete(Outcome.LOGIN_FAILED);
+            return ok;
+        });
+    }
+
+    private CompletableFuture<Boolean> requestToken(String email) {
+        Map<String, String> body = Map.of("email", email, "password", scenario.studentPassword);
+
+        return client.post("login", "/auth/login", null, body).thenApply(res -> {
+            if (!res.ok()) return false;
+            String t = client.parse(res).path("token").asText(null);
+            synchronized (this) {
+                token = t;
+            }
+            return t != null;
+        });
+    }
+
+    /* ================= START / RESUME ================= */
+
+    void start() {
+        client.get("attempt", examPath + "/attempt", token).whenComplete((res, e) -> {
+            if (e != null) {
+                finished.complete(Outcome.START_FAILED);
+                return;
+            }
+            if (res.status() == 429) {
+                timer.schedule(this::start, retryAfterMs(res), TimeUnit.MILLISECONDS);
+                return;
+            }
+            if (!res.ok()) {
+                finished.complete(Outcome.START_FAILED);
+                return;
+            }
+
+            try {
+                JsonNode attempt = client.parse(res);
+                if (!"ACTIVE".equals(attempt.path("status").asText())) {
+                    finished.complete(Outcome.NOT_ACTIVE);
+                    return;
+                }
+                begin(attempt);
+            } catch (RuntimeException bad) {
+                finished.complete(Outcome.START_FAILED);
+            }
+        });
+    }
+
+    private long retryAfterMs(LoadClient.Response res) {
+        try {
+            long ms = client.parse(res).path("retryAfterMs").asLong(0);
+            if (ms > 0) return ms;
+        } catch (RuntimeException ignored) {
+        }
+        return res.retryAfter().map(s -> Long.parseLong(s.trim()) * 1000).orElse(1_000L);
+    }
+
+    private synchronized void begin(JsonNode attempt) {
+        for (JsonNode q : attempt.path("questions")) {
+            questionIds.add(q.path("id").asLong());
+            List<String> opts = new ArrayList<>(4);
+            q.path("options").forEach(o -> opts.add(o.asText()));
+            options.add(opts);
+        }
+
+        String saved = attempt.path("answersJson").asText("");
+        if (!saved.isEmpty()) {
+            try {
+                answers.putAll(client.json.readValue(saved, ANSWERS_TYPE));
+            } catch (Exception ignored) {
+            }
+        }
+        seq = attempt.path("autosaveSeq").asLong(0);
+        active = true;
+
+        thinking = timer.schedule(this::think, scenario.thinkTimeMs(random), TimeUnit.MILLISECONDS);
+
+        // stagger the first autosave so students do not save in lock-step
+        long first = (long) (random.nextDouble() * scenario.autosaveIntervalMs);
+        loops.add(timer.scheduleWithFixedDelay(this::autosave,
+                first, scenario.autosaveIntervalMs, TimeUnit.MILLISECONDS));
+
+        if (scenario.proctoringIntervalMs > 0) {
+            loops.add(timer.scheduleWithFixedDelay(this::proctoringEvents,
+                    scenario.proctoringIntervalMs, scenario.proctoringIntervalMs, TimeUnit.MILLISECONDS));
+        }
+
+        if (scenario.studentDashboardIntervalMs > 0) {
+            loops.add(timer.scheduleWithFixedDelay(this::dashboard,
+                    scenario.studentDashboardIntervalMs, scenario.studentDashboardIntervalMs, TimeUnit.MILLISECONDS));
+        }
+
+        // admitted only after the deadline (kept waiting by 429s)
+        if (submitDue) submit();
+    }
+
+    /* ================= ANSWER / AUTOSAVE ================= */
+
+    private synchronized void think() {
+        if (!active || questionIds.isEmpty()) return;
+
+        // unanswered questions first, then the odd change of mind
+        int q = answers.size() < questionIds.size()
+                ? firstUnanswered()
+                : random.nextInt(questionIds.size());
+        List<String> opts = options.get(q);
+        if (!opts.isEmpty()) {
+            String key = String.valueOf(questionIds.get(q));
+            String answer = opts.get(random.nextInt(opts.size()));
+            answers.put(key, answer);
+            unsaved.put(key, answer);
+        }
+
+        thinking = timer.schedule(this::think, scenario.thinkTimeMs(random), TimeUnit.MILLISECONDS);
+    }
+
+    private int firstUnanswered() {
+        for (int i = 0; i < questionIds.size(); i++) {
+            if (!answers.containsKey(String.valueOf(questionIds.get(i)))) return i;
+        }
+        return 0;
+    }
+
+    private void autosave() {
+        Map<String, String> changes;
+        Map<String, Object> body = new HashMap<>();
+
+        synchronized (this) {
+            if (!active || unsaved.isEmpty()) return;
+            changes = new HashMap<>(unsaved);
+            unsaved.clear();
+
+            if (scenario.deltaAutosave) {
+                body.put("changes", changes);
+                body.put("seq", ++seq);
+            } else {
+                body.put("answers", toJson(answers));
+            }
+        }
+
+        String endpoint = scenario.deltaAutosave ? "autosave/delta" : "autosave";
+        client.post(endpoint, examPath + "/" + endpoint, token, body).whenComplete((res, e) -> {
+            if (e == null && res.ok()) return;
+            // not saved: send these again next time (unless answered since)
+            synchronized (this) {
+                changes.forEach(unsaved::putIfAbsent);
+            }
+        });
+    }
+
+    // what the page sends after a tab switch: hidden + blur, then back
+    private void proctoringEvents() {
+        if (!isActive()) return;
+
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> events = new ArrayList<>(scenario.proctoringBatch);
+        for (int i = 0; i < scenario.proctoringBatch; i++) {
+            events.add(Map.of("type", PROCTORING_TYPES[i % PROCTORING_TYPES.length], "at", now - scenario.proctoringBatch + i));
+        }
+
+        client.post("proctoring-events", examPath + "/proctoring-events", token, Map.of("events", events));
+    }
+
+    private void dashboard() {
+        if (isActive()) client.get("student-dashboard", "/student/dashboard/summary", token);
+    }
+
+    /* ================= SUBMIT ================= */
+
+    void submit() {
+        Map<String, Object> body = new HashMap<>();
+
+        synchronized (this) {
+            submitDue = true;
+            if (!active) return;
+            active = false;
+            if (thinking != null) thinking.cancel(false);
+            loops.forEach(f -> f.cancel(false));
+            loops.clear();
+
+            body.put("answers", toJson(answers));
+            body.put("reason", "MANUAL_SUBMIT");
+        }
+
+        client.post("submit", examPath + "/submit", token, body).whenComplete((res, e) -> {
+            if (e != null || !res.ok()) {
+                finished.complete(Outcome.SUBMIT_FAILED);
+                return;
+            }
+            if (!scenario.awaitGrading) {
+                finished.complete(Outcome.SUBMITTED);
+                return;
+            }
+            submittedAtNanos = System.nanoTime();
+            timer.schedule(this::pollGrading, GRADING_POLL_MS, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    // time from the submit response until the result exists, recorded as "grading"
+    private void pollGrading() {
+        client.get("result-status", examPath + "/result-status", token).whenComplete((res, e) -> {
+            long now = System.nanoTime();
+
+            if (e == null && res.ok() && "GRADED".equals(statusOf(res))) {
+                client.stats("grading").record(submittedAtNanos, now, 200, null);
+                finished.complete(Outcome.GRADED);
+            } else if (now - submittedAtNanos > TimeUnit.MILLISECONDS.toNanos(GRADING_TIMEOUT_MS)) {
+                client.stats("grading").record(submittedAtNanos, now, 504, null);
+                finished.complete(Outcome.SUBMITTED);
+            } else {
+                timer.schedule(this::pollGrading, GRADING_POLL_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    private String statusOf(LoadClient.Response res) {
+        try {
+            return client.parse(res).path("status").asText();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private String toJson(Map<String, String> map) {
+        try {
+            return client.json.writeValueAsString(map);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.exam.online_exam_platform.config;
+
+import com.exam.online_exam_platform.service.DbPoolMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DbPoolMetricsConfig {
+
+    // Boot's own Hikari binder stands back once a tracker is set; DbPoolMetrics forwards to Micrometer instead
+    @Bean
+    public static DbPoolMetrics dbPoolMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DbPoolMetrics(meterRegistry::getIfAvailable);
+    }
+
+    // the tracker has to be set before the pool starts (on the first getConnection)
+    @Bean
+    public static BeanPostProcessor dbPoolMetricsInstaller(ObjectProvider<DbPoolMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari
+                        && hikari.getMetricsTrackerFactory() == null
+                        && hikari.getMetricRegistry() == null) {
+                    hikari.setMetricsTrackerFactory(metrics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
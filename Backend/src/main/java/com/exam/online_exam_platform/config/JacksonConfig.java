@@ -1,14 +1,21 @@
 package com.exam.online_exam_platform.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Instant;
+
 @Configuration
 public class JacksonConfig {
 
     @Bean
     public ObjectMapper objectMapper() {
-        return new ObjectMapper();
+        // Instants as ISO-8601 strings, the same as the MVC responses
+        SimpleModule javaTime = new SimpleModule("java-time")
+                .addSerializer(Instant.class, ToStringSerializer.instance);
+        return new ObjectMapper().registerModule(javaTime);
     }
 }
@@ -0,0 +1,72 @@
+package com.exam.online_exam_platform.config;
+
+import com.exam.online_exam_platform.service.DbPoolMetrics;
+import com.exam.online_exam_platform.service.ReplicaRouting;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces Boot's single DataSource with a primary and a replica pool when
+ * exam.replica.enabled=true; @Transactional(readOnly = true) work goes to
+ * the replica (see ReplicaRouting).
+ *
+ * Both pools take spring.datasource.hikari.*; the replica then applies
+ * exam.replica.datasource.* on top (jdbc-url, username, password and any
+ * Hikari setting). Neither pool is a bean of its own, so health and Boot's
+ * pool metadata only see the routing DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "exam.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRouting replicaRouting(
+            Environment env,
+            DbPoolMetrics dbPoolMetrics,
+            @Value("${exam.replica.max-lag-ms:1000}") long maxLagMs,
+            @Value("${exam.replica.check-timeout-seconds:2}") int checkTimeoutSeconds
+    ) {
+        Binder binder = Binder.get(env);
+
+        HikariDataSource primary = new HikariDataSource();
+        primary.setPoolName("primary");
+        primary.setJdbcUrl(env.getRequiredProperty("spring.datasource.url"));
+        primary.setUsername(env.getProperty("spring.datasource.username"));
+        primary.setPassword(env.getProperty("spring.datasource.password"));
+        primary.setDriverClassName(env.getProperty("spring.datasource.driver-class-name"));
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setUsername(primary.getUsername());
+        replica.setPassword(primary.getPassword());
+        replica.setDriverClassName(primary.getDriverClassName());
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        binder.bind("exam.replica.datasource", Bindable.ofInstance(replica));
+        if (replica.getJdbcUrl() == null || replica.getJdbcUrl().isBlank()) {
+            throw new IllegalStateException("exam.replica.enabled=true needs exam.replica.datasource.jdbc-url");
+        }
+
+        // not beans, so DbPoolMetricsConfig's post-processor never sees them
+        primary.setMetricsTrackerFactory(dbPoolMetrics);
+        replica.setMetricsTrackerFactory(dbPoolMetrics);
+
+        return new ReplicaRouting(primary, replica, maxLagMs, checkTimeoutSeconds);
+    }
+
+    // the transaction manager takes its connection before the read-only flag is
+    // published; the proxy holds off the routing decision until the first statement
+    @Bean
+    public DataSource dataSource(ReplicaRouting replicaRouting) {
+        return new LazyConnectionDataSourceProxy(replicaRouting.routingDataSource());
+    }
+}
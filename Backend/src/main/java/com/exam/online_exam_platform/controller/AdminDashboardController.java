@@ -2,23 +2,34 @@ package com.exam.online_exam_platform.controller;
 
 import com.exam.online_exam_platform.dto.AdminDashboardOverviewDTO;
 import com.exam.online_exam_platform.service.AdminDashboardService;
+import com.exam.online_exam_platform.service.ExamMetrics;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/admin/dashboard")
 @CrossOrigin(origins = "${frontend.url}")
 public class AdminDashboardController {
 
     private final AdminDashboardService dashboardService;
+    private final ExamMetrics metrics;
 
-    public AdminDashboardController(AdminDashboardService dashboardService) {
+    public AdminDashboardController(AdminDashboardService dashboardService, ExamMetrics metrics) {
         this.dashboardService = dashboardService;
+        this.metrics = metrics;
     }
 
     @GetMapping("/overview")
     public ResponseEntity<AdminDashboardOverviewDTO> getOverview() {
-        AdminDashboardOverviewDTO overview = dashboardService.getOverview();
+        AdminDashboardOverviewDTO overview = metrics.dashboardOverview.record(dashboardService::getOverview);
         return ResponseEntity.ok(overview);
     }
+
+    // recompute the dashboard aggregates from the results table
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        return ResponseEntity.ok(dashboardService.rebuildAggregates());
+    }
 }
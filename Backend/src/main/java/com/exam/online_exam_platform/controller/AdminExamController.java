@@ -4,21 +4,35 @@ import com.exam.online_exam_platform.dto.QuestionCreateDTO;
 import com.exam.online_exam_platform.entity.Exam;
 import com.exam.online_exam_platform.entity.Question;
 import com.exam.online_exam_platform.service.AdminExamService;
+import com.exam.online_exam_platform.service.ExamLiveFeed;
+import com.exam.online_exam_platform.service.QuestionImportJobs;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/admin/exams")
 public class AdminExamController {
 
     private final AdminExamService examService;
+    private final QuestionImportJobs importJobs;
+    private final ExamLiveFeed liveFeed;
 
     // ✅ Explicit constructor (NO Lombok, Maven & Docker safe)
-    public AdminExamController(AdminExamService examService) {
+    public AdminExamController(
+            AdminExamService examService,
+            QuestionImportJobs importJobs,
+            ExamLiveFeed liveFeed
+    ) {
         this.examService = examService;
+        this.importJobs = importJobs;
+        this.liveFeed = liveFeed;
     }
 
     /* ================= EXAMS ================= */
@@ -43,6 +57,14 @@ public class AdminExamController {
         }
     }
 
+    /* ================= LIVE FEED ================= */
+
+    // SSE: "snapshot" with every attempt, then "attempts" with the ones that changed
+    @GetMapping(value = "/{examId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter liveFeed(@PathVariable Long examId) {
+        return liveFeed.subscribe(examId);
+    }
+
     /* ================= QUESTIONS ================= */
 
     @GetMapping("/{examId}/questions")
@@ -58,16 +80,48 @@ public class AdminExamController {
         examService.addQuestionToExam(examId, dto);
     }
 
+    /* ================= PDF IMPORT (BACKGROUND JOB) ================= */
+    // answers at once with the job; poll / stream / cancel it below
     @PostMapping("/{examId}/questions/import-pdf")
     public ResponseEntity<?> importQuestionsFromPdf(
             @PathVariable Long examId,
             @RequestParam("file") MultipartFile file
     ) {
         try {
-            int count = examService.importQuestionsFromPdf(examId, file);
-            return ResponseEntity.ok("Imported " + count + " questions successfully");
+            return ResponseEntity.accepted().body(importJobs.submit(examId, file));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    @GetMapping("/{examId}/questions/import-jobs/{jobId}")
+    public Map<String, Object> importJobStatus(
+            @PathVariable Long examId,
+            @PathVariable String jobId
+    ) {
+        return importJobs.status(examId, jobId);
+    }
+
+    // one status line (NDJSON) per change until the job finishes
+    @GetMapping(value = "/{examId}/questions/import-jobs/{jobId}/events", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importJobEvents(
+            @PathVariable Long examId,
+            @PathVariable String jobId
+    ) {
+        importJobs.status(examId, jobId); // 400 now rather than mid-stream
+
+        StreamingResponseBody body = out -> importJobs.streamStatus(examId, jobId, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @DeleteMapping("/{examId}/questions/import-jobs/{jobId}")
+    public Map<String, Object> cancelImportJob(
+            @PathVariable Long examId,
+            @PathVariable String jobId
+    ) {
+        return importJobs.cancel(examId, jobId);
+    }
 }
@@ -0,0 +1,162 @@
+package com.exam.online_exam_platform.controller;
+
+import com.exam.online_exam_platform.security.PrincipalCache;
+import com.exam.online_exam_platform.security.VerifiedTokenCache;
+import com.exam.online_exam_platform.service.AttemptAdmission;
+import com.exam.online_exam_platform.service.AttemptExpirySweeper;
+import com.exam.online_exam_platform.service.DbPoolMetrics;
+import com.exam.online_exam_platform.service.ExamLiveFeed;
+import com.exam.online_exam_platform.service.GradingQueue;
+import com.exam.online_exam_platform.service.ProctoringEventLog;
+import com.exam.online_exam_platform.service.QuestionCache;
+import com.exam.online_exam_platform.service.QuestionImportJobs;
+import com.exam.online_exam_platform.service.ReplicaRouting;
+import com.exam.online_exam_platform.service.ResultPdfBundleService;
+import com.exam.online_exam_platform.service.ResultPdfCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/metrics")
+public class AdminMetricsController {
+
+    private final QuestionCache questionCache;
+    private final GradingQueue gradingQueue;
+    private final AttemptAdmission admission;
+    private final PrincipalCache principalCache;
+    private final VerifiedTokenCache tokenCache;
+    private final ResultPdfBundleService pdfBundleService;
+    private final ResultPdfCache pdfCache;
+    private final QuestionImportJobs importJobs;
+    private final DbPoolMetrics dbPoolMetrics;
+    private final ObjectProvider<ReplicaRouting> replicaRouting;
+    private final ProctoringEventLog proctoringEvents;
+    private final ExamLiveFeed liveFeed;
+    private final AttemptExpirySweeper expirySweeper;
+
+    public AdminMetricsController(
+            QuestionCache questionCache,
+            GradingQueue gradingQueue,
+            AttemptAdmission admission,
+            PrincipalCache principalCache,
+            VerifiedTokenCache tokenCache,
+            ResultPdfBundleService pdfBundleService,
+            ResultPdfCache pdfCache,
+            QuestionImportJobs importJobs,
+            DbPoolMetrics dbPoolMetrics,
+            ObjectProvider<ReplicaRouting> replicaRouting,
+            ProctoringEventLog proctoringEvents,
+            ExamLiveFeed liveFeed,
+            AttemptExpirySweeper expirySweeper
+    ) {
+        this.questionCache = questionCache;
+        this.gradingQueue = gradingQueue;
+        this.admission = admission;
+        this.principalCache = principalCache;
+        this.tokenCache = tokenCache;
+        this.pdfBundleService = pdfBundleService;
+        this.pdfCache = pdfCache;
+        this.importJobs = importJobs;
+        this.dbPoolMetrics = dbPoolMetrics;
+        this.replicaRouting = replicaRouting;
+        this.proctoringEvents = proctoringEvents;
+        this.liveFeed = liveFeed;
+        this.expirySweeper = expirySweeper;
+    }
+
+    /* ================= QUESTION CACHE ================= */
+
+    @GetMapping("/question-cache")
+    public Map<String, Object> questionCache() {
+        return questionCache.stats();
+    }
+
+    /* ================= GRADING ================= */
+
+    @GetMapping("/grading")
+    public Map<String, Object> grading() {
+        return gradingQueue.stats();
+    }
+
+    /* ================= ADMISSION ================= */
+
+    @GetMapping("/admission")
+    public Map<String, Object> admission() {
+        return admission.stats();
+    }
+
+    /* ================= PRINCIPAL CACHE ================= */
+
+    @GetMapping("/principal-cache")
+    public Map<String, Object> principalCache() {
+        return principalCache.stats();
+    }
+
+    /* ================= VERIFIED TOKEN CACHE ================= */
+
+    @GetMapping("/token-cache")
+    public Map<String, Object> tokenCache() {
+        return tokenCache.stats();
+    }
+
+    /* ================= RESULT PDF BUNDLES ================= */
+
+    @GetMapping("/pdf-bundles")
+    public Map<String, Object> pdfBundles() {
+        return pdfBundleService.stats();
+    }
+
+    /* ================= RESULT PDF CACHE ================= */
+
+    @GetMapping("/pdf-cache")
+    public Map<String, Object> pdfCache() {
+        return pdfCache.stats();
+    }
+
+    /* ================= QUESTION IMPORT JOBS ================= */
+
+    @GetMapping("/question-imports")
+    public Map<String, Object> questionImports() {
+        return importJobs.stats();
+    }
+
+    /* ================= DB CONNECTION POOL ================= */
+
+    @GetMapping("/db-pool")
+    public Map<String, Object> dbPool() {
+        return dbPoolMetrics.stats();
+    }
+
+    /* ================= READ REPLICA ================= */
+
+    @GetMapping("/db-replica")
+    public Map<String, Object> dbReplica() {
+        ReplicaRouting routing = replicaRouting.getIfAvailable();
+        return routing != null ? routing.stats() : Map.of("enabled", false);
+    }
+
+    /* ================= PROCTORING EVENTS ================= */
+
+    @GetMapping("/proctoring-events")
+    public Map<String, Object> proctoringEvents() {
+        return proctoringEvents.stats();
+    }
+
+    /* ================= LIVE FEED ================= */
+
+    @GetMapping("/live-feed")
+    public Map<String, Object> liveFeed() {
+        return liveFeed.stats();
+    }
+
+    /* ================= ATTEMPT EXPIRY ================= */
+
+    @GetMapping("/expiry")
+    public Map<String, Object> expiry() {
+        return expirySweeper.stats();
+    }
+}
@@ -1,24 +1,124 @@
 package com.exam.online_exam_platform.controller;
 
 import com.exam.online_exam_platform.dto.AdminResultDTO;
+import com.exam.online_exam_platform.dto.AdminResultFilter;
 import com.exam.online_exam_platform.service.AdminResultService;
+import com.exam.online_exam_platform.service.ResultPdfBundleService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/admin/results")
 public class AdminResultController {
 
     private final AdminResultService resultService;
+    private final ResultPdfBundleService pdfBundleService;
 
     // ✅ Explicit constructor (Maven & Docker safe)
-    public AdminResultController(AdminResultService resultService) {
+    public AdminResultController(
+            AdminResultService resultService,
+            ResultPdfBundleService pdfBundleService
+    ) {
         this.resultService = resultService;
+        this.pdfBundleService = pdfBundleService;
     }
 
     @GetMapping
     public List<AdminResultDTO> getAllResults() {
         return resultService.getAllResults();
     }
+
+    /* ================= KEYSET PAGE ================= */
+    // /admin/results/page?size=50[&beforeId=][&examId=][&courseId=][&status=][&from=][&to=]
+    @GetMapping("/page")
+    public Map<String, Object> getResultsPage(
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to
+    ) {
+        return resultService.getResultsPage(
+                new AdminResultFilter(examId, courseId, status, from, to),
+                beforeId,
+                size
+        );
+    }
+
+    /* ================= NDJSON STREAM ================= */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamResults(
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to
+    ) {
+        AdminResultFilter filter = new AdminResultFilter(examId, courseId, status, from, to);
+
+        StreamingResponseBody body = out -> resultService.streamResults(filter, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /* ================= CSV EXPORT ================= */
+    // /admin/results/export.csv[?examId=][&courseId=]
+    @GetMapping(value = "/export.csv", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) Long courseId
+    ) {
+        String filename = examId != null ? "results-exam-" + examId + ".csv"
+                : courseId != null ? "results-course-" + courseId + ".csv"
+                : "results.csv";
+
+        StreamingResponseBody body = out -> resultService.exportCsv(examId, courseId, out);
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=" + filename)
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+    }
+
+    /* ================= RESULT PDF BUNDLE ================= */
+    // ZIP of every result statement of an exam; X-Bundle-Id identifies it for status / cancel
+    @GetMapping(value = "/pdf-bundle", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> downloadPdfBundle(@RequestParam Long examId) {
+        ResultPdfBundleService.Bundle bundle = pdfBundleService.start(examId);
+
+        StreamingResponseBody body = out -> pdfBundleService.write(bundle, out);
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=results-exam-" + examId + "-pdf.zip")
+                .header("X-Bundle-Id", bundle.getId())
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    @GetMapping("/pdf-bundle/{bundleId}")
+    public Map<String, Object> pdfBundleStatus(@PathVariable String bundleId) {
+        return pdfBundleService.status(bundleId);
+    }
+
+    @DeleteMapping("/pdf-bundle/{bundleId}")
+    public Map<String, Object> cancelPdfBundle(@PathVariable String bundleId) {
+        return pdfBundleService.cancel(bundleId);
+    }
+
+    /* ================= PROCTORING EVENTS ================= */
+
+    @GetMapping("/{resultId}/proctoring-events")
+    public Map<String, Object> proctoringEvents(@PathVariable Long resultId) {
+        return resultService.getProctoringEvents(resultId);
+    }
 }
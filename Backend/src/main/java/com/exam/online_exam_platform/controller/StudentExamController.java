@@ -1,11 +1,17 @@
 package com.exam.online_exam_platform.controller;
 
+import com.exam.online_exam_platform.dto.AutosaveDeltaRequest;
 import com.exam.online_exam_platform.dto.ExamSubmitRequest;
+import com.exam.online_exam_platform.dto.ProctoringEventsRequest;
 import com.exam.online_exam_platform.dto.QuestionReviewDTO;
 import com.exam.online_exam_platform.dto.StudentExamDTO;
 import com.exam.online_exam_platform.entity.Exam;
 import com.exam.online_exam_platform.security.AuthUtil;
+import com.exam.online_exam_platform.service.AttemptAdmission;
+import com.exam.online_exam_platform.service.ExamMetrics;
 import com.exam.online_exam_platform.service.StudentExamService;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,13 +24,19 @@ public class StudentExamController {
 
     private final StudentExamService service;
     private final AuthUtil authUtil;
+    private final AttemptAdmission admission;
+    private final ExamMetrics metrics;
 
     public StudentExamController(
             StudentExamService service,
-            AuthUtil authUtil
+            AuthUtil authUtil,
+            AttemptAdmission admission,
+            ExamMetrics metrics
     ) {
         this.service = service;
         this.authUtil = authUtil;
+        this.admission = admission;
+        this.metrics = metrics;
     }
 
     /* ================= GET ALL EXAMS ================= */
@@ -33,10 +45,35 @@ public class StudentExamController {
         return service.getAllExamsForStudent(authUtil.getCurrentUser());
     }
 
+    /* ================= GET EXAMS (PAGED) ================= */
+    // /student/exams?page=0&size=20[&courseId=3]
+    @GetMapping(params = "page")
+    public Map<String, Object> getMyExamsPage(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long courseId
+    ) {
+        Page<StudentExamDTO> exams = service.getExamsForStudent(
+                authUtil.getCurrentUser(), courseId, page, size
+        );
+
+        return Map.of(
+                "content", exams.getContent(),
+                "page", exams.getNumber(),
+                "size", exams.getSize(),
+                "totalElements", exams.getTotalElements(),
+                "totalPages", exams.getTotalPages()
+        );
+    }
+
     /* ================= START / RESUME ================= */
+    // saturated → 429 { status: QUEUED, queuePosition, retryAfterMs } + Retry-After
+    // timed here, not in the service, so the commit is included (same below)
     @GetMapping("/{id}/attempt")
     public Map<String, Object> startOrResume(@PathVariable Long id) {
-        return service.startOrResume(id, authUtil.getCurrentUser());
+        try (AttemptAdmission.Permit permit = admission.admit(id)) {
+            return metrics.attemptStart.record(() -> service.startOrResume(id, authUtil.getCurrentUser()));
+        }
     }
 
     /* ================= AUTOSAVE ================= */
@@ -48,16 +85,45 @@ public class StudentExamController {
             @PathVariable Long id,
             @RequestBody ExamSubmitRequest body
     ) {
-        service.autosave(
+        metrics.autosave.run(() -> service.autosave(
                 id,
                 authUtil.getCurrentUser(),
-                body.getAnswers() == null ? "{}" : body.getAnswers(),
-                body.getViolations() == null ? 0 : body.getViolations()
-        );
+                body.getAnswers() == null ? "{}" : body.getAnswers()
+        ));
 
         return ResponseEntity.ok().build();
     }
 
+    /* ================= DELTA AUTOSAVE ================= */
+    // body: { "changes": { "<questionId>": "<option>" }, "seq": n }
+    @PostMapping(
+            value = "/{id}/autosave/delta",
+            consumes = "application/json"
+    )
+    public ResponseEntity<?> autosaveDelta(
+            @PathVariable Long id,
+            @RequestBody AutosaveDeltaRequest body
+    ) {
+        if (body.getSeq() == null) {
+            return ResponseEntity.badRequest().body("seq is required");
+        }
+
+        Long applied = metrics.autosaveDelta.record(() -> service.autosaveDelta(
+                id,
+                authUtil.getCurrentUser(),
+                body.getChanges() == null ? Map.of() : body.getChanges(),
+                body.getSeq()
+        ));
+
+        if (applied == null) {
+            metrics.autosaveRejected.increment();
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "No active attempt"));
+        }
+
+        return ResponseEntity.ok(Map.of("appliedSeq", applied));
+    }
+
     /* ================= SUBMIT ================= */
     @PostMapping(
             value = "/{id}/submit",
@@ -67,15 +133,46 @@ public class StudentExamController {
             @PathVariable Long id,
             @RequestBody ExamSubmitRequest body
     ) {
-        service.submit(
+        metrics.submit.run(() -> service.submit(
                 id,
                 authUtil.getCurrentUser(),
                 body.getAnswers() == null ? "{}" : body.getAnswers(),
-                body.getViolations() == null ? 0 : body.getViolations(),
                 body.getReason() == null ? "MANUAL_SUBMIT" : body.getReason()
-        );
+        ));
 
         return ResponseEntity.ok().build();
     }
 
+    /* ================= PROCTORING EVENTS ================= */
+    // body: { "events": [ { "type": "TAB_HIDDEN", "at": <epoch ms>, "detail": "..." } ] }
+    // buffer full → 429 + Retry-After, nothing accepted; violations are derived from these
+    @PostMapping(
+            value = "/{id}/proctoring-events",
+            consumes = "application/json"
+    )
+    public ResponseEntity<?> proctoringEvents(
+            @PathVariable Long id,
+            @RequestBody ProctoringEventsRequest body
+    ) {
+        Integer accepted = metrics.proctoringIngest.record(() -> service.recordProctoringEvents(
+                id,
+                authUtil.getCurrentUser(),
+                body.getEvents() == null ? List.of() : body.getEvents()
+        ));
+
+        if (accepted == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "No active attempt"));
+        }
+
+        return ResponseEntity.accepted().body(Map.of("accepted", accepted));
+    }
+
+    /* ================= GRADING STATUS ================= */
+    // NOT_STARTED | IN_PROGRESS | GRADING | GRADED (+ resultId, score)
+    @GetMapping("/{id}/result-status")
+    public Map<String, Object> resultStatus(@PathVariable Long id) {
+        return service.getResultStatus(id, authUtil.getCurrentUser());
+    }
+
 }
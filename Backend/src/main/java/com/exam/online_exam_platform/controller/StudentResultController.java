@@ -5,11 +5,13 @@ import com.exam.online_exam_platform.dto.StudentResultDTO;
 import com.exam.online_exam_platform.entity.Result;
 import com.exam.online_exam_platform.repository.ResultRepository;
 import com.exam.online_exam_platform.security.AuthUtil;
+import com.exam.online_exam_platform.service.ResultPdfCache;
 import com.exam.online_exam_platform.service.StudentExamService;
-import com.exam.online_exam_platform.util.ResultPdfGenerator;
-import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -20,15 +22,18 @@ public class StudentResultController {
     private final ResultRepository repo;
     private final StudentExamService studentExamService;
     private final AuthUtil authUtil;
+    private final ResultPdfCache pdfCache;
 
     public StudentResultController(
             ResultRepository repo,
             StudentExamService studentExamService,
-            AuthUtil authUtil
+            AuthUtil authUtil,
+            ResultPdfCache pdfCache
     ) {
         this.repo = repo;
         this.studentExamService = studentExamService;
         this.authUtil = authUtil;
+        this.pdfCache = pdfCache;
     }
 
     /* ================= GET MY RESULTS ================= */
@@ -59,22 +64,20 @@ public class StudentResultController {
         );
     }
 
+    /* ================= RESULT PDF ================= */
+    // rendered once per template version, then served from the disk cache
     @GetMapping("/{resultId}/pdf")
-    public ResponseEntity<byte[]> downloadResultPdf(
-            @PathVariable Long resultId
-    ) {
+    public void downloadResultPdf(
+            @PathVariable Long resultId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
         var dto = studentExamService.getResultForPdf(
                 resultId,
                 authUtil.getCurrentUser()
         );
 
-        byte[] pdf = ResultPdfGenerator.generate(dto);
-
-        return ResponseEntity.ok()
-                .header("Content-Disposition",
-                        "attachment; filename=result-" + resultId + ".pdf")
-                .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
-                .body(pdf);
+        pdfCache.serve(resultId, dto, request, response);
     }
 
 }
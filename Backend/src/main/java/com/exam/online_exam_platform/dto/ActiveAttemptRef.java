@@ -0,0 +1,23 @@
+package com.exam.online_exam_platform.dto;
+
+import java.time.Instant;
+
+/**
+ * The columns of an ACTIVE attempt the autosave buffer and the proctoring
+ * log need, read without loading its (eager) student and exam.
+ */
+public record ActiveAttemptRef(
+        Long id,
+        Instant endsAt,
+        Long autosaveSeq,
+        Long writeGen,
+        String answersJson
+) {
+    public long seq() {
+        return autosaveSeq == null ? 0 : autosaveSeq;
+    }
+
+    public long gen() {
+        return writeGen == null ? 0 : writeGen;
+    }
+}
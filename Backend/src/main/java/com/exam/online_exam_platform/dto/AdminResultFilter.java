@@ -0,0 +1,12 @@
+package com.exam.online_exam_platform.dto;
+
+import java.time.Instant;
+
+// all optional; from inclusive, to exclusive (submittedAt, UTC)
+public record AdminResultFilter(
+        Long examId,
+        Long courseId,
+        String status,
+        Instant from,
+        Instant to
+) {}
@@ -0,0 +1,28 @@
+package com.exam.online_exam_platform.dto;
+
+import java.util.Map;
+
+public class AutosaveDeltaRequest {
+
+    // questionId -> selected option (null clears the answer)
+    private Map<String, String> changes;
+
+    // client-side counter, strictly increasing per attempt
+    private Long seq;
+
+    public Map<String, String> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(Map<String, String> changes) {
+        this.changes = changes;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+}
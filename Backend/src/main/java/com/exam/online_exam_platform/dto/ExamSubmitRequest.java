@@ -3,7 +3,6 @@ package com.exam.online_exam_platform.dto;
 public class ExamSubmitRequest {
 
     private String answers;
-    private Integer violations;
     private String reason;
 
     public String getAnswers() {
@@ -14,14 +13,6 @@ public class ExamSubmitRequest {
         this.answers = answers;
     }
 
-    public Integer getViolations() {
-        return violations;
-    }
-
-    public void setViolations(Integer violations) {
-        this.violations = violations;
-    }
-
     public String getReason() {
         return reason;
     }
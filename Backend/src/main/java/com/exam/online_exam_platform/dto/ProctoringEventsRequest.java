@@ -0,0 +1,51 @@
+package com.exam.online_exam_platform.dto;
+
+import java.util.List;
+
+public class ProctoringEventsRequest {
+
+    private List<Event> events;
+
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<Event> events) {
+        this.events = events;
+    }
+
+    public static class Event {
+
+        // ProctoringEventType name
+        private String type;
+
+        // epoch millis, client clock (null = when received)
+        private Long at;
+
+        private String detail;
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public Long getAt() {
+            return at;
+        }
+
+        public void setAt(Long at) {
+            this.at = at;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public void setDetail(String detail) {
+            this.detail = detail;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.exam.online_exam_platform.dto;
+
+import com.exam.online_exam_platform.entity.Question;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Immutable, detached copy of a Question, shared across requests by
+ * QuestionCache. Serializes like the entity minus the correct answer.
+ */
+public record QuestionSnapshot(
+        Long id,
+        String questionText,
+        String optionA,
+        String optionB,
+        String optionC,
+        String optionD,
+        @JsonIgnore String correctAnswer
+) {
+
+    public static QuestionSnapshot of(Question q) {
+        return new QuestionSnapshot(
+                q.getId(),
+                q.getQuestionText(),
+                q.getOptionA(),
+                q.getOptionB(),
+                q.getOptionC(),
+                q.getOptionD(),
+                q.getCorrectAnswer()
+        );
+    }
+
+    @JsonProperty("options")
+    public List<String> options() {
+        return List.of(optionA, optionB, optionC, optionD);
+    }
+}
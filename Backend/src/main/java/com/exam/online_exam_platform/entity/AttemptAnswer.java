@@ -0,0 +1,69 @@
+package com.exam.online_exam_platform.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One selected answer of an attempt.
+ * Replaces the old exam_attempts.answers_json blob, so a save only touches
+ * the rows that changed.
+ */
+@Entity
+@Table(name = "attempt_answers")
+@IdClass(AttemptAnswer.Key.class)
+public class AttemptAnswer {
+
+    @Id
+    @Column(name = "attempt_id", nullable = false)
+    private Long attemptId;
+
+    @Id
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "answer", nullable = false)
+    private String answer;
+
+    /* ================= GETTERS ================= */
+
+    public Long getAttemptId() { return attemptId; }
+    public Long getQuestionId() { return questionId; }
+    public String getAnswer() { return answer; }
+
+    /* ================= SETTERS ================= */
+
+    public void setAttemptId(Long attemptId) { this.attemptId = attemptId; }
+    public void setQuestionId(Long questionId) { this.questionId = questionId; }
+    public void setAnswer(String answer) { this.answer = answer; }
+
+    /* ================= KEY ================= */
+
+    public static class Key implements Serializable {
+
+        private Long attemptId;
+        private Long questionId;
+
+        public Key() {
+        }
+
+        public Key(Long attemptId, Long questionId) {
+            this.attemptId = attemptId;
+            this.questionId = questionId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return Objects.equals(attemptId, k.attemptId)
+                    && Objects.equals(questionId, k.questionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(attemptId, questionId);
+        }
+    }
+}
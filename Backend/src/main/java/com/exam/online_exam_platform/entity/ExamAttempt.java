@@ -7,7 +7,9 @@ import java.time.Duration;
 @Entity
 @Table(
         name = "exam_attempts",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "exam_id"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "exam_id"}),
+        // expiry sweeper rebuild / active attempt gauges
+        indexes = @Index(name = "idx_exam_attempts_status_ends_at", columnList = "status, ends_at")
 )
 public class ExamAttempt {
 
@@ -34,16 +36,29 @@ public class ExamAttempt {
     @Column(name = "ends_at", nullable = false)
     private Instant endsAt;
 
+    // LEGACY — answers now live in attempt_answers; kept until migrated
     @Lob
     @Column(name = "answers_json", columnDefinition = "TEXT")
-    private String answersJson = "{}";
+    private String answersJson;
 
     @Column(nullable = false)
     private int violations = 0;
 
+    // last delta-autosave sequence applied (null = none yet)
+    @Column(name = "autosave_seq")
+    private Long autosaveSeq;
+
+    // bumped by every answer write; an older buffered write never lands on a newer one
+    @Column(name = "write_gen")
+    private Long writeGen;
+
     @Column(name = "submission_reason")
     private String submissionReason;
 
+    // set on submit; non-ACTIVE attempts with it and no result await grading
+    @Column(name = "submitted_at")
+    private Instant submittedAt;
+
     // NEW — STORES RANDOMIZED QUESTION IDS
     @Lob
     @Column(name = "question_order", columnDefinition = "TEXT")
@@ -72,7 +87,10 @@ public class ExamAttempt {
     public Instant getEndsAt() { return endsAt; }
     public String getAnswersJson() { return answersJson; }
     public int getViolations() { return violations; }
+    public long getAutosaveSeq() { return autosaveSeq == null ? 0 : autosaveSeq; }
+    public long getWriteGen() { return writeGen == null ? 0 : writeGen; }
     public String getSubmissionReason() { return submissionReason; }
+    public Instant getSubmittedAt() { return submittedAt; }
     public String getQuestionOrder() { return questionOrder; }
 
     /* ================= SETTERS ================= */
@@ -84,6 +102,9 @@ public class ExamAttempt {
     public void setEndsAt(Instant endsAt) { this.endsAt = endsAt; }
     public void setAnswersJson(String answersJson) { this.answersJson = answersJson; }
     public void setViolations(int violations) { this.violations = violations; }
+    public void setAutosaveSeq(long autosaveSeq) { this.autosaveSeq = autosaveSeq; }
+    public void setWriteGen(long writeGen) { this.writeGen = writeGen; }
     public void setSubmissionReason(String submissionReason) { this.submissionReason = submissionReason; }
+    public void setSubmittedAt(Instant submittedAt) { this.submittedAt = submittedAt; }
     public void setQuestionOrder(String questionOrder) { this.questionOrder = questionOrder; } // 🔀 NEW
 }
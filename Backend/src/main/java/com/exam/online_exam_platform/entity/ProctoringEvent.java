@@ -0,0 +1,52 @@
+package com.exam.online_exam_platform.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One proctoring event of an attempt, append-only.
+ * Written in JDBC batches by ProctoringEventLog; mapped here for the schema.
+ */
+@Entity
+@Table(
+        name = "proctoring_events",
+        indexes = @Index(name = "idx_proctoring_events_attempt", columnList = "attempt_id, occurred_at")
+)
+public class ProctoringEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "attempt_id", nullable = false)
+    private Long attemptId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ProctoringEventType type;
+
+    // type.isViolation() when written, so the count does not change with the enum
+    @Column(nullable = false)
+    private boolean violation;
+
+    // client clock
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(length = 200)
+    private String detail;
+
+    /* ================= GETTERS ================= */
+
+    public Long getId() { return id; }
+    public Long getAttemptId() { return attemptId; }
+    public ProctoringEventType getType() { return type; }
+    public boolean isViolation() { return violation; }
+    public Instant getOccurredAt() { return occurredAt; }
+    public Instant getReceivedAt() { return receivedAt; }
+    public String getDetail() { return detail; }
+}
@@ -0,0 +1,31 @@
+package com.exam.online_exam_platform.entity;
+
+/**
+ * What the exam page saw. Violation types count towards the attempt's
+ * violations; the others are kept for the record only.
+ */
+public enum ProctoringEventType {
+
+    TAB_HIDDEN(true),
+    TAB_VISIBLE(false),
+    WINDOW_BLUR(true),
+    WINDOW_FOCUS(false),
+    FULLSCREEN_EXIT(true),
+    BLOCKED_SHORTCUT(true),
+    CLIPBOARD_BLOCKED(false),
+    CONTEXT_MENU_BLOCKED(false),
+    ESC_KEY(true),
+    DEVTOOLS(true),
+    CAMERA_STOPPED(true),
+    CAMERA_DENIED(true);
+
+    private final boolean violation;
+
+    ProctoringEventType(boolean violation) {
+        this.violation = violation;
+    }
+
+    public boolean isViolation() {
+        return violation;
+    }
+}
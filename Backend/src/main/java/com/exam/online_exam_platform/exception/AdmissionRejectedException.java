@@ -0,0 +1,20 @@
+package com.exam.online_exam_platform.exception;
+
+/**
+ * Thrown when an exam's start/resume gate is saturated.
+ * Mapped to 429 + Retry-After by {@link GlobalExceptionHandler}.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final int queuePosition;
+    private final long retryAfterMs;
+
+    public AdmissionRejectedException(int queuePosition, long retryAfterMs) {
+        super("Exam start is busy, retry in " + retryAfterMs + " ms");
+        this.queuePosition = queuePosition;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public int getQueuePosition() { return queuePosition; }
+    public long getRetryAfterMs() { return retryAfterMs; }
+}
@@ -0,0 +1,18 @@
+package com.exam.online_exam_platform.exception;
+
+/**
+ * Thrown when proctoring events arrive faster than they are written.
+ * Mapped to 429 + Retry-After by {@link GlobalExceptionHandler}; the client
+ * keeps the events and sends them again.
+ */
+public class EventBufferFullException extends RuntimeException {
+
+    private final long retryAfterMs;
+
+    public EventBufferFullException(long retryAfterMs) {
+        super("Proctoring events are backed up, retry in " + retryAfterMs + " ms");
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() { return retryAfterMs; }
+}
@@ -1,6 +1,8 @@
 package com.exam.online_exam_platform.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -8,6 +10,31 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmission(AdmissionRejectedException ex) {
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfterMs() + 999) / 1000);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of(
+                        "status", "QUEUED",
+                        "queuePosition", ex.getQueuePosition(),
+                        "retryAfterMs", ex.getRetryAfterMs()
+                ));
+    }
+
+    @ExceptionHandler(EventBufferFullException.class)
+    public ResponseEntity<Map<String, Object>> handleEventBufferFull(EventBufferFullException ex) {
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfterMs() + 999) / 1000);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of(
+                        "error", ex.getMessage(),
+                        "retryAfterMs", ex.getRetryAfterMs()
+                ));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleRuntime(RuntimeException ex) {
@@ -0,0 +1,76 @@
+package com.exam.online_exam_platform.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Single-row upserts / deletes on attempt_answers, sent as JDBC batches.
+ * Callers must hold the exam_attempts row lock of every attempt they write.
+ */
+@Repository
+public class AttemptAnswerJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttemptAnswerJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record AnswerRow(Long attemptId, Long questionId, String answer) {}
+
+    public void batchUpsert(List<AnswerRow> rows) {
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO attempt_answers (attempt_id, question_id, answer)
+                VALUES (?, ?, ?)
+                ON CONFLICT (attempt_id, question_id)
+                DO UPDATE SET answer = EXCLUDED.answer
+                WHERE attempt_answers.answer IS DISTINCT FROM EXCLUDED.answer
+                """,
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setLong(1, row.attemptId());
+                    ps.setLong(2, row.questionId());
+                    ps.setString(3, row.answer());
+                });
+    }
+
+    public void batchDelete(List<AnswerRow> rows) {
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("""
+                DELETE FROM attempt_answers
+                WHERE attempt_id = ? AND question_id = ?
+                """,
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setLong(1, row.attemptId());
+                    ps.setLong(2, row.questionId());
+                });
+    }
+
+    /* ================= LEGACY MIGRATION ================= */
+
+    // keeps rows written since, they are newer than the blob
+    public void batchInsertIfAbsent(List<AnswerRow> rows) {
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO attempt_answers (attempt_id, question_id, answer)
+                VALUES (?, ?, ?)
+                ON CONFLICT (attempt_id, question_id) DO NOTHING
+                """,
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setLong(1, row.attemptId());
+                    ps.setLong(2, row.questionId());
+                    ps.setString(3, row.answer());
+                });
+    }
+}
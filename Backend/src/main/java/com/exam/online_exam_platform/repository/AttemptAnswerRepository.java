@@ -0,0 +1,14 @@
+package com.exam.online_exam_platform.repository;
+
+import com.exam.online_exam_platform.entity.AttemptAnswer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AttemptAnswerRepository extends JpaRepository<AttemptAnswer, AttemptAnswer.Key> {
+
+    List<AttemptAnswer> findByAttemptId(Long attemptId);
+
+    List<AttemptAnswer> findByAttemptIdIn(Collection<Long> attemptIds);
+}
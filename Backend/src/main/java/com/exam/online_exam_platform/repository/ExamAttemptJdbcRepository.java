@@ -0,0 +1,250 @@
+package com.exam.online_exam_platform.repository;
+
+import com.exam.online_exam_platform.entity.AttemptStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for exam_attempts.
+ * Used where Hibernate cannot batch (IDENTITY ids, partial column updates).
+ */
+@Repository
+public class ExamAttemptJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExamAttemptJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record ProgressRow(Long attemptId, long autosaveSeq, long writeGen) {}
+
+    public record ViolationsRow(Long attemptId, int violations) {}
+
+    public record LegacyAnswers(Long attemptId, String answersJson) {}
+
+    public record UngradedAttempt(Long attemptId, Instant submittedAt) {}
+
+    public record ActiveDeadline(Long attemptId, Long studentId, Long examId, Instant endsAt) {}
+
+    public record LiveAttemptRow(Long attemptId, Long studentId, String studentName, AttemptStatus status,
+                                 int violations, Instant startedAt, Instant submittedAt) {}
+
+    /* ================= AUTOSAVE FLUSH ================= */
+
+    /**
+     * Writes buffered progress for ACTIVE attempts in one JDBC batch and
+     * locks the updated rows for the rest of the transaction.
+     * Rows that were submitted or terminated meanwhile, or already carry a
+     * newer write generation, are left untouched.
+     *
+     * @return per-row update counts (0 = no longer active, or a newer write won)
+     */
+    public int[] batchUpdateProgress(List<ProgressRow> rows) {
+        if (rows.isEmpty()) return new int[0];
+
+        int[][] counts = jdbcTemplate.batchUpdate("""
+                UPDATE exam_attempts
+                SET autosave_seq = GREATEST(COALESCE(autosave_seq, 0), ?),
+                    write_gen = ?
+                WHERE id = ? AND status = 'ACTIVE' AND COALESCE(write_gen, 0) < ?
+                """,
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setLong(1, row.autosaveSeq());
+                    ps.setLong(2, row.writeGen());
+                    ps.setLong(3, row.attemptId());
+                    ps.setLong(4, row.writeGen());
+                });
+
+        return counts[0];
+    }
+
+    /* ================= PROCTORING ================= */
+
+    /**
+     * Sets the violations derived from the event log on ACTIVE attempts;
+     * submitted ones keep what submit counted. Rows must come sorted by
+     * attempt id (same lock order as the autosave flush).
+     *
+     * @return per-row update counts (0 = unchanged or no longer active)
+     */
+    public int[] batchUpdateViolations(List<ViolationsRow> rows) {
+        if (rows.isEmpty()) return new int[0];
+
+        int[][] counts = jdbcTemplate.batchUpdate("""
+                UPDATE exam_attempts
+                SET violations = ?
+                WHERE id = ? AND status = 'ACTIVE' AND violations <> ?
+                """,
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setInt(1, row.violations());
+                    ps.setLong(2, row.attemptId());
+                    ps.setInt(3, row.violations());
+                });
+
+        return counts[0];
+    }
+
+    /* ================= LEGACY answers_json ================= */
+
+    public List<LegacyAnswers> findLegacyAnswers(long afterId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, answers_json FROM exam_attempts
+                WHERE answers_json IS NOT NULL AND id > ?
+                ORDER BY id
+                LIMIT ?
+                """,
+                (rs, i) -> new LegacyAnswers(rs.getLong(1), rs.getString(2)),
+                afterId,
+                limit);
+    }
+
+    /** The ones of these attempts that still have a blob. */
+    public List<LegacyAnswers> findLegacyAnswers(Collection<Long> attemptIds) {
+        if (attemptIds.isEmpty()) return List.of();
+
+        return jdbcTemplate.query("""
+                SELECT id, answers_json FROM exam_attempts
+                WHERE id = ANY (?) AND answers_json IS NOT NULL
+                """,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", attemptIds.toArray())),
+                (rs, i) -> new LegacyAnswers(rs.getLong(1), rs.getString(2)));
+    }
+
+    public void clearLegacyAnswers(List<Long> attemptIds) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE exam_attempts SET answers_json = NULL WHERE id = ?",
+                attemptIds,
+                attemptIds.size(),
+                (ps, id) -> ps.setLong(1, id));
+    }
+
+    /* ================= GRADING RECOVERY ================= */
+
+    /** Submitted / terminated attempts that have no result yet, oldest first. */
+    public List<UngradedAttempt> findUngraded(long afterId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT a.id, a.submitted_at FROM exam_attempts a
+                WHERE a.submitted_at IS NOT NULL
+                  AND a.status <> 'ACTIVE'
+                  AND a.id > ?
+                  AND NOT EXISTS (SELECT 1 FROM results r WHERE r.exam_attempt_id = a.id)
+                ORDER BY a.id
+                LIMIT ?
+                """,
+                (rs, i) -> new UngradedAttempt(
+                        rs.getLong(1),
+                        rs.getTimestamp(2).toInstant()
+                ),
+                afterId,
+                limit);
+    }
+
+    /* ================= EXPIRY ================= */
+
+    /** ACTIVE attempts by id, for rebuilding the expiry index. */
+    public List<ActiveDeadline> findActiveDeadlines(long afterId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, student_id, exam_id, ends_at FROM exam_attempts
+                WHERE status = 'ACTIVE' AND id > ?
+                ORDER BY id
+                LIMIT ?
+                """,
+                (rs, i) -> new ActiveDeadline(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getLong(3),
+                        rs.getTimestamp(4).toInstant()
+                ),
+                afterId,
+                limit);
+    }
+
+    /**
+     * Terminates those of the given attempts that are still ACTIVE and ended
+     * before {@code endedBefore}, in one statement. Rows are locked in id
+     * order, like the other batch writers; submitted_at becomes
+     * {@code terminatedAt}, so grading picks them up.
+     *
+     * @return ids of the attempts terminated
+     */
+    public List<Long> terminateExpired(Collection<Long> attemptIds, Instant endedBefore, Instant terminatedAt) {
+        if (attemptIds.isEmpty()) return List.of();
+
+        return jdbcTemplate.query("""
+                UPDATE exam_attempts a
+                SET status = 'TERMINATED',
+                    submitted_at = ?,
+                    submission_reason = COALESCE(a.submission_reason, 'TIME_EXPIRED')
+                FROM (
+                    SELECT id FROM exam_attempts
+                    WHERE id = ANY (?) AND status = 'ACTIVE' AND ends_at <= ?
+                    ORDER BY id
+                    FOR UPDATE
+                ) due
+                WHERE a.id = due.id AND a.status = 'ACTIVE'
+                RETURNING a.id
+                """,
+                ps -> {
+                    ps.setObject(1, OffsetDateTime.ofInstant(terminatedAt, ZoneOffset.UTC));
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", attemptIds.toArray()));
+                    ps.setObject(3, OffsetDateTime.ofInstant(endedBefore, ZoneOffset.UTC));
+                },
+                (rs, i) -> rs.getLong(1));
+    }
+
+    /* ================= LIVE FEED ================= */
+
+    /** Every attempt of the exam with its student, for a live feed's first snapshot. */
+    public List<LiveAttemptRow> findLiveStates(Long examId) {
+        return jdbcTemplate.query("""
+                SELECT a.id, a.student_id, u.name, a.status, a.violations, a.started_at, a.submitted_at
+                FROM exam_attempts a
+                JOIN users u ON u.id = a.student_id
+                WHERE a.exam_id = ?
+                ORDER BY a.id
+                """,
+                (rs, i) -> {
+                    Timestamp submittedAt = rs.getTimestamp(7);
+                    return new LiveAttemptRow(
+                            rs.getLong(1),
+                            rs.getLong(2),
+                            rs.getString(3),
+                            AttemptStatus.valueOf(rs.getString(4)),
+                            rs.getInt(5),
+                            rs.getTimestamp(6).toInstant(),
+                            submittedAt != null ? submittedAt.toInstant() : null
+                    );
+                },
+                examId);
+    }
+
+    /* ================= METRICS ================= */
+
+    /** exam id → ACTIVE attempts that have not run out yet. */
+    public Map<Long, Long> countActiveByExam() {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT exam_id, COUNT(*) FROM exam_attempts
+                WHERE status = 'ACTIVE' AND ends_at > CURRENT_TIMESTAMP
+                GROUP BY exam_id
+                """,
+                rs -> {
+                    counts.put(rs.getLong(1), rs.getLong(2));
+                });
+        return counts;
+    }
+}
@@ -1,5 +1,6 @@
 package com.exam.online_exam_platform.repository;
 
+import com.exam.online_exam_platform.dto.ActiveAttemptRef;
 import com.exam.online_exam_platform.entity.*;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -24,6 +25,24 @@ public interface ExamAttemptRepository extends JpaRepository<ExamAttempt, Long>
             AttemptStatus status
     );
 
+    // scalars only for the autosave buffer / proctoring log: the entity would load User and Exam (EAGER)
+    @Query("""
+        SELECT new com.exam.online_exam_platform.dto.ActiveAttemptRef(
+            ea.id, ea.endsAt, ea.autosaveSeq, ea.writeGen, ea.answersJson)
+        FROM ExamAttempt ea
+        WHERE ea.student.id = :studentId AND ea.exam.id = :examId
+          AND ea.status = com.exam.online_exam_platform.entity.AttemptStatus.ACTIVE
+    """)
+    Optional<ActiveAttemptRef> findActiveRef(
+            @Param("studentId") Long studentId,
+            @Param("examId") Long examId
+    );
+
+    Optional<ExamAttempt> findByStudentIdAndExamId(
+            Long studentId,
+            Long examId
+    );
+
     /* ================= LOCKED READ (START / RESUME ONLY) ================= */
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
@@ -1,12 +1,50 @@
 package com.exam.online_exam_platform.repository;
 
+import com.exam.online_exam_platform.dto.StudentExamDTO;
 import com.exam.online_exam_platform.entity.Exam;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ExamRepository extends JpaRepository<Exam, Long> {
     long countByStartTimeAfter(LocalDateTime now);
     long countByEndTimeBefore(LocalDateTime now);
 
+    /* ================= STUDENT CATALOG (ONE QUERY) ================= */
+
+    // every exam + this student's attempt status (null = not attempted)
+    @Query("""
+        SELECT new com.exam.online_exam_platform.dto.StudentExamDTO(
+            e.id, e.title, e.durationMinutes, a.status)
+        FROM Exam e
+        LEFT JOIN ExamAttempt a ON a.exam = e AND a.student.id = :studentId
+        ORDER BY e.id
+    """)
+    List<StudentExamDTO> findCatalogForStudent(@Param("studentId") Long studentId);
+
+    // same, paged and optionally limited to one course
+    @Query(
+            value = """
+                SELECT new com.exam.online_exam_platform.dto.StudentExamDTO(
+                    e.id, e.title, e.durationMinutes, a.status)
+                FROM Exam e
+                LEFT JOIN ExamAttempt a ON a.exam = e AND a.student.id = :studentId
+                WHERE (:courseId IS NULL OR e.course.id = :courseId)
+                ORDER BY e.id
+            """,
+            countQuery = """
+                SELECT COUNT(e) FROM Exam e
+                WHERE (:courseId IS NULL OR e.course.id = :courseId)
+            """
+    )
+    Page<StudentExamDTO> findCatalogForStudent(
+            @Param("studentId") Long studentId,
+            @Param("courseId") Long courseId,
+            Pageable pageable
+    );
 }
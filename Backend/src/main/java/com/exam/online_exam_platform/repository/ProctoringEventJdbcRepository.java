@@ -0,0 +1,108 @@
+package com.exam.online_exam_platform.repository;
+
+import com.exam.online_exam_platform.entity.ProctoringEventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends to proctoring_events and derives violation counts from it.
+ * Inserts go out as JDBC batches; with reWriteBatchedInserts the driver
+ * turns them into multi-row INSERTs.
+ */
+@Repository
+public class ProctoringEventJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProctoringEventJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record EventRow(Long attemptId, ProctoringEventType type,
+                           Instant occurredAt, Instant receivedAt, String detail) {}
+
+    public void batchInsert(List<EventRow> rows) {
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO proctoring_events
+                    (attempt_id, type, violation, occurred_at, received_at, detail)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """,
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setLong(1, row.attemptId());
+                    ps.setString(2, row.type().name());
+                    ps.setBoolean(3, row.type().isViolation());
+                    ps.setObject(4, OffsetDateTime.ofInstant(row.occurredAt(), ZoneOffset.UTC));
+                    ps.setObject(5, OffsetDateTime.ofInstant(row.receivedAt(), ZoneOffset.UTC));
+                    ps.setString(6, row.detail());
+                });
+    }
+
+    /* ================= VIOLATION COUNT ================= */
+
+    /**
+     * attempt id → violations, by the attempt's own clock: a violation less
+     * than {@code mergeWindowMs} after the previous one is the same incident
+     * (a tab switch reports both a hidden tab and a blurred window).
+     * Attempts without violations are missing from the map.
+     */
+    public Map<Long, Integer> countViolations(Collection<Long> attemptIds, long mergeWindowMs) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (attemptIds.isEmpty()) return counts;
+
+        jdbcTemplate.query("""
+                SELECT attempt_id,
+                       COUNT(*) FILTER (WHERE prev_at IS NULL OR occurred_at - prev_at >= INTERVAL '1' SECOND * CAST(? AS DOUBLE PRECISION))
+                FROM (
+                    SELECT attempt_id, occurred_at,
+                           LAG(occurred_at) OVER (PARTITION BY attempt_id ORDER BY occurred_at) AS prev_at
+                    FROM proctoring_events
+                    WHERE violation AND attempt_id = ANY (?)
+                ) v
+                GROUP BY attempt_id
+                """,
+                ps -> {
+                    ps.setDouble(1, mergeWindowMs / 1000.0);
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", attemptIds.toArray()));
+                },
+                rs -> {
+                    counts.put(rs.getLong(1), rs.getInt(2));
+                });
+        return counts;
+    }
+
+    /* ================= READ ================= */
+
+    public record EventView(ProctoringEventType type, boolean violation,
+                            Instant occurredAt, Instant receivedAt, String detail) {}
+
+    public List<EventView> findByAttempt(Long attemptId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT type, violation, occurred_at, received_at, detail
+                FROM proctoring_events
+                WHERE attempt_id = ?
+                ORDER BY occurred_at, id
+                LIMIT ?
+                """,
+                (rs, i) -> new EventView(
+                        ProctoringEventType.valueOf(rs.getString(1)),
+                        rs.getBoolean(2),
+                        rs.getTimestamp(3).toInstant(),
+                        rs.getTimestamp(4).toInstant(),
+                        rs.getString(5)
+                ),
+                attemptId,
+                limit);
+    }
+}
@@ -0,0 +1,44 @@
+package com.exam.online_exam_platform.repository;
+
+import com.exam.online_exam_platform.util.PdfQuestionParser.ParsedQuestion;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Bulk question inserts as JDBC batches.
+ * Question ids are IDENTITY, so Hibernate's saveAll would send one INSERT
+ * per row; with reWriteBatchedInserts the driver turns a batch into
+ * multi-row INSERTs.
+ */
+@Repository
+public class QuestionJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuestionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void batchInsert(Long examId, List<ParsedQuestion> questions) {
+        if (questions.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO questions
+                    (exam_id, question_text, option_a, option_b, option_c, option_d, correct_answer)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """,
+                questions,
+                questions.size(),
+                (ps, q) -> {
+                    ps.setLong(1, examId);
+                    ps.setString(2, q.questionText);
+                    ps.setString(3, q.optionA);
+                    ps.setString(4, q.optionB);
+                    ps.setString(5, q.optionC);
+                    ps.setString(6, q.optionD);
+                    ps.setString(7, q.correctAnswer);
+                });
+    }
+}
@@ -0,0 +1,158 @@
+package com.exam.online_exam_platform.repository;
+
+import com.exam.online_exam_platform.dto.ResultPdfDTO;
+import com.exam.online_exam_platform.util.CsvWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result export straight from a forward-only JDBC cursor.
+ * No entities, no DTOs: each row is written to the CSV as it is read.
+ *
+ * Must run inside a (read-only) transaction — PostgreSQL only honours the
+ * fetch size with autocommit off; otherwise it buffers the whole result.
+ */
+@Repository
+public class ResultExportJdbcRepository {
+
+    public static final String[] CSV_HEADER = {
+            "result_id", "student_id", "student_name", "student_email",
+            "exam_id", "exam_title", "course_id",
+            "score", "total_questions", "correct_answers", "violations",
+            "status", "submission_reason", "submitted_at"
+    };
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResultExportJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes matching results (optionally one exam and/or one course) as CSV
+     * rows, oldest first. The caller writes the header.
+     *
+     * @return rows written
+     */
+    public long writeCsv(Long examId, Long courseId, CsvWriter csv) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT r.id, u.id, u.name, u.email,
+                       e.id, e.title, e.course_id,
+                       r.score, r.total_questions, r.correct_answers, r.violations,
+                       r.status, r.submission_reason, r.submitted_at
+                FROM results r
+                JOIN users u ON u.id = r.user_id
+                JOIN exams e ON e.id = r.exam_id
+                WHERE 1 = 1
+                """);
+
+        List<Object> args = new ArrayList<>(2);
+        if (examId != null) {
+            sql.append(" AND r.exam_id = ?");
+            args.add(examId);
+        }
+        if (courseId != null) {
+            sql.append(" AND e.course_id = ?");
+            args.add(courseId);
+        }
+        sql.append(" ORDER BY r.id");
+
+        long[] rows = {0};
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setLong(i + 1, (Long) args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                csv.number(rs.getLong(1))
+                        .number(rs.getLong(2))
+                        .text(rs.getString(3))
+                        .text(rs.getString(4))
+                        .number(rs.getLong(5))
+                        .text(rs.getString(6))
+                        .number(rs.getLong(7))
+                        .number(rs.getInt(8))
+                        .number(rs.getInt(9))
+                        .number(rs.getInt(10))
+                        .number(rs.getInt(11))
+                        .text(rs.getString(12))
+                        .text(rs.getString(13));
+
+                Timestamp submittedAt = rs.getTimestamp(14);
+                csv.text(submittedAt == null ? null : submittedAt.toInstant().toString())
+                        .endRow();
+            } catch (IOException e) {
+                // client went away → abort the query
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+
+        return rows[0];
+    }
+
+    /* ================= RESULT PDF ROWS ================= */
+
+    public record ResultPdfRow(Long resultId, Long studentId, ResultPdfDTO pdf) {}
+
+    /**
+     * One keyset chunk of an exam's results, oldest first, already joined
+     * into what the result statement prints.
+     */
+    public List<ResultPdfRow> findPdfRows(Long examId, long afterId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT r.id, u.id, u.name, u.email, e.title,
+                       r.score, r.total_questions, r.correct_answers, r.violations, r.submitted_at
+                FROM results r
+                JOIN users u ON u.id = r.user_id
+                JOIN exams e ON e.id = r.exam_id
+                WHERE r.exam_id = ? AND r.id > ?
+                ORDER BY r.id
+                LIMIT ?
+                """, (rs, i) -> {
+            int score = rs.getInt(6);
+            Timestamp submittedAt = rs.getTimestamp(10);
+
+            return new ResultPdfRow(
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    new ResultPdfDTO(
+                            rs.getString(3),
+                            rs.getString(4),
+                            rs.getString(5),
+                            score,
+                            score >= 40 ? "PASS" : "FAIL",
+                            rs.getInt(7),
+                            rs.getInt(8),
+                            rs.getInt(9),
+                            submittedAt == null ? null : submittedAt.toInstant()
+                    )
+            );
+        }, examId, afterId, limit);
+    }
+
+    public long countByExam(Long examId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM results WHERE exam_id = ?", Long.class, examId
+        );
+        return count == null ? 0 : count;
+    }
+}
@@ -1,9 +1,14 @@
 package com.exam.online_exam_platform.repository;
 
+import com.exam.online_exam_platform.dto.AdminResultDTO;
 import com.exam.online_exam_platform.entity.Result;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +17,10 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
     // Prevent duplicate result per attempt (MOST IMPORTANT)
     boolean existsByExamAttemptId(Long examAttemptId);
 
+    // Which of these attempts already have a result (batch grading)
+    @Query("SELECT r.examAttemptId FROM Result r WHERE r.examAttemptId IN :attemptIds")
+    List<Long> findGradedAttemptIds(@Param("attemptIds") Collection<Long> attemptIds);
+
     // Fetch result for a specific attempt
     Optional<Result> findByExamAttemptId(Long examAttemptId);
 
@@ -31,4 +40,34 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
 """)
     Double findPassRate();
 
+    /* ================= ADMIN RESULTS (JOIN PROJECTION, KEYSET) ================= */
+
+    String ADMIN_RESULT_ROWS = """
+        SELECT new com.exam.online_exam_platform.dto.AdminResultDTO(
+            r.id, u.id, u.name, u.email, e.id, e.title,
+            r.score, r.totalQuestions, r.correctAnswers, r.violations,
+            r.status, r.submissionReason, r.submittedAt)
+        FROM Result r
+        JOIN User u ON u.id = r.studentId
+        JOIN Exam e ON e.id = r.examId
+        WHERE (:beforeId IS NULL OR r.id < :beforeId)
+          AND (:examId IS NULL OR r.examId = :examId)
+          AND (:courseId IS NULL OR e.course.id = :courseId)
+          AND (:status IS NULL OR r.status = :status)
+          AND (:from IS NULL OR r.submittedAt >= :from)
+          AND (:to IS NULL OR r.submittedAt < :to)
+        ORDER BY r.id DESC
+    """;
+
+    // newest first; pass the last resultId of a page as beforeId for the next one
+    @Query(ADMIN_RESULT_ROWS)
+    List<AdminResultDTO> findAdminResults(
+            @Param("beforeId") Long beforeId,
+            @Param("examId") Long examId,
+            @Param("courseId") Long courseId,
+            @Param("status") String status,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            Limit limit
+    );
 }
@@ -10,13 +10,18 @@ import org.springframework.stereotype.Component;
 public class AuthUtil {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public AuthUtil(UserRepository userRepository) {
+    public AuthUtil(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     /**
-     * Returns the currently authenticated User entity
+     * Returns the currently authenticated User entity.
+     * Resolved by the token's uid through {@link PrincipalCache}; tokens
+     * without uid fall back to a lookup by email. The returned User may be
+     * shared with other requests — do not modify it.
      */
     public User getCurrentUser() {
 
@@ -29,6 +34,18 @@ public class AuthUtil {
 
         String email = authentication.getName(); // username/email from JWT
 
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal
+                && principal.userId() != null) {
+
+            return principalCache.get(principal.userId(),
+                            () -> userRepository.findById(principal.userId()))
+                    // email changed since the token was issued → token no longer valid
+                    .filter(user -> email.equals(user.getEmail()))
+                    .orElseThrow(() ->
+                            new RuntimeException("User not found: " + email)
+                    );
+        }
+
         return userRepository.findByEmail(email)
                 .orElseThrow(() ->
                         new RuntimeException("User not found: " + email)
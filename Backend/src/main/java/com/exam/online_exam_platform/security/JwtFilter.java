@@ -1,7 +1,5 @@
 package com.exam.online_exam_platform.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,10 +16,10 @@ import java.util.List;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
 
-    public JwtFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtFilter(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
     }
 
     /**
@@ -34,6 +32,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
         return path.startsWith("/auth/")
                 || path.equals("/health")
+                || path.equals("/actuator/health")
                 || "OPTIONS".equalsIgnoreCase(request.getMethod());
     }
 
@@ -50,14 +49,11 @@ public class JwtFilter extends OncePerRequestFilter {
             try {
                 String token = authHeader.substring(7);
 
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(jwtUtil.getKey())
-                        .build()
-                        .parseClaimsJws(token)
-                        .getBody();
+                // full verify only the first time a token is seen
+                JwtPrincipal principal = tokenCache.verify(token);
 
-                String email = claims.getSubject();
-                String role = claims.get("role", String.class);
+                String email = principal.email();
+                String role = principal.role();
 
                 if (email != null
                         && role != null
@@ -65,7 +61,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    email,
+                                    principal,
                                     null,
                                     List.of(new SimpleGrantedAuthority("ROLE_" + role))
                             );
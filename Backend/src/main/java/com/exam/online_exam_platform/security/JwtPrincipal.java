@@ -0,0 +1,16 @@
+package com.exam.online_exam_platform.security;
+
+import java.security.Principal;
+
+/**
+ * Identity carried by a verified JWT (claims sub, uid, role).
+ * getName() stays the email, so authentication.getName() is unchanged.
+ * userId is null for tokens issued before the uid claim existed.
+ */
+public record JwtPrincipal(Long userId, String email, String role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
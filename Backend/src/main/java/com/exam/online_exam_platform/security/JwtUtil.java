@@ -1,5 +1,7 @@
 package com.exam.online_exam_platform.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -15,6 +17,9 @@ public class JwtUtil {
 
     private final SecretKey key;
 
+    // immutable and thread-safe: built once, shared by all requests
+    private final JwtParser parser;
+
     public JwtUtil(@Value("${jwt.secret}") String secret) {
 
         if (secret == null || secret.trim().length() < 32) {
@@ -26,11 +31,16 @@ public class JwtUtil {
         this.key = Keys.hmacShaKeyFor(
                 secret.trim().getBytes(StandardCharsets.UTF_8)
         );
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
-    public String generateToken(String email, String role) {
+    public String generateToken(Long userId, String email, String role) {
         return Jwts.builder()
                 .setSubject(email)
+                .claim("uid", userId) // lets AuthUtil resolve the user without a lookup by email
                 .claim("role", role) // MUST be STUDENT / ADMIN
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 24h
@@ -38,6 +48,14 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifies signature and expiry and returns the claims.
+     * Throws a JwtException for invalid / expired tokens.
+     */
+    public Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public SecretKey getKey() {
         return key;
     }
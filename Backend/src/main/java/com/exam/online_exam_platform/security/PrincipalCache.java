@@ -0,0 +1,149 @@
+package com.exam.online_exam_platform.security;
+
+import com.exam.online_exam_platform.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded (LRU), TTL-evicting cache of authenticated users by id, so
+ * {@link AuthUtil} does not hit the users table on every request.
+ *
+ * Cached users are detached and shared — treat them as read-only.
+ * Same versioning as the question cache: a load that raced with an
+ * eviction is returned once but not cached. An eviction is remembered only
+ * while a load that started before it is still running.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(User user, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // all guarded by users
+    private final Map<Long, Entry> users;
+    private final Map<Long, Long> evictedAt = new HashMap<>();
+    private final TreeMap<Long, Integer> loadsInFlight = new TreeMap<>();
+    private long clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PrincipalCache(
+            @Value("${auth.principal-cache.max-size:10000}") int maxSize,
+            @Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = Math.max(0, ttlSeconds) * 1000;
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > PrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+    /* ================= READ ================= */
+
+    public Optional<User> get(Long userId, Supplier<Optional<User>> loader) {
+        long now = now();
+        long version;
+
+        synchronized (users) {
+            Entry entry = users.get(userId);
+            if (entry != null && entry.expiresAt() > now) {
+                hits.increment();
+                return Optional.of(entry.user());
+            }
+            if (entry != null) users.remove(userId);
+
+            version = clock;
+            loadsInFlight.merge(version, 1, Integer::sum);
+        }
+        misses.increment();
+
+        Optional<User> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (users) {
+                loadDone(version);
+            }
+            throw e;
+        }
+
+        synchronized (users) {
+            if (loaded.isPresent() && evictedAt.getOrDefault(userId, 0L) <= version) {
+                users.put(userId, new Entry(loaded.get(), now + ttlMillis));
+            }
+            loadDone(version);
+        }
+        return loaded;
+    }
+
+    // evictions at or before the oldest running load cannot reject anything any more
+    private void loadDone(long version) {
+        loadsInFlight.computeIfPresent(version, (v, n) -> n == 1 ? null : n - 1);
+
+        if (loadsInFlight.isEmpty()) {
+            evictedAt.clear();
+        } else {
+            long oldest = loadsInFlight.firstKey();
+            evictedAt.values().removeIf(at -> at <= oldest);
+        }
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    /* ================= EVICT ================= */
+
+    /** Drops the user now and, inside a transaction, again after commit. */
+    public void evict(Long userId) {
+        remove(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    private void remove(Long userId) {
+        synchronized (users) {
+            // only a load already running can put a stale copy back
+            if (!loadsInFlight.isEmpty()) evictedAt.put(userId, ++clock);
+            users.remove(userId);
+        }
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        int size;
+        int evictions;
+        synchronized (users) {
+            size = users.size();
+            evictions = evictedAt.size();
+        }
+        return Map.of(
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "size", size,
+                "pendingEvictions", evictions,
+                "maxSize", maxSize,
+                "ttlSeconds", ttlMillis / 1000
+        );
+    }
+}
@@ -1,5 +1,7 @@
 package com.exam.online_exam_platform.security;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,6 +10,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -19,9 +22,17 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
-
-    public SecurityConfig(JwtFilter jwtFilter) {
+    private final int serverPort;
+    private final int managementPort;
+
+    public SecurityConfig(
+            JwtFilter jwtFilter,
+            @Value("${server.port:8080}") int serverPort,
+            @Value("${management.server.port:${server.port:8080}}") int managementPort
+    ) {
         this.jwtFilter = jwtFilter;
+        this.serverPort = serverPort;
+        this.managementPort = managementPort;
     }
 
     @Bean
@@ -35,7 +46,15 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // the request was authorized on its way in; the stateless
+                        // context is gone when a stream (SSE, NDJSON) dispatches back
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**", "/health").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // the scrape is open on the internal management port only;
+                        // on the public port it takes an admin token
+                        .requestMatchers(managementPortScrape()).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/student/**").hasRole("STUDENT")
                         .anyRequest().authenticated()
@@ -45,6 +64,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private RequestMatcher managementPortScrape() {
+        return request -> managementPort != serverPort
+                && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
 
@@ -61,7 +86,7 @@ public class SecurityConfig {
         ));
 
         config.setAllowedHeaders(List.of("*"));
-        config.setExposedHeaders(List.of("Authorization"));
+        config.setExposedHeaders(List.of("Authorization", "X-Bundle-Id"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source =
@@ -0,0 +1,128 @@
+package com.exam.online_exam_platform.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tokens that already passed signature verification, keyed by their SHA-256
+ * digest (the token itself is never stored). An entry holds the parsed
+ * principal and dies at the token's exp, so a cached token can never
+ * outlive what the parser would accept.
+ *
+ * Bounded: when full, expired entries are purged (at most once a second);
+ * if it is still full, new tokens are verified but not cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final long PURGE_INTERVAL_MS = 1000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private record Digest(long a, long b, long c, long d) {}
+
+    private record Entry(JwtPrincipal principal, long expiresAt) {}
+
+    private final JwtUtil jwtUtil;
+    private final int maxSize;
+
+    private final Map<Digest, Entry> tokens = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(
+            JwtUtil jwtUtil,
+            @Value("${auth.token-cache.max-size:50000}") int maxSize
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.maxSize = Math.max(0, maxSize);
+    }
+
+    /**
+     * @return the token's principal
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public JwtPrincipal verify(String token) {
+        if (maxSize == 0) return principal(jwtUtil.parse(token));
+
+        long now = now();
+        Digest digest = digest(token);
+
+        Entry entry = tokens.get(digest);
+        if (entry != null) {
+            if (entry.expiresAt() > now) {
+                hits.increment();
+                return entry.principal();
+            }
+            tokens.remove(digest, entry);
+        }
+        misses.increment();
+
+        Claims claims = jwtUtil.parse(token);
+        JwtPrincipal principal = principal(claims);
+
+        Date exp = claims.getExpiration();
+        if (exp != null && hasRoom(now)) {
+            tokens.put(digest, new Entry(principal, exp.getTime()));
+        }
+        return principal;
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    private static JwtPrincipal principal(Claims claims) {
+        return new JwtPrincipal(
+                claims.get("uid", Long.class), // null on older tokens
+                claims.getSubject(),
+                claims.get("role", String.class)
+        );
+    }
+
+    private boolean hasRoom(long now) {
+        if (tokens.size() < maxSize) return true;
+
+        long last = lastPurge.get();
+        if (now - last >= PURGE_INTERVAL_MS && lastPurge.compareAndSet(last, now)) {
+            tokens.values().removeIf(e -> e.expiresAt() <= now);
+        }
+        return tokens.size() < maxSize;
+    }
+
+    private static Digest digest(String token) {
+        MessageDigest md = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        return new Digest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "size", tokens.size(),
+                "maxSize", maxSize
+        );
+    }
+}
@@ -2,13 +2,11 @@ package com.exam.online_exam_platform.service;
 
 import com.exam.online_exam_platform.dto.AdminDashboardOverviewDTO;
 import com.exam.online_exam_platform.entity.Exam;
-import com.exam.online_exam_platform.entity.Result;
 import com.exam.online_exam_platform.entity.Role;
 import com.exam.online_exam_platform.entity.User;
 import com.exam.online_exam_platform.repository.*;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
@@ -17,21 +15,28 @@ import java.util.stream.Collectors;
 @Service
 public class AdminDashboardService {
 
+    private static final int RECENT_EXAMS = 5;
+    private static final int RANKED_STUDENTS = 3;
+
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
     private final ExamRepository examRepository;
-    private final ResultRepository resultRepository;
+    private final DashboardAggregates aggregates;
 
     public AdminDashboardService(
             UserRepository userRepository,
             CourseRepository courseRepository,
             ExamRepository examRepository,
-            ResultRepository resultRepository
+            DashboardAggregates aggregates
     ) {
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
         this.examRepository = examRepository;
-        this.resultRepository = resultRepository;
+        this.aggregates = aggregates;
+    }
+
+    public Map<String, Object> rebuildAggregates() {
+        return aggregates.rebuild();
     }
 
     public AdminDashboardOverviewDTO getOverview() {
@@ -52,103 +57,53 @@ public class AdminDashboardService {
         long completedExams =
                 examRepository.countByEndTimeBefore(nowUtc);
 
-        double averageScore =
-                Optional.ofNullable(resultRepository.findAverageScore())
-                        .orElse(0.0);
-
-        double passRate =
-                Optional.ofNullable(resultRepository.findPassRate())
-                        .orElse(0.0);
-
-        List<Result> allResults = resultRepository.findAll();
+        double averageScore = aggregates.averageScore();
+        double passRate = aggregates.passRate();
 
         /* ================= RECENT EXAMS ================= */
 
-        Map<Long, List<Result>> resultsByExam =
-                allResults.stream()
-                        .collect(Collectors.groupingBy(Result::getExamId));
+        // a few spare candidates in case an exam / user row is gone
+        List<DashboardAggregates.ExamActivity> recent = aggregates.recentExams(RECENT_EXAMS * 2);
+
+        Map<Long, String> examTitles = examRepository
+                .findAllById(recent.stream().map(DashboardAggregates.ExamActivity::examId).toList())
+                .stream()
+                .collect(Collectors.toMap(Exam::getId, e -> String.valueOf(e.getTitle())));
+
+        List<Map<String, Object>> recentExams = recent.stream()
+                .filter(e -> examTitles.containsKey(e.examId()))
+                .limit(RECENT_EXAMS)
+                .map(e -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("title", examTitles.get(e.examId()));
+                    map.put("date", e.latest());
+                    map.put("participants", e.participants());
+                    return map;
+                })
+                .toList();
 
-        List<Map<String, Object>> recentExams = new ArrayList<>();
+        /* ================= TOP / AT-RISK STUDENTS ================= */
 
-        for (var entry : resultsByExam.entrySet()) {
-            Exam exam = examRepository.findById(entry.getKey()).orElse(null);
-            if (exam == null) continue;
+        List<DashboardAggregates.StudentAverage> top = aggregates.topStudents(RANKED_STUDENTS * 2);
+        List<DashboardAggregates.StudentAverage> bottom = aggregates.bottomStudents(RANKED_STUDENTS * 2);
 
-            Result latest =
-                    entry.getValue().stream()
-                            .filter(r -> r.getSubmittedAt() != null)
-                            .max(Comparator.comparing(Result::getSubmittedAt))
-                            .orElse(null);
+        Set<Long> studentIds = new HashSet<>();
+        top.forEach(s -> studentIds.add(s.studentId()));
+        bottom.forEach(s -> studentIds.add(s.studentId()));
 
-            Map<String, Object> map = new HashMap<>();
-            map.put("title", exam.getTitle());
-            map.put("date", latest != null ? latest.getSubmittedAt() : null);
-            map.put("participants", entry.getValue().size());
-
-            recentExams.add(map);
+        Map<Long, String> names = new HashMap<>();
+        for (User user : userRepository.findAllById(studentIds)) {
+            names.put(user.getId(), user.getName());
         }
 
-        recentExams.sort((a, b) -> {
-            Instant d1 = (Instant) a.get("date");
-            Instant d2 = (Instant) b.get("date");
-            if (d1 == null) return 1;
-            if (d2 == null) return -1;
-            return d2.compareTo(d1);
-        });
-
-        recentExams = recentExams.stream()
-                .limit(5)
+        List<Map<String, Object>> topStudents = ranked(top, names).stream()
+                .limit(RANKED_STUDENTS)
                 .toList();
 
-        /* ================= STUDENT AVERAGES ================= */
-
-        Map<Long, List<Result>> resultsByStudent =
-                allResults.stream()
-                        .collect(Collectors.groupingBy(Result::getStudentId));
-
-        List<Map<String, Object>> studentAverages = new ArrayList<>();
-
-        for (var entry : resultsByStudent.entrySet()) {
-            User user = userRepository.findById(entry.getKey()).orElse(null);
-            if (user == null) continue;
-
-            long avgScore =
-                    Math.round(
-                            entry.getValue().stream()
-                                    .mapToInt(Result::getScore)
-                                    .average()
-                                    .orElse(0)
-                    );
-
-            Map<String, Object> map = new HashMap<>();
-            map.put("name", user.getName());
-            map.put("score", avgScore);
-
-            studentAverages.add(map);
-        }
-
-        /* ================= TOP STUDENTS ================= */
-
-        List<Map<String, Object>> topStudents =
-                studentAverages.stream()
-                        .sorted((a, b) ->
-                                ((Long) b.get("score"))
-                                        .compareTo((Long) a.get("score"))
-                        )
-                        .limit(3)
-                        .toList();
-
-        /* ================= AT-RISK STUDENTS ================= */
-
-        List<Map<String, Object>> atRiskStudents =
-                studentAverages.stream()
-                        .filter(s -> (Long) s.get("score") < 40)
-                        .sorted((a, b) ->
-                                ((Long) a.get("score"))
-                                        .compareTo((Long) b.get("score"))
-                        )
-                        .limit(3)
-                        .toList();
+        List<Map<String, Object>> atRiskStudents = ranked(bottom, names).stream()
+                .filter(s -> (Long) s.get("score") < DashboardAggregates.PASS_SCORE)
+                .limit(RANKED_STUDENTS)
+                .toList();
 
         /* ================= FINAL DTO ================= */
 
@@ -165,4 +120,21 @@ public class AdminDashboardService {
                 atRiskStudents
         );
     }
+
+    // same shape as before: { name, score = rounded average }
+    private List<Map<String, Object>> ranked(
+            List<DashboardAggregates.StudentAverage> students,
+            Map<Long, String> names
+    ) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (DashboardAggregates.StudentAverage s : students) {
+            if (!names.containsKey(s.studentId())) continue;
+
+            Map<String, Object> map = new HashMap<>();
+            map.put("name", names.get(s.studentId()));
+            map.put("score", Math.round(s.average()));
+            out.add(map);
+        }
+        return out;
+    }
 }
@@ -6,16 +6,8 @@ import com.exam.online_exam_platform.entity.Question;
 import com.exam.online_exam_platform.repository.ExamAttemptRepository;
 import com.exam.online_exam_platform.repository.ExamRepository;
 import com.exam.online_exam_platform.repository.QuestionRepository;
-import com.exam.online_exam_platform.util.PdfQuestionParser;
-import com.exam.online_exam_platform.util.PdfQuestionParser.ParsedQuestion;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -24,15 +16,18 @@ public class AdminExamService {
     private final ExamRepository examRepository;
     private final QuestionRepository questionRepository;
     private final ExamAttemptRepository examAttemptRepository;
+    private final QuestionCache questionCache;
 
     public AdminExamService(
             ExamRepository examRepository,
             QuestionRepository questionRepository,
-            ExamAttemptRepository examAttemptRepository
+            ExamAttemptRepository examAttemptRepository,
+            QuestionCache questionCache
     ) {
         this.examRepository = examRepository;
         this.questionRepository = questionRepository;
         this.examAttemptRepository = examAttemptRepository;
+        this.questionCache = questionCache;
     }
 
     /* ================= EXAMS ================= */
@@ -58,6 +53,7 @@ public class AdminExamService {
         }
 
         examRepository.delete(exam);
+        questionCache.invalidate(examId);
     }
 
     /* ================= QUESTIONS ================= */
@@ -83,50 +79,6 @@ public class AdminExamService {
         question.setExam(exam);
 
         questionRepository.save(question);
-    }
-
-    /* ================= PDF IMPORT ================= */
-
-    @Transactional
-    public int importQuestionsFromPdf(Long examId, MultipartFile pdfFile) {
-
-        Exam exam = examRepository.findById(examId)
-                .orElseThrow(() -> new RuntimeException("Exam not found"));
-
-        String extractedText;
-
-        try (InputStream is = pdfFile.getInputStream();
-             PDDocument document = PDDocument.load(is)) {
-
-            PDFTextStripper stripper = new PDFTextStripper();
-            extractedText = stripper.getText(document);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to read PDF file", e);
-        }
-
-        List<ParsedQuestion> parsedQuestions =
-                PdfQuestionParser.parse(extractedText);
-
-        List<Question> questionsToSave = new ArrayList<>();
-
-        for (ParsedQuestion pq : parsedQuestions) {
-
-            Question q = new Question();
-            q.setQuestionText(pq.questionText);
-            q.setOptionA(pq.optionA);
-            q.setOptionB(pq.optionB);
-            q.setOptionC(pq.optionC);
-            q.setOptionD(pq.optionD);
-
-            q.setCorrectAnswer(pq.correctAnswer);
-
-            q.setExam(exam);
-            questionsToSave.add(q);
-        }
-
-        questionRepository.saveAll(questionsToSave);
-
-        return questionsToSave.size();
+        questionCache.invalidate(examId);
     }
 }
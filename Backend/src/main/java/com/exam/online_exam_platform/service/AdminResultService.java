@@ -1,65 +1,168 @@
 package com.exam.online_exam_platform.service;
 
 import com.exam.online_exam_platform.dto.AdminResultDTO;
-import com.exam.online_exam_platform.entity.Exam;
+import com.exam.online_exam_platform.dto.AdminResultFilter;
 import com.exam.online_exam_platform.entity.Result;
-import com.exam.online_exam_platform.entity.User;
-import com.exam.online_exam_platform.repository.ExamRepository;
+import com.exam.online_exam_platform.repository.ResultExportJdbcRepository;
 import com.exam.online_exam_platform.repository.ResultRepository;
-import com.exam.online_exam_platform.repository.UserRepository;
+import com.exam.online_exam_platform.util.CsvWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AdminResultService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK = 500;
+    private static final int MAX_PROCTORING_EVENTS = 5000;
+
     private final ResultRepository resultRepository;
-    private final UserRepository userRepository;
-    private final ExamRepository examRepository;
+    private final ResultExportJdbcRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final ProctoringEventLog proctoringEvents;
+    private final TransactionTemplate readOnlyTx;
 
     public AdminResultService(
             ResultRepository resultRepository,
-            UserRepository userRepository,
-            ExamRepository examRepository
+            ResultExportJdbcRepository exportRepository,
+            ObjectMapper objectMapper,
+            ProctoringEventLog proctoringEvents,
+            PlatformTransactionManager transactionManager
     ) {
         this.resultRepository = resultRepository;
-        this.userRepository = userRepository;
-        this.examRepository = examRepository;
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.proctoringEvents = proctoringEvents;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
+    /* ================= ALL RESULTS ================= */
+
+    // full list for the admin results page; one join query instead of 2N+1 lookups
     public List<AdminResultDTO> getAllResults() {
+        return page(new AdminResultFilter(null, null, null, null, null), null, Limit.unlimited());
+    }
+
+    /* ================= KEYSET PAGE ================= */
+
+    // one join query per page, newest first; nextBeforeId = null → last page
+    public Map<String, Object> getResultsPage(AdminResultFilter filter, Long beforeId, int size) {
+        int limit = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
+
+        // one extra row tells whether another page exists
+        List<AdminResultDTO> rows = page(filter, beforeId, Limit.of(limit + 1));
+        boolean more = rows.size() > limit;
+        if (more) rows = rows.subList(0, limit);
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("content", rows);
+        page.put("nextBeforeId", more ? rows.get(limit - 1).getResultId() : null);
+        return page;
+    }
+
+    /* ================= NDJSON STREAM ================= */
+
+    /**
+     * Writes every matching result as one JSON object per line.
+     * Walks the keyset in chunks, each in its own short read-only
+     * transaction, so neither the heap nor a pooled connection is held
+     * for the whole download.
+     *
+     * @return number of rows written
+     */
+    public long streamResults(AdminResultFilter filter, OutputStream out) {
+        long written = 0;
+        Long beforeId = null;
+
+        try {
+            while (true) {
+                Long cursor = beforeId;
+                List<AdminResultDTO> chunk = readOnlyTx.execute(tx -> page(filter, cursor, Limit.of(STREAM_CHUNK)));
+
+                for (AdminResultDTO row : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(row));
+                    out.write('\n');
+                }
+                out.flush();
+                written += chunk.size();
+
+                if (chunk.size() < STREAM_CHUNK) return written;
+                beforeId = chunk.get(chunk.size() - 1).getResultId();
+            }
+        } catch (IOException e) {
+            // client went away
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* ================= CSV EXPORT ================= */
+
+    /**
+     * Streams results (one exam, one course, or all) as CSV from a JDBC
+     * cursor. Memory stays at the fetch size plus the writer buffer, however
+     * many rows there are; a pooled connection is held for the duration.
+     *
+     * @return rows written
+     */
+    public long exportCsv(Long examId, Long courseId, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        CsvWriter csv = new CsvWriter(writer);
+
+        Long rows = readOnlyTx.execute(tx -> {
+            try {
+                csv.row(ResultExportJdbcRepository.CSV_HEADER);
+                return exportRepository.writeCsv(examId, courseId, csv);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private List<AdminResultDTO> page(AdminResultFilter filter, Long beforeId, Limit limit) {
+        return resultRepository.findAdminResults(
+                beforeId,
+                filter.examId(),
+                filter.courseId(),
+                filter.status(),
+                filter.from(),
+                filter.to(),
+                limit
+        );
+    }
+
+    /* ================= PROCTORING EVENTS ================= */
+
+    // what the exam page reported, in the attempt's own order
+    public Map<String, Object> getProctoringEvents(Long resultId) {
+        Result result = resultRepository.findById(resultId)
+                .orElseThrow(() -> new RuntimeException("Result not found"));
+
+        if (result.getExamAttemptId() == null) {
+            throw new RuntimeException("Result has no attempt");
+        }
 
-        return resultRepository.findAll()
-                .stream()
-                .map(result -> {
-
-                    User student = userRepository.findById(result.getStudentId())
-                            .orElseThrow(() ->
-                                    new RuntimeException("Student not found: " + result.getStudentId())
-                            );
-
-                    Exam exam = examRepository.findById(result.getExamId())
-                            .orElseThrow(() ->
-                                    new RuntimeException("Exam not found: " + result.getExamId())
-                            );
-
-                    return new AdminResultDTO(
-                            result.getId(),
-                            student.getId(),
-                            student.getName(),
-                            student.getEmail(),
-                            exam.getId(),
-                            exam.getTitle(),
-                            result.getScore(),
-                            result.getTotalQuestions(),
-                            result.getCorrectAnswers(),
-                            result.getViolations(),
-                            result.getStatus(),
-                            result.getSubmissionReason(),
-                            result.getSubmittedAt()
-                    );
-                })
-                .toList();
+        return Map.of(
+                "resultId", result.getId(),
+                "attemptId", result.getExamAttemptId(),
+                "violations", result.getViolations(),
+                "events", proctoringEvents.events(result.getExamAttemptId(), MAX_PROCTORING_EVENTS)
+        );
     }
 }
@@ -4,6 +4,7 @@ import com.exam.online_exam_platform.entity.Role;
 import com.exam.online_exam_platform.entity.User;
 import com.exam.online_exam_platform.repository.ExamAttemptRepository;
 import com.exam.online_exam_platform.repository.UserRepository;
+import com.exam.online_exam_platform.security.PrincipalCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -15,15 +16,18 @@ public class AdminStudentService {
     private final UserRepository userRepository;
     private final ExamAttemptRepository examAttemptRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     public AdminStudentService(
             UserRepository userRepository,
             ExamAttemptRepository examAttemptRepository,
-            PasswordEncoder passwordEncoder
+            PasswordEncoder passwordEncoder,
+            PrincipalCache principalCache
     ) {
         this.userRepository = userRepository;
         this.examAttemptRepository = examAttemptRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     /* ================= STUDENTS ================= */
@@ -41,6 +45,7 @@ public class AdminStudentService {
         student.setEmail(updated.getEmail());
 
         userRepository.save(student);
+        principalCache.evict(studentId);
     }
 
     public void deleteStudent(Long studentId) {
@@ -56,6 +61,7 @@ public class AdminStudentService {
         }
 
         userRepository.delete(student);
+        principalCache.evict(studentId);
     }
 
     /* ================= CREATE STUDENT ================= */
@@ -0,0 +1,191 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.exception.AdmissionRejectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-exam concurrency limiter for start / resume.
+ *
+ * At most max-concurrent requests of one exam run at a time. Up to max-queue
+ * more wait briefly (max-wait-ms) for a slot; everything else — and whoever
+ * is still waiting after that — is turned away at once with its position and
+ * a retry hint derived from the observed service time, instead of sitting on
+ * Hikari's connection-timeout.
+ *
+ * A gate exists only while an exam has requests running or waiting; the last
+ * one out removes it, so ended exams leave nothing behind.
+ */
+@Component
+public class AttemptAdmission {
+
+    /** Released when the admitted request finishes. */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Permit UNLIMITED = () -> {};
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMs;
+    private final long minRetryMs;
+    private final long maxRetryMs;
+
+    private final Map<Long, Gate> gates = new ConcurrentHashMap<>();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder admittedAfterWait = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AttemptAdmission(
+            @Value("${exam.admission.enabled:true}") boolean enabled,
+            @Value("${exam.admission.max-concurrent-per-exam:2}") int maxConcurrent,
+            @Value("${exam.admission.max-queue-per-exam:200}") int maxQueue,
+            @Value("${exam.admission.max-wait-ms:250}") long maxWaitMs,
+            @Value("${exam.admission.min-retry-ms:500}") long minRetryMs,
+            @Value("${exam.admission.max-retry-ms:10000}") long maxRetryMs
+    ) {
+        this.enabled = enabled;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitMs = Math.max(0, maxWaitMs);
+        this.minRetryMs = Math.max(1, minRetryMs);
+        this.maxRetryMs = Math.max(this.minRetryMs, maxRetryMs);
+    }
+
+    /* ================= ADMIT ================= */
+
+    /**
+     * @throws AdmissionRejectedException when no slot frees up in time
+     */
+    public Permit admit(Long examId) {
+        if (!enabled) return UNLIMITED;
+
+        Gate gate = gates.compute(examId, (id, g) -> {
+            if (g == null) g = new Gate(maxConcurrent);
+            g.users++;
+            return g;
+        });
+
+        if (gate.slots.tryAcquire()) {
+            admitted.increment();
+            return permit(examId, gate);
+        }
+
+        int position = gate.waiting.incrementAndGet();
+        try {
+            if (position <= maxQueue && gate.slots.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                admitted.increment();
+                admittedAfterWait.increment();
+                return permit(examId, gate);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            gate.waiting.decrementAndGet();
+        }
+
+        leave(examId, gate);
+        rejected.increment();
+        throw new AdmissionRejectedException(position, retryAfterMs(gate, position));
+    }
+
+    private Permit permit(Long examId, Gate gate) {
+        long start = System.nanoTime();
+        AtomicInteger open = new AtomicInteger(1);
+
+        return () -> {
+            if (open.getAndSet(0) == 0) return;
+
+            gate.slots.release();
+            gate.served((System.nanoTime() - start) / 1_000_000.0);
+            leave(examId, gate);
+        };
+    }
+
+    // under the map's lock for this exam, like the increment in admit()
+    private void leave(Long examId, Gate gate) {
+        gates.computeIfPresent(examId, (id, g) -> g == gate && --g.users == 0 ? null : g);
+    }
+
+    // time for the requests ahead to drain, spread by ±20% so retries do not re-align
+    private long retryAfterMs(Gate gate, int position) {
+        double drainMs = position * gate.avgServiceMs / maxConcurrent;
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+
+        long ms = Math.round(drainMs * jitter);
+        return Math.min(maxRetryMs, Math.max(minRetryMs, ms));
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        Map<String, Object> exams = new LinkedHashMap<>();
+        int inFlight = 0;
+        int waiting = 0;
+
+        for (var entry : gates.entrySet()) {
+            Gate gate = entry.getValue();
+            int running = maxConcurrent - gate.slots.availablePermits();
+            int queued = gate.waiting.get();
+            if (running == 0 && queued == 0) continue;
+
+            inFlight += running;
+            waiting += queued;
+            exams.put(String.valueOf(entry.getKey()), Map.of(
+                    "inFlight", running,
+                    "waiting", queued,
+                    "avgServiceMs", Math.round(gate.avgServiceMs)
+            ));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxConcurrentPerExam", maxConcurrent);
+        stats.put("maxQueuePerExam", maxQueue);
+        stats.put("admitted", admitted.sum());
+        stats.put("admittedAfterWait", admittedAfterWait.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("inFlight", inFlight);
+        stats.put("waiting", waiting);
+        stats.put("gates", gates.size());
+        stats.put("exams", exams);
+        return stats;
+    }
+
+    /* ================= GATE ================= */
+
+    private static final class Gate {
+
+        private static final double ALPHA = 0.2;
+
+        final Semaphore slots;
+        final AtomicInteger waiting = new AtomicInteger();
+
+        // requests holding or waiting for a slot; only changed inside gates.compute*
+        int users;
+
+        // EWMA of admitted request duration; seeds the retry hint
+        volatile double avgServiceMs = 100;
+
+        Gate(int maxConcurrent) {
+            this.slots = new Semaphore(maxConcurrent);
+        }
+
+        void served(double ms) {
+            avgServiceMs = avgServiceMs + ALPHA * (ms - avgServiceMs);
+        }
+    }
+}
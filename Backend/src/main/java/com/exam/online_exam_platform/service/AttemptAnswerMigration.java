@@ -0,0 +1,68 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.LegacyAnswers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves answers from the legacy exam_attempts.answers_json blob into
+ * attempt_answers, one keyset page per transaction, then clears the blob.
+ * Idempotent: already-migrated attempts have answers_json = NULL, and rows
+ * written since the blob was last saved win over it.
+ */
+@Component
+public class AttemptAnswerMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptAnswerMigration.class);
+
+    private final ExamAttemptJdbcRepository attemptJdbcRepo;
+    private final AttemptAnswerStore answerStore;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public AttemptAnswerMigration(
+            ExamAttemptJdbcRepository attemptJdbcRepo,
+            AttemptAnswerStore answerStore,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.answers.migrate-legacy:true}") boolean enabled,
+            @Value("${exam.answers.migrate-batch-size:500}") int batchSize
+    ) {
+        this.attemptJdbcRepo = attemptJdbcRepo;
+        this.answerStore = answerStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+
+        long lastId = 0;
+        int migrated = 0;
+
+        while (true) {
+            List<LegacyAnswers> page = attemptJdbcRepo.findLegacyAnswers(lastId, batchSize);
+            if (page.isEmpty()) break;
+
+            transactionTemplate.executeWithoutResult(tx -> answerStore.moveLegacy(page));
+
+            lastId = page.get(page.size() - 1).attemptId();
+            migrated += page.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated answers_json of {} attempts to attempt_answers", migrated);
+        }
+    }
+}
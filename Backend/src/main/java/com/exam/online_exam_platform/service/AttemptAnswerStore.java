@@ -0,0 +1,193 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.AttemptAnswer;
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.repository.AttemptAnswerJdbcRepository;
+import com.exam.online_exam_platform.repository.AttemptAnswerJdbcRepository.AnswerRow;
+import com.exam.online_exam_platform.repository.AttemptAnswerRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.LegacyAnswers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Reads and writes attempt answers in attempt_answers.
+ *
+ * Answers travel as "questionId" -> "selected option" maps (the shape the
+ * client uses). Attempts that still carry the legacy answers_json blob are
+ * merged on read until {@link AttemptAnswerMigration} has moved them, or
+ * until their first write moves the blob itself: a cleared answer must not
+ * come back from it on the next load.
+ */
+@Service
+public class AttemptAnswerStore {
+
+    private static final TypeReference<Map<String, String>> ANSWERS_TYPE = new TypeReference<>() {};
+
+    private final AttemptAnswerRepository answerRepo;
+    private final AttemptAnswerJdbcRepository answerJdbcRepo;
+    private final ExamAttemptJdbcRepository attemptJdbcRepo;
+    private final ObjectMapper objectMapper;
+
+    public AttemptAnswerStore(
+            AttemptAnswerRepository answerRepo,
+            AttemptAnswerJdbcRepository answerJdbcRepo,
+            ExamAttemptJdbcRepository attemptJdbcRepo,
+            ObjectMapper objectMapper
+    ) {
+        this.answerRepo = answerRepo;
+        this.answerJdbcRepo = answerJdbcRepo;
+        this.attemptJdbcRepo = attemptJdbcRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    /* ================= READ ================= */
+
+    public Map<String, String> load(ExamAttempt attempt) {
+        return load(attempt.getId(), attempt.getAnswersJson());
+    }
+
+    public Map<String, String> load(Long attemptId, String legacyJson) {
+        Map<String, String> answers = parse(legacyJson);
+
+        for (AttemptAnswer a : answerRepo.findByAttemptId(attemptId)) {
+            answers.put(String.valueOf(a.getQuestionId()), a.getAnswer());
+        }
+        return answers;
+    }
+
+    /** Answers of many attempts with one query, keyed by attempt id. */
+    public Map<Long, Map<String, String>> loadAll(Collection<ExamAttempt> attempts) {
+        Map<Long, Map<String, String>> byAttempt = new HashMap<>();
+        for (ExamAttempt attempt : attempts) {
+            byAttempt.put(attempt.getId(), parse(attempt.getAnswersJson()));
+        }
+
+        for (AttemptAnswer a : answerRepo.findByAttemptIdIn(byAttempt.keySet())) {
+            byAttempt.get(a.getAttemptId()).put(String.valueOf(a.getQuestionId()), a.getAnswer());
+        }
+        return byAttempt;
+    }
+
+    /* ================= WRITE ================= */
+
+    /** Applies changes to one attempt (null answer = delete). */
+    public void write(ExamAttempt attempt, Map<String, String> changes) {
+        moveLegacy(attempt);
+        apply(Map.of(attempt.getId(), changes));
+    }
+
+    /**
+     * Applies changes to many attempts as one upsert batch and one delete
+     * batch. The attempts' rows should be locked by the caller.
+     */
+    public void writeAll(Map<Long, Map<String, String>> changesByAttempt) {
+        if (changesByAttempt.isEmpty()) return;
+
+        moveLegacy(attemptJdbcRepo.findLegacyAnswers(changesByAttempt.keySet()));
+        apply(changesByAttempt);
+    }
+
+    private void apply(Map<Long, Map<String, String>> changesByAttempt) {
+        List<AnswerRow> upserts = new ArrayList<>();
+        List<AnswerRow> deletes = new ArrayList<>();
+
+        changesByAttempt.forEach((attemptId, changes) ->
+                changes.forEach((key, answer) -> {
+                    Long questionId = questionId(key);
+                    if (questionId == null) return;
+
+                    AnswerRow row = new AnswerRow(attemptId, questionId, answer);
+                    if (answer == null) deletes.add(row);
+                    else upserts.add(row);
+                })
+        );
+
+        answerJdbcRepo.batchUpsert(upserts);
+        answerJdbcRepo.batchDelete(deletes);
+    }
+
+    /** Makes the stored answers equal to the given map, writing only the difference. */
+    public void replace(ExamAttempt attempt, Map<String, String> answers) {
+        moveLegacy(attempt);
+        apply(Map.of(attempt.getId(), diff(load(attempt), answers)));
+    }
+
+    /* ================= LEGACY answers_json ================= */
+
+    private void moveLegacy(ExamAttempt attempt) {
+        if (attempt.getAnswersJson() == null) return;
+
+        moveLegacy(List.of(new LegacyAnswers(attempt.getId(), attempt.getAnswersJson())));
+        attempt.setAnswersJson(null);
+    }
+
+    /**
+     * Turns blobs into rows and clears them. Rows already there are newer
+     * than the blob and are kept.
+     */
+    public void moveLegacy(List<LegacyAnswers> legacy) {
+        if (legacy.isEmpty()) return;
+
+        List<AnswerRow> rows = new ArrayList<>();
+        List<Long> attemptIds = new ArrayList<>(legacy.size());
+
+        for (LegacyAnswers l : legacy) {
+            parse(l.answersJson()).forEach((key, answer) -> {
+                Long questionId = questionId(key);
+                if (questionId != null) {
+                    rows.add(new AnswerRow(l.attemptId(), questionId, answer));
+                }
+            });
+            attemptIds.add(l.attemptId());
+        }
+
+        answerJdbcRepo.batchInsertIfAbsent(rows);
+        attemptJdbcRepo.clearLegacyAnswers(attemptIds);
+    }
+
+    /** Changes that turn current into next (null answer = delete). */
+    public static Map<String, String> diff(Map<String, String> current, Map<String, String> next) {
+        Map<String, String> changes = new HashMap<>();
+
+        for (String key : current.keySet()) {
+            if (next.get(key) == null) changes.put(key, null);
+        }
+        next.forEach((key, answer) -> {
+            if (answer != null && !answer.equals(current.get(key))) changes.put(key, answer);
+        });
+        return changes;
+    }
+
+    /* ================= JSON ================= */
+
+    public Map<String, String> parse(String json) {
+        if (json == null || json.isBlank()) return new HashMap<>();
+        try {
+            Map<String, String> answers = new HashMap<>(objectMapper.readValue(json, ANSWERS_TYPE));
+            answers.values().removeIf(Objects::isNull);
+            return answers;
+        } catch (Exception e) {
+            return new HashMap<>();
+        }
+    }
+
+    public String toJson(Map<String, String> answers) {
+        try {
+            return objectMapper.writeValueAsString(answers);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize answers", e);
+        }
+    }
+
+    static Long questionId(String key) {
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.AttemptStatus;
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.ActiveDeadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Terminates and grades attempts that ran out without a submit.
+ *
+ * ACTIVE attempts are indexed by endsAt in a priority queue, rebuilt from
+ * exam_attempts on startup and rescanned now and then for attempts started
+ * on other instances. Each sweep takes what ended more than grace-ms ago,
+ * flushes its buffered answers and proctoring events, and terminates it
+ * with one UPDATE per batch; grading goes through the grading queue, or
+ * runs in the same transaction when that is off.
+ *
+ * Submitted attempts stay in the index until their endsAt; the UPDATE
+ * skips them then (no longer ACTIVE). The grace period leaves the page's
+ * own submit at the deadline to win.
+ */
+@Component
+public class AttemptExpirySweeper implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptExpirySweeper.class);
+
+    private static final int REBUILD_PAGE = 5_000;
+
+    private final ExamAttemptJdbcRepository attemptJdbcRepo;
+    private final AutosaveBuffer autosaveBuffer;
+    private final ProctoringEventLog proctoringEvents;
+    private final GradingQueue gradingQueue;
+    private final ExamLiveFeed liveFeed;
+    private final ExamMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long graceMs;
+    private final int batchSize;
+
+    // guarded by deadlines
+    private final PriorityQueue<ActiveDeadline> deadlines =
+            new PriorityQueue<>(Comparator.comparing(ActiveDeadline::endsAt));
+    private final Set<Long> indexed = new HashSet<>();
+
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder sweeps = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong lastSweepMs = new AtomicLong();
+
+    public AttemptExpirySweeper(
+            ExamAttemptJdbcRepository attemptJdbcRepo,
+            AutosaveBuffer autosaveBuffer,
+            ProctoringEventLog proctoringEvents,
+            GradingQueue gradingQueue,
+            ExamLiveFeed liveFeed,
+            ExamMetrics metrics,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.expiry.enabled:true}") boolean enabled,
+            @Value("${exam.expiry.grace-ms:60000}") long graceMs,
+            @Value("${exam.expiry.batch-size:500}") int batchSize
+    ) {
+        this.attemptJdbcRepo = attemptJdbcRepo;
+        this.autosaveBuffer = autosaveBuffer;
+        this.proctoringEvents = proctoringEvents;
+        this.gradingQueue = gradingQueue;
+        this.liveFeed = liveFeed;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.graceMs = Math.max(0, graceMs);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /* ================= INDEX ================= */
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /** Called when an attempt is started. */
+    public void track(ExamAttempt attempt) {
+        if (!enabled || attempt.getStatus() != AttemptStatus.ACTIVE) return;
+
+        index(new ActiveDeadline(
+                attempt.getId(),
+                attempt.getStudent().getId(),
+                attempt.getExam().getId(),
+                attempt.getEndsAt()
+        ));
+    }
+
+    private void index(ActiveDeadline deadline) {
+        synchronized (deadlines) {
+            if (indexed.add(deadline.attemptId())) deadlines.add(deadline);
+        }
+    }
+
+    // every ACTIVE attempt; the ones already indexed are skipped
+    @Scheduled(
+            initialDelayString = "${exam.expiry.rescan-interval-ms:300000}",
+            fixedDelayString = "${exam.expiry.rescan-interval-ms:300000}"
+    )
+    public void rebuild() {
+        if (!enabled) return;
+
+        long lastId = 0;
+        while (true) {
+            List<ActiveDeadline> page = attemptJdbcRepo.findActiveDeadlines(lastId, REBUILD_PAGE);
+            if (page.isEmpty()) break;
+
+            page.forEach(this::index);
+            lastId = page.get(page.size() - 1).attemptId();
+        }
+    }
+
+    /* ================= SWEEP ================= */
+
+    @Scheduled(fixedDelayString = "${exam.expiry.sweep-interval-ms:5000}")
+    public void sweep() {
+        if (!enabled) return;
+
+        Instant cutoff = Instant.now().minusMillis(graceMs);
+        List<ActiveDeadline> due;
+
+        while (!(due = takeDue(cutoff)).isEmpty()) {
+            if (!expire(due, cutoff)) return;
+        }
+    }
+
+    private List<ActiveDeadline> takeDue(Instant cutoff) {
+        List<ActiveDeadline> due = new ArrayList<>();
+
+        synchronized (deadlines) {
+            while (due.size() < batchSize
+                    && !deadlines.isEmpty()
+                    && !deadlines.peek().endsAt().isAfter(cutoff)) {
+                ActiveDeadline next = deadlines.poll();
+                indexed.remove(next.attemptId());
+                due.add(next);
+            }
+        }
+        return due;
+    }
+
+    private boolean expire(List<ActiveDeadline> due, Instant cutoff) {
+        long start = System.nanoTime();
+        Map<Long, ActiveDeadline> byId = new HashMap<>();
+        for (ActiveDeadline d : due) byId.put(d.attemptId(), d);
+
+        List<Long> terminated;
+        try {
+            // written while the attempts are still ACTIVE, so they count
+            for (ActiveDeadline d : due) {
+                autosaveBuffer.flush(d.studentId(), d.examId());
+            }
+            proctoringEvents.flush();
+
+            Instant now = Instant.now();
+            terminated = transactionTemplate.execute(tx -> {
+                List<Long> ids = attemptJdbcRepo.terminateExpired(byId.keySet(), cutoff, now);
+
+                if (gradingQueue.isEnabled()) {
+                    ids.forEach(id -> gradingQueue.enqueue(id, now));
+                } else {
+                    gradingQueue.gradeNow(ids);
+                }
+
+                for (Long id : ids) {
+                    ActiveDeadline d = byId.get(id);
+                    liveFeed.publishExpired(d.examId(), d.studentId(), id);
+                }
+                return ids;
+            });
+        } catch (RuntimeException e) {
+            // back into the index; the next sweep tries again
+            failures.increment();
+            due.forEach(this::index);
+            log.warn("Expiry of {} attempts failed", due.size(), e);
+            return false;
+        }
+
+        for (Long id : terminated) {
+            ActiveDeadline d = byId.get(id);
+            proctoringEvents.forget(d.studentId(), d.examId());
+        }
+
+        expired.add(terminated.size());
+        metrics.attemptsExpired.increment(terminated.size());
+        sweeps.increment();
+        lastSweepMs.set((System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        int size;
+        ActiveDeadline next;
+        synchronized (deadlines) {
+            size = deadlines.size();
+            next = deadlines.peek();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("indexed", size);
+        stats.put("nextEndsAt", next != null ? next.endsAt() : null);
+        stats.put("expired", expired.sum());
+        stats.put("sweeps", sweeps.sum());
+        stats.put("failures", failures.sum());
+        stats.put("lastSweepMs", lastSweepMs.get());
+        return stats;
+    }
+}
@@ -57,7 +57,7 @@ public class AuthService {
         auditRepo.save(log);
 
         String token =
-                jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+                jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
 
         return new LoginResponse(token, user.getRole().name());
     }
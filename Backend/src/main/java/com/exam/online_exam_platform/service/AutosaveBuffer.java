@@ -0,0 +1,390 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.dto.ActiveAttemptRef;
+import com.exam.online_exam_platform.entity.AttemptStatus;
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.ProgressRow;
+import com.exam.online_exam_platform.repository.ExamAttemptRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for autosave.
+ *
+ * Keeps the latest answers / delta sequence of every ACTIVE
+ * attempt in memory, merges repeated saves and flushes changed attempts in
+ * JDBC batches: one progress UPDATE on exam_attempts plus upserts of only
+ * the answers that changed. Submit, resume and expiry flush the attempt
+ * synchronously; shutdown flushes everything.
+ *
+ * Every write carries the slot's next write generation and only lands if
+ * exam_attempts holds an older one, so a periodic batch that commits after
+ * a newer synchronous flush of the same attempt writes nothing.
+ */
+@Component
+public class AutosaveBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(AutosaveBuffer.class);
+
+    private final ExamAttemptRepository attemptRepo;
+    private final ExamAttemptJdbcRepository attemptJdbcRepo;
+    private final AttemptAnswerStore answerStore;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final Map<AttemptKey, PendingAttempt> pending = new ConcurrentHashMap<>();
+
+    public AutosaveBuffer(
+            ExamAttemptRepository attemptRepo,
+            ExamAttemptJdbcRepository attemptJdbcRepo,
+            AttemptAnswerStore answerStore,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.autosave.write-behind:false}") boolean enabled,
+            @Value("${exam.autosave.batch-size:200}") int batchSize
+    ) {
+        this.attemptRepo = attemptRepo;
+        this.attemptJdbcRepo = attemptJdbcRepo;
+        this.answerStore = answerStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /* ================= TRACK ================= */
+
+    /**
+     * Seeds the buffer with an ACTIVE attempt that was just started / resumed,
+     * so the following autosaves do not have to look it up again.
+     */
+    public void track(ExamAttempt attempt, Map<String, String> answers) {
+        if (!enabled || attempt.getStatus() != AttemptStatus.ACTIVE) return;
+
+        pending.putIfAbsent(
+                new AttemptKey(attempt.getStudent().getId(), attempt.getExam().getId()),
+                new PendingAttempt(attempt, answers)
+        );
+    }
+
+    /* ================= RECORD ================= */
+
+    /**
+     * Buffers a full autosave.
+     *
+     * @return false if the caller has to fall back to the synchronous path
+     * (buffer disabled, no active attempt, or attempt expired — in which case
+     * the pending state has already been flushed).
+     */
+    public boolean record(Long studentId, Long examId, Map<String, String> answers) {
+        PendingAttempt slot;
+        do {
+            slot = slotFor(studentId, examId);
+            if (slot == null) return false;
+            // closed → submit/resume drained it concurrently, look again
+        } while (!slot.replace(answers));
+
+        return true;
+    }
+
+    /**
+     * Buffers a delta autosave.
+     *
+     * @return the last sequence applied to the attempt, or null if the
+     * caller has to fall back to the synchronous path (see {@link #record}).
+     */
+    public Long recordDelta(Long studentId, Long examId, Map<String, String> changes, long seq) {
+        PendingAttempt slot;
+        Long applied;
+        do {
+            slot = slotFor(studentId, examId);
+            if (slot == null) return null;
+            applied = slot.apply(changes, seq);
+        } while (applied == null);
+
+        return applied;
+    }
+
+    private PendingAttempt slotFor(Long studentId, Long examId) {
+        if (!enabled) return null;
+
+        AttemptKey key = new AttemptKey(studentId, examId);
+        PendingAttempt slot = pending.get(key);
+
+        if (slot == null) {
+            ActiveAttemptRef attempt = attemptRepo.findActiveRef(studentId, examId).orElse(null);
+
+            if (attempt == null) return null;
+
+            Map<String, String> answers = answerStore.load(attempt.id(), attempt.answersJson());
+            slot = pending.computeIfAbsent(key, k -> new PendingAttempt(attempt, answers));
+        }
+
+        if (slot.isExpired()) {
+            flush(studentId, examId);
+            return null;
+        }
+
+        return slot;
+    }
+
+    /* ================= SYNCHRONOUS FLUSH ================= */
+
+    /**
+     * Removes the attempt from the buffer and writes its latest state.
+     * Joins the caller's transaction when there is one.
+     */
+    public void flush(Long studentId, Long examId) {
+        if (!enabled) return;
+
+        PendingAttempt slot = pending.remove(new AttemptKey(studentId, examId));
+        if (slot == null) return;
+
+        Progress progress = slot.close();
+        if (progress != null) {
+            transactionTemplate.executeWithoutResult(tx -> persist(List.of(progress)));
+        }
+    }
+
+    /* ================= PERIODIC FLUSH ================= */
+
+    @Scheduled(fixedDelayString = "${exam.autosave.flush-interval-ms:2000}")
+    public void flushDirty() {
+        if (!enabled || pending.isEmpty()) return;
+
+        List<Progress> batch = new ArrayList<>(batchSize);
+        List<PendingAttempt> slots = new ArrayList<>(batchSize);
+
+        for (var entry : pending.entrySet()) {
+            PendingAttempt slot = entry.getValue();
+
+            Progress progress = slot.drain();
+
+            if (progress == null) {
+                // clean and past endsAt → nothing left to save for it
+                if (slot.isExpired()) pending.remove(entry.getKey(), slot);
+                continue;
+            }
+
+            batch.add(progress);
+            slots.add(slot);
+
+            if (batch.size() == batchSize) {
+                write(batch, slots);
+                batch = new ArrayList<>(batchSize);
+                slots = new ArrayList<>(batchSize);
+            }
+        }
+
+        write(batch, slots);
+    }
+
+    private void write(List<Progress> batch, List<PendingAttempt> slots) {
+        if (batch.isEmpty()) return;
+
+        boolean ok = false;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> persist(batch));
+            ok = true;
+        } catch (RuntimeException e) {
+            log.warn("Autosave flush of {} attempts failed, retrying next cycle", batch.size(), e);
+        } finally {
+            for (PendingAttempt slot : slots) {
+                slot.written(ok);
+            }
+        }
+    }
+
+    /**
+     * Progress first: it row-locks the attempts that are still ACTIVE, the
+     * same lock submit takes, so answers are never written past a submit.
+     * Runs inside the caller's transaction.
+     */
+    private void persist(List<Progress> batch) {
+        // fixed lock order between concurrent batches
+        batch = batch.stream()
+                .sorted(Comparator.comparing(Progress::attemptId))
+                .toList();
+
+        int[] counts = attemptJdbcRepo.batchUpdateProgress(
+                batch.stream()
+                        .map(p -> new ProgressRow(p.attemptId(), p.seq(), p.gen()))
+                        .toList()
+        );
+
+        Map<Long, Map<String, String>> changes = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Progress p = batch.get(i);
+            if (counts[i] != 0 && !p.changes().isEmpty()) {
+                changes.put(p.attemptId(), p.changes());
+            }
+        }
+
+        answerStore.writeAll(changes);
+    }
+
+    /** Closes every slot, in flight or not, and writes its final state. */
+    @PreDestroy
+    public void flushAll() {
+        if (!enabled) return;
+
+        List<Progress> batch = new ArrayList<>(batchSize);
+        for (AttemptKey key : new ArrayList<>(pending.keySet())) {
+            PendingAttempt slot = pending.remove(key);
+            Progress progress = slot == null ? null : slot.close();
+            if (progress != null) batch.add(progress);
+
+            if (batch.size() == batchSize) {
+                persistQuietly(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        persistQuietly(batch);
+    }
+
+    private void persistQuietly(List<Progress> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> persist(batch));
+        } catch (RuntimeException e) {
+            log.warn("Autosave shutdown flush of {} attempts failed", batch.size(), e);
+        }
+    }
+
+    /* ================= SLOT ================= */
+
+    private record AttemptKey(Long studentId, Long examId) {}
+
+    // changes: questionId -> answer, null = cleared
+    record Progress(Long attemptId, long seq, long gen, Map<String, String> changes) {}
+
+    static final class PendingAttempt {
+
+        private final Long attemptId;
+        private final Instant endsAt;
+
+        // latest full state + the questions that changed since the last write
+        private final Map<String, String> answers;
+        private final Set<String> dirtyKeys = new HashSet<>();
+        private Set<String> inFlightKeys = Set.of();
+
+        private long seq;
+        // last write generation handed out; above what exam_attempts had when seeded
+        private long gen;
+        private boolean dirty;
+        private boolean inFlight;
+        private boolean closed;
+
+        PendingAttempt(ExamAttempt attempt, Map<String, String> answers) {
+            this(attempt.getId(), attempt.getEndsAt(), attempt.getAutosaveSeq(), attempt.getWriteGen(), answers);
+        }
+
+        PendingAttempt(ActiveAttemptRef attempt, Map<String, String> answers) {
+            this(attempt.id(), attempt.endsAt(), attempt.seq(), attempt.gen(), answers);
+        }
+
+        private PendingAttempt(Long attemptId, Instant endsAt, long seq, long gen, Map<String, String> answers) {
+            this.attemptId = attemptId;
+            this.endsAt = endsAt;
+            this.answers = new HashMap<>(answers);
+            this.seq = seq;
+            this.gen = gen;
+        }
+
+        boolean isExpired() {
+            return Instant.now().isAfter(endsAt);
+        }
+
+        synchronized boolean replace(Map<String, String> next) {
+            if (closed) return false;
+
+            Map<String, String> changes = AttemptAnswerStore.diff(answers, next);
+            if (!changes.isEmpty()) {
+                applyChanges(changes);
+                this.dirty = true;
+            }
+            return true;
+        }
+
+        /** @return last applied sequence, or null if the slot was closed. */
+        synchronized Long apply(Map<String, String> changes, long seq) {
+            if (closed) return null;
+
+            // stale / duplicate delta → keep what we have
+            if (seq <= this.seq) return this.seq;
+
+            applyChanges(changes);
+            this.seq = seq;
+            this.dirty = true;
+            return seq;
+        }
+
+        private void applyChanges(Map<String, String> changes) {
+            changes.forEach((questionId, answer) -> {
+                if (answer == null) answers.remove(questionId);
+                else answers.put(questionId, answer);
+                dirtyKeys.add(questionId);
+            });
+        }
+
+        synchronized Progress drain() {
+            if (!dirty || closed) return null;
+
+            dirty = false;
+            inFlight = true;
+            inFlightKeys = new HashSet<>(dirtyKeys);
+            dirtyKeys.clear();
+            return snapshot(inFlightKeys);
+        }
+
+        synchronized void written(boolean ok) {
+            inFlight = false;
+            if (!ok && !closed) {
+                dirty = true;
+                dirtyKeys.addAll(inFlightKeys);
+            }
+            inFlightKeys = Set.of();
+        }
+
+        /**
+         * Final state for a synchronous flush. Also re-sends what a batch in
+         * flight is writing, so the caller never has to wait for it; the
+         * newer generation keeps that batch from overwriting this one if it
+         * commits later.
+         */
+        synchronized Progress close() {
+            closed = true;
+            if (!dirty && !inFlight) return null;
+
+            Set<String> keys = new HashSet<>(dirtyKeys);
+            keys.addAll(inFlightKeys);
+            return snapshot(keys);
+        }
+
+        private Progress snapshot(Set<String> keys) {
+            Map<String, String> changes = new HashMap<>();
+            for (String key : keys) {
+                changes.put(key, answers.get(key));
+            }
+            return new Progress(attemptId, seq, ++gen, changes);
+        }
+    }
+}
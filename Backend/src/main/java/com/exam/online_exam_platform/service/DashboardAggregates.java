@@ -0,0 +1,315 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * In-memory aggregates behind the admin dashboard, updated as each Result
+ * is committed instead of recomputed from every result row on each view.
+ *
+ * Keeps per-exam participant count / latest submission, per-student score
+ * sum / count, global totals, and two ordered indexes (exams by latest
+ * submission, students by average) so top-k / bottom-k reads touch only k
+ * entries. Results are never updated or deleted once written, so applying
+ * each one exactly once keeps the state exact.
+ *
+ * Built from the results table on startup, on demand ({@link #rebuild()})
+ * and every exam.dashboard.rebuild-interval-ms. Only results graded by this
+ * instance are applied as they commit; with several instances the others'
+ * show up at the next periodic rebuild.
+ */
+@Component
+public class DashboardAggregates implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardAggregates.class);
+
+    public static final int PASS_SCORE = 40;
+
+    public record ExamActivity(Long examId, int participants, Instant latest) {}
+
+    public record StudentAverage(Long studentId, double average, int results) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate scanTx;
+
+    private final Object lock = new Object();
+    private State state = new State();
+
+    // results committed while a rebuild scans the table
+    private List<Result> pendingDuringRebuild;
+
+    public DashboardAggregates(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // not read-only: a lagging replica could miss results applied before the scan began
+        this.scanTx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /* ================= WRITE ================= */
+
+    /** Applies saved results once their transaction commits. */
+    public void record(Collection<Result> results) {
+        if (results.isEmpty()) return;
+        List<Result> copy = List.copyOf(results);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(copy);
+                }
+            });
+        } else {
+            apply(copy);
+        }
+    }
+
+    private void apply(List<Result> results) {
+        synchronized (lock) {
+            for (Result r : results) {
+                state.add(r.getExamId(), r.getStudentId(), r.getScore(), r.getSubmittedAt());
+            }
+            if (pendingDuringRebuild != null) pendingDuringRebuild.addAll(results);
+        }
+    }
+
+    /* ================= REBUILD ================= */
+
+    /**
+     * Recomputes everything from the results table with one streaming scan
+     * and swaps it in. Results committed during the scan are replayed unless
+     * the scan already saw them.
+     */
+    @Scheduled(
+            initialDelayString = "${exam.dashboard.rebuild-interval-ms:600000}",
+            fixedDelayString = "${exam.dashboard.rebuild-interval-ms:600000}"
+    )
+    public Map<String, Object> rebuild() {
+        long started = System.currentTimeMillis();
+
+        synchronized (lock) {
+            if (pendingDuringRebuild != null) {
+                return Map.of("status", "ALREADY_RUNNING");
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+
+        State fresh = new State();
+        IdRanges scanned = new IdRanges();
+
+        try {
+            // inside a transaction so the driver really streams with the fetch size
+            scanTx.executeWithoutResult(tx -> jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(
+                        "SELECT id, exam_id, user_id, score, submitted_at FROM results ORDER BY id"
+                );
+                ps.setFetchSize(1000);
+                return ps;
+            }, rs -> {
+                Timestamp submittedAt = rs.getTimestamp(5);
+                fresh.add(
+                        rs.getLong(2),
+                        rs.getLong(3),
+                        rs.getInt(4),
+                        submittedAt == null ? null : submittedAt.toInstant()
+                );
+                scanned.add(rs.getLong(1));
+            }));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        int replayed = 0;
+        synchronized (lock) {
+            for (Result r : pendingDuringRebuild) {
+                if (!scanned.contains(r.getId())) {
+                    fresh.add(r.getExamId(), r.getStudentId(), r.getScore(), r.getSubmittedAt());
+                    replayed++;
+                }
+            }
+            pendingDuringRebuild = null;
+            state = fresh;
+        }
+
+        long tookMs = System.currentTimeMillis() - started;
+        log.info("Dashboard aggregates rebuilt from {} results in {} ms", fresh.count, tookMs);
+
+        return Map.of(
+                "status", "REBUILT",
+                "results", fresh.count,
+                "replayed", replayed,
+                "tookMs", tookMs
+        );
+    }
+
+    /* ================= READ ================= */
+
+    public double averageScore() {
+        synchronized (lock) {
+            return state.count == 0 ? 0.0 : (double) state.scoreSum / state.count;
+        }
+    }
+
+    public double passRate() {
+        synchronized (lock) {
+            return state.count == 0 ? 0.0 : state.passed * 100.0 / state.count;
+        }
+    }
+
+    /** Exams by latest submission, newest first. */
+    public List<ExamActivity> recentExams(int limit) {
+        synchronized (lock) {
+            List<ExamActivity> out = new ArrayList<>(limit);
+            for (ExamKey key : state.examsByLatest) {
+                if (out.size() == limit) break;
+                ExamStats s = state.exams.get(key.examId());
+                out.add(new ExamActivity(key.examId(), s.participants, s.latest));
+            }
+            return out;
+        }
+    }
+
+    /** Students by average score, highest first. */
+    public List<StudentAverage> topStudents(int limit) {
+        synchronized (lock) {
+            return take(state.studentsByAverage.descendingSet(), limit);
+        }
+    }
+
+    /** Students by average score, lowest first. */
+    public List<StudentAverage> bottomStudents(int limit) {
+        synchronized (lock) {
+            return take(state.studentsByAverage, limit);
+        }
+    }
+
+    private List<StudentAverage> take(NavigableSet<StudentKey> keys, int limit) {
+        List<StudentAverage> out = new ArrayList<>(limit);
+        for (StudentKey key : keys) {
+            if (out.size() == limit) break;
+            out.add(new StudentAverage(key.studentId(), key.average(), state.students.get(key.studentId()).count));
+        }
+        return out;
+    }
+
+    /* ================= STATE ================= */
+
+    /**
+     * Ids seen by a rebuild scan, added in increasing order, kept as runs of
+     * consecutive ids: result ids are nearly gapless, so this stays a few
+     * entries however many results there are.
+     */
+    static final class IdRanges {
+
+        private long[] starts = new long[16];
+        private long[] ends = new long[16];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && id <= ends[size - 1] + 1) {
+                ends[size - 1] = Math.max(ends[size - 1], id);
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = id;
+            ends[size] = id;
+            size++;
+        }
+
+        boolean contains(long id) {
+            int i = Arrays.binarySearch(starts, 0, size, id);
+            if (i >= 0) return true;
+
+            int before = -i - 2;
+            return before >= 0 && id <= ends[before];
+        }
+
+        int ranges() {
+            return size;
+        }
+    }
+
+    private static final class ExamStats {
+        int participants;
+        Instant latest;
+    }
+
+    private static final class StudentStats {
+        long scoreSum;
+        int count;
+
+        double average() {
+            return (double) scoreSum / count;
+        }
+    }
+
+    // exams without a timestamp sort last, like the old in-memory sort
+    private record ExamKey(Instant latest, Long examId) {
+        static final Comparator<ExamKey> NEWEST_FIRST = Comparator
+                .comparing(ExamKey::latest, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(ExamKey::examId);
+    }
+
+    private record StudentKey(double average, Long studentId) {
+        static final Comparator<StudentKey> LOWEST_FIRST = Comparator
+                .comparingDouble(StudentKey::average)
+                .thenComparing(StudentKey::studentId);
+    }
+
+    private static final class State {
+
+        long count;
+        long scoreSum;
+        long passed;
+
+        final Map<Long, ExamStats> exams = new HashMap<>();
+        final Map<Long, StudentStats> students = new HashMap<>();
+
+        final NavigableSet<ExamKey> examsByLatest = new TreeSet<>(ExamKey.NEWEST_FIRST);
+        final NavigableSet<StudentKey> studentsByAverage = new TreeSet<>(StudentKey.LOWEST_FIRST);
+
+        void add(Long examId, Long studentId, int score, Instant submittedAt) {
+            count++;
+            scoreSum += score;
+            if (score >= PASS_SCORE) passed++;
+
+            ExamStats exam = exams.computeIfAbsent(examId, id -> new ExamStats());
+            if (exam.participants > 0) examsByLatest.remove(new ExamKey(exam.latest, examId));
+            exam.participants++;
+            if (submittedAt != null && (exam.latest == null || submittedAt.isAfter(exam.latest))) {
+                exam.latest = submittedAt;
+            }
+            examsByLatest.add(new ExamKey(exam.latest, examId));
+
+            StudentStats student = students.computeIfAbsent(studentId, id -> new StudentStats());
+            if (student.count > 0) studentsByAverage.remove(new StudentKey(student.average(), studentId));
+            student.scoreSum += score;
+            student.count++;
+            studentsByAverage.add(new StudentKey(student.average(), studentId));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.exam.online_exam_platform.service;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * How long requests wait for a pooled connection, recorded by Hikari itself
+ * (installed as its metrics tracker, see DbPoolMetricsConfig and
+ * ReadReplicaConfig).
+ *
+ * Waits go into power-of-two buckets: bucket i counts waits shorter than
+ * 2^i µs, so percentiles are upper bounds within a factor of two. The raw
+ * bucket counts are part of the stats; a client that reads them before and
+ * after a run can compute percentiles for just that run from the difference.
+ *
+ * Each pool is tracked on its own; the top-level stats add up all pools
+ * (with a read replica: primary + replica) and "pools" has them one by one.
+ *
+ * Hikari takes a single tracker, so this one also feeds Hikari's own
+ * Micrometer tracker (hikaricp.connections.*{pool} on /actuator/prometheus)
+ * when a MeterRegistry is available.
+ */
+public class DbPoolMetrics implements MetricsTrackerFactory {
+
+    private static final int BUCKETS = 32; // up to ~35 min
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final List<Pool> pools = new CopyOnWriteArrayList<>();
+
+    /** @param meterRegistry asked when each pool starts; may return null */
+    public DbPoolMetrics(Supplier<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        MeterRegistry registry = meterRegistry.get();
+        IMetricsTracker micrometer = registry == null
+                ? new IMetricsTracker() {}
+                : new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats);
+
+        Pool pool = new Pool(poolName, poolStats, micrometer);
+        pools.add(pool);
+        return pool;
+    }
+
+    static int bucket(long micros) {
+        int b = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(b, BUCKETS - 1);
+    }
+
+    /* ================= PER POOL ================= */
+
+    private static final class Pool implements IMetricsTracker {
+
+        final String name;
+        final PoolStats poolStats;
+        final IMetricsTracker micrometer;
+
+        final AtomicLongArray waitBuckets = new AtomicLongArray(BUCKETS);
+        final LongAdder acquired = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder usageMillis = new LongAdder();
+        final LongAccumulator maxUsageMillis = new LongAccumulator(Math::max, 0);
+
+        Pool(String name, PoolStats poolStats, IMetricsTracker micrometer) {
+            this.name = name;
+            this.poolStats = poolStats;
+            this.micrometer = micrometer;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            micrometer.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            maxWaitNanos.accumulate(elapsedAcquiredNanos);
+            waitBuckets.incrementAndGet(bucket(elapsedAcquiredNanos / 1_000));
+            micrometer.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageMillis.add(elapsedBorrowedMillis);
+            maxUsageMillis.accumulate(elapsedBorrowedMillis);
+            micrometer.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+            micrometer.recordConnectionTimeout();
+        }
+
+        @Override
+        public void close() {
+            micrometer.close();
+        }
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        List<Pool> all = List.copyOf(pools);
+
+        Map<String, Object> s = describe(all);
+        Map<String, Object> byPool = new LinkedHashMap<>();
+        for (Pool pool : all) {
+            byPool.put(pool.name, describe(List.of(pool)));
+        }
+        s.put("pools", byPool);
+        return s;
+    }
+
+    private static Map<String, Object> describe(List<Pool> pools) {
+        int active = 0, idle = 0, total = 0, max = 0, pending = 0;
+        long n = 0, timeouts = 0, waitNanos = 0, maxWaitNanos = 0, usageMillis = 0, maxUsageMillis = 0;
+        long[] buckets = new long[BUCKETS];
+
+        for (Pool pool : pools) {
+            PoolStats ps = pool.poolStats;
+            active += ps.getActiveConnections();
+            idle += ps.getIdleConnections();
+            total += ps.getTotalConnections();
+            max += ps.getMaxConnections();
+            pending += ps.getPendingThreads();
+
+            n += pool.acquired.sum();
+            timeouts += pool.timeouts.sum();
+            waitNanos += pool.waitNanos.sum();
+            maxWaitNanos = Math.max(maxWaitNanos, pool.maxWaitNanos.get());
+            usageMillis += pool.usageMillis.sum();
+            maxUsageMillis = Math.max(maxUsageMillis, pool.maxUsageMillis.get());
+            for (int i = 0; i < BUCKETS; i++) buckets[i] += pool.waitBuckets.get(i);
+        }
+
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("active", active);
+        s.put("idle", idle);
+        s.put("total", total);
+        s.put("max", max);
+        s.put("pendingThreads", pending);
+
+        s.put("acquired", n);
+        s.put("timeouts", timeouts);
+        s.put("waitAvgMs", n == 0 ? 0.0 : waitNanos / 1e6 / n);
+        s.put("waitMaxMs", maxWaitNanos / 1e6);
+
+        List<Long> bucketList = new ArrayList<>(BUCKETS);
+        for (long b : buckets) bucketList.add(b);
+        s.put("waitP50Ms", percentileMs(bucketList, 0.50));
+        s.put("waitP95Ms", percentileMs(bucketList, 0.95));
+        s.put("waitP99Ms", percentileMs(bucketList, 0.99));
+        s.put("waitBucketsMicros", bucketList);
+
+        s.put("usageAvgMs", n == 0 ? 0.0 : (double) usageMillis / n);
+        s.put("usageMaxMs", maxUsageMillis);
+        return s;
+    }
+
+    /** Upper bound of the bucket holding quantile {@code q}; bucket i = below 2^i µs. */
+    public static double percentileMs(List<Long> buckets, double q) {
+        long total = 0;
+        for (long c : buckets) total += c;
+        if (total == 0) return 0.0;
+
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.size(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return (1L << i) / 1000.0;
+        }
+        return (1L << (buckets.size() - 1)) / 1000.0;
+    }
+}
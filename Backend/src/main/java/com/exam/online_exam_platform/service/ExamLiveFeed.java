@@ -0,0 +1,348 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.AttemptStatus;
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.entity.User;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.LiveAttemptRow;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live attempt feed for invigilators: one SSE stream per watcher per exam.
+ *
+ * StudentExamService and ProctoringEventLog publish attempt changes here.
+ * Publishing merges the change into each watcher's pending map, keyed by
+ * student, and never touches a socket; when nobody watches the exam it is
+ * one map lookup. Changes made inside a transaction are published after
+ * the commit.
+ *
+ * The sender pool writes each watcher's pending changes at most once per
+ * interval, as one "attempts" event. A slow or stalled watcher therefore
+ * holds at most one entry per student, always the latest. Subscribing
+ * reads the exam's attempts once for the "snapshot" event; after that no
+ * change touches the database.
+ */
+@Component
+public class ExamLiveFeed {
+
+    public enum Change { STARTED, RESUMED, AUTOSAVED, VIOLATION, SUBMITTED, TERMINATED }
+
+    /** One student's attempt as the feed shows it; null fields did not change. */
+    public record AttemptUpdate(Long studentId, String studentName, Long attemptId, Change change,
+                                AttemptStatus status, Integer violations, Instant at) {
+
+        private AttemptUpdate then(AttemptUpdate newer) {
+            return new AttemptUpdate(
+                    studentId,
+                    newer.studentName != null ? newer.studentName : studentName,
+                    newer.attemptId != null ? newer.attemptId : attemptId,
+                    newer.change,
+                    newer.status != null ? newer.status : status,
+                    newer.violations != null ? newer.violations : violations,
+                    newer.at
+            );
+        }
+    }
+
+    private final ExamAttemptJdbcRepository attemptJdbcRepo;
+    private final TransactionTemplate snapshotTx;
+    private final long intervalMs;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+
+    private final Map<Long, Set<Subscriber>> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ScheduledThreadPoolExecutor senders;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder sends = new LongAdder();
+
+    public ExamLiveFeed(
+            ExamAttemptJdbcRepository attemptJdbcRepo,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.live-feed.interval-ms:500}") long intervalMs,
+            @Value("${exam.live-feed.timeout-ms:1800000}") long timeoutMs,
+            @Value("${exam.live-feed.max-subscribers:200}") int maxSubscribers,
+            @Value("${exam.live-feed.sender-threads:2}") int senderThreads
+    ) {
+        this.attemptJdbcRepo = attemptJdbcRepo;
+        // not read-only: on a lagging replica the snapshot could miss changes already published
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.intervalMs = Math.max(0, intervalMs);
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = Math.max(1, maxSubscribers);
+
+        AtomicInteger n = new AtomicInteger();
+        this.senders = new ScheduledThreadPoolExecutor(Math.max(1, senderThreads), r -> {
+            Thread t = new Thread(r, "live-feed-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.senders.setRemoveOnCancelPolicy(true);
+    }
+
+    /* ================= PUBLISH ================= */
+
+    public void publish(ExamAttempt attempt, User student, Change change) {
+        Long examId = attempt.getExam().getId();
+        if (!channels.containsKey(examId)) return;
+
+        publish(examId, new AttemptUpdate(student.getId(), student.getName(), attempt.getId(), change,
+                attempt.getStatus(), attempt.getViolations(), Instant.now()));
+    }
+
+    /** For the buffered autosave path, which has no attempt at hand. */
+    public void publish(Long examId, User student, Change change) {
+        if (!channels.containsKey(examId)) return;
+
+        publish(examId, new AttemptUpdate(student.getId(), student.getName(), null, change,
+                null, null, Instant.now()));
+    }
+
+    public void publishViolations(Long examId, Long studentId, Long attemptId, int violations) {
+        if (!channels.containsKey(examId)) return;
+
+        publish(examId, new AttemptUpdate(studentId, null, attemptId, Change.VIOLATION,
+                null, violations, Instant.now()));
+    }
+
+    /** For the expiry sweeper, which only has ids. */
+    public void publishExpired(Long examId, Long studentId, Long attemptId) {
+        if (!channels.containsKey(examId)) return;
+
+        publish(examId, new AttemptUpdate(studentId, null, attemptId, Change.TERMINATED,
+                AttemptStatus.TERMINATED, null, Instant.now()));
+    }
+
+    private void publish(Long examId, AttemptUpdate update) {
+        published.increment();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(examId, update);
+            return;
+        }
+
+        // a rolled back change never reaches the feed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                offer(examId, update);
+            }
+        });
+    }
+
+    private void offer(Long examId, AttemptUpdate update) {
+        Set<Subscriber> watching = channels.get(examId);
+        if (watching == null) return;
+
+        for (Subscriber subscriber : watching) {
+            subscriber.offer(update);
+        }
+    }
+
+    /* ================= SUBSCRIBE ================= */
+
+    /**
+     * Opens a feed for the exam. Its first event, "snapshot", lists every
+     * attempt; each "attempts" event after that lists the students whose
+     * attempt changed since the previous one.
+     */
+    public SseEmitter subscribe(Long examId) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new RuntimeException("Too many live feed subscribers, try again later");
+        }
+
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(examId, emitter);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // registered before the snapshot is read: what changes meanwhile is
+        // held back and sent after it
+        channels.compute(examId, (k, watching) -> {
+            if (watching == null) watching = ConcurrentHashMap.newKeySet();
+            watching.add(subscriber);
+            return watching;
+        });
+
+        try {
+            List<AttemptUpdate> snapshot = snapshotTx.execute(tx -> attemptJdbcRepo.findLiveStates(examId))
+                    .stream()
+                    .map(ExamLiveFeed::snapshotOf)
+                    .toList();
+
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+        } catch (IOException | RuntimeException e) {
+            subscriber.close();
+            throw new RuntimeException("Live feed could not be opened", e);
+        }
+
+        subscriber.release();
+        return emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private static AttemptUpdate snapshotOf(LiveAttemptRow row) {
+        Change change = switch (row.status()) {
+            case ACTIVE -> Change.STARTED;
+            case SUBMITTED -> Change.SUBMITTED;
+            case TERMINATED -> Change.TERMINATED;
+        };
+
+        return new AttemptUpdate(row.studentId(), row.studentName(), row.attemptId(), change,
+                row.status(), row.violations(),
+                row.submittedAt() != null ? row.submittedAt() : row.startedAt());
+    }
+
+    /* ================= HEARTBEAT ================= */
+
+    // keeps idle feeds from being cut by proxies; also notices dead clients
+    @Scheduled(fixedDelayString = "${exam.live-feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> watching : channels.values()) {
+            watching.forEach(Subscriber::heartbeat);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Set<Subscriber> watching : channels.values()) {
+            for (Subscriber subscriber : watching) {
+                subscriber.close();
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "exams", channels.size(),
+                "subscribers", subscribers.get(),
+                "published", published.sum(),
+                "coalesced", coalesced.sum(),
+                "delivered", delivered.sum(),
+                "sends", sends.sum()
+        );
+    }
+
+    /* ================= SUBSCRIBER ================= */
+
+    private final class Subscriber {
+
+        private final Long examId;
+        private final SseEmitter emitter;
+
+        // student id → latest change not sent yet
+        private final Map<Long, AttemptUpdate> pending = new ConcurrentHashMap<>();
+
+        // a send is scheduled or running; held until the snapshot is out
+        private final AtomicBoolean busy = new AtomicBoolean(true);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+
+        Subscriber(Long examId, SseEmitter emitter) {
+            this.examId = examId;
+            this.emitter = emitter;
+        }
+
+        void offer(AttemptUpdate update) {
+            pending.merge(update.studentId(), update, (older, newer) -> {
+                coalesced.increment();
+                return older.then(newer);
+            });
+            schedule();
+        }
+
+        void heartbeat() {
+            heartbeatDue = true;
+            schedule();
+        }
+
+        void release() {
+            busy.set(false);
+            if (!pending.isEmpty()) schedule();
+        }
+
+        private void schedule() {
+            if (closed.get() || !busy.compareAndSet(false, true)) return;
+
+            try {
+                senders.schedule(this::send, intervalMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                busy.set(false); // shutting down
+            }
+        }
+
+        private void send() {
+            try {
+                if (closed.get()) return;
+
+                List<AttemptUpdate> batch = new ArrayList<>(pending.size());
+                for (Long studentId : pending.keySet()) {
+                    AttemptUpdate update = pending.remove(studentId);
+                    if (update != null) batch.add(update);
+                }
+
+                if (!batch.isEmpty()) {
+                    emitter.send(SseEmitter.event().name("attempts").data(batch, MediaType.APPLICATION_JSON));
+                    delivered.add(batch.size());
+                    sends.increment();
+                } else if (heartbeatDue) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+                heartbeatDue = false;
+            } catch (IOException | IllegalStateException e) {
+                // client gone or emitter completed; the container reports the rest
+                close();
+                return;
+            } finally {
+                busy.set(false);
+            }
+
+            // changes that arrived while this send was running
+            if (!pending.isEmpty()) schedule();
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) return;
+
+            subscribers.decrementAndGet();
+            channels.computeIfPresent(examId, (k, watching) -> {
+                watching.remove(this);
+                return watching.isEmpty() ? null : watching;
+            });
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import io.micrometer.core.instrument.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the exam hot paths, scraped from
+ * /actuator/prometheus.
+ *
+ * Every timer is tagged outcome=success|error and publishes a percentile
+ * histogram, so p99 is computed in Prometheus (histogram_quantile) across
+ * instances instead of per instance. All meters are registered up front;
+ * the hot path only reads a field and records into it.
+ *
+ * Active attempts per exam come from one GROUP BY per refresh interval,
+ * not from a query per scrape. Connection pool meters (hikaricp.*) are
+ * published by {@link DbPoolMetrics}.
+ */
+@Component
+public class ExamMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamMetrics.class);
+
+    /** One timed operation: a success and an error timer. */
+    public static final class Op {
+
+        private final Timer success;
+        private final Timer error;
+
+        private Op(MeterRegistry registry, String name, String description, Duration max, String... tags) {
+            this.success = timer(registry, name, description, max, "success", tags);
+            this.error = timer(registry, name, description, max, "error", tags);
+        }
+
+        public <T> T record(Supplier<T> call) {
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (RuntimeException | Error e) {
+                error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+
+        public void run(Runnable call) {
+            long start = System.nanoTime();
+            try {
+                call.run();
+                success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (RuntimeException | Error e) {
+                error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+
+        /** For work that is timed by the caller anyway. */
+        public void record(long nanos, boolean ok) {
+            (ok ? success : error).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        private static Timer timer(MeterRegistry registry, String name, String description, Duration max,
+                                   String outcome, String... tags) {
+            return Timer.builder(name)
+                    .description(description)
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(max)
+                    .register(registry);
+        }
+    }
+
+    public final Op attemptStart;
+    public final Op autosave;
+    public final Op autosaveDelta;
+    public final Op submit;
+    public final Op dashboardOverview;
+    public final Op questionImport;
+    public final Op pdfRender;
+    public final Op proctoringIngest;
+
+    /** Submit → Result written, per attempt. */
+    public final Timer gradingLag;
+
+    public final Counter autosaveRejected;
+    public final Counter questionsImported;
+    public final Counter questionsFailed;
+    public final Counter proctoringAccepted;
+    public final Counter proctoringRejected;
+    public final Counter attemptsExpired;
+
+    private final ExamAttemptJdbcRepository attemptJdbcRepo;
+    private final MultiGauge activeAttempts;
+
+    public ExamMetrics(MeterRegistry registry, ExamAttemptJdbcRepository attemptJdbcRepo) {
+        this.attemptJdbcRepo = attemptJdbcRepo;
+
+        Duration request = Duration.ofSeconds(30);
+
+        attemptStart = new Op(registry, "exam.attempt.start", "Start or resume an attempt", request);
+        autosave = new Op(registry, "exam.autosave", "Autosave", request, "kind", "full");
+        autosaveDelta = new Op(registry, "exam.autosave", "Autosave", request, "kind", "delta");
+        submit = new Op(registry, "exam.submit", "Submit an attempt", request);
+        dashboardOverview = new Op(registry, "exam.dashboard.overview", "Admin dashboard overview", request);
+        questionImport = new Op(registry, "exam.question.import", "PDF question import job", Duration.ofHours(1));
+        pdfRender = new Op(registry, "exam.result.pdf.render", "Render one result statement", request);
+        proctoringIngest = new Op(registry, "exam.proctoring.ingest", "Proctoring event batch", request);
+
+        gradingLag = Timer.builder("exam.grading.lag")
+                .description("From submit until the result is written")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry);
+
+        autosaveRejected = Counter.builder("exam.autosave.rejected")
+                .description("Autosaves without an active attempt")
+                .register(registry);
+        questionsImported = Counter.builder("exam.question.import.questions")
+                .description("Questions from PDF imports")
+                .tag("result", "imported")
+                .register(registry);
+        questionsFailed = Counter.builder("exam.question.import.questions")
+                .description("Questions from PDF imports")
+                .tag("result", "failed")
+                .register(registry);
+        proctoringAccepted = Counter.builder("exam.proctoring.events")
+                .description("Proctoring events received")
+                .tag("result", "accepted")
+                .register(registry);
+        proctoringRejected = Counter.builder("exam.proctoring.events")
+                .description("Proctoring events received")
+                .tag("result", "rejected")
+                .register(registry);
+
+        attemptsExpired = Counter.builder("exam.attempts.expired")
+                .description("Attempts terminated by the expiry sweeper")
+                .register(registry);
+
+        activeAttempts = MultiGauge.builder("exam.attempts.active")
+                .description("ACTIVE attempts, per exam")
+                .register(registry);
+    }
+
+    /* ================= ACTIVE ATTEMPTS ================= */
+
+    @Scheduled(
+            initialDelayString = "${exam.metrics.active-attempts-refresh-ms:15000}",
+            fixedDelayString = "${exam.metrics.active-attempts-refresh-ms:15000}"
+    )
+    public void refreshActiveAttempts() {
+        try {
+            List<MultiGauge.Row<?>> rows = attemptJdbcRepo.countActiveByExam().entrySet().stream()
+                    .<MultiGauge.Row<?>>map(e -> MultiGauge.Row.of(Tags.of("exam", e.getKey().toString()), e.getValue()))
+                    .toList();
+            // exams without active attempts drop out of the scrape
+            activeAttempts.register(rows, true);
+        } catch (RuntimeException e) {
+            log.warn("Active attempt count failed", e);
+        }
+    }
+}
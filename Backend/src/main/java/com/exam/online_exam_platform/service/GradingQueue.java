@@ -0,0 +1,292 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.AttemptStatus;
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.entity.Result;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.UngradedAttempt;
+import com.exam.online_exam_platform.repository.ExamAttemptRepository;
+import com.exam.online_exam_platform.repository.ResultRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous grading.
+ *
+ * Submit only records the final answers and the attempt's submitted_at; the
+ * attempt id is queued here after commit. A fixed pool of workers drains the
+ * queue in batches and writes the Results in one transaction per batch.
+ *
+ * The queue itself is not durable: the source of truth is "submitted_at set,
+ * not ACTIVE, no result row". Startup and a periodic sweep re-queue whatever
+ * a restart, a full queue or a failed batch left behind.
+ */
+@Component
+public class GradingQueue implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GradingQueue.class);
+
+    private final ExamAttemptRepository attemptRepo;
+    private final ExamAttemptJdbcRepository attemptJdbcRepo;
+    private final ResultRepository resultRepo;
+    private final AttemptAnswerStore answerStore;
+    private final GradingService gradingService;
+    private final DashboardAggregates dashboardAggregates;
+    private final ExamMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+
+    private final BlockingQueue<Task> queue;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+
+    private final LongAdder graded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final AtomicInteger grading = new AtomicInteger();
+    private final AtomicLong lastLagMs = new AtomicLong();
+
+    public GradingQueue(
+            ExamAttemptRepository attemptRepo,
+            ExamAttemptJdbcRepository attemptJdbcRepo,
+            ResultRepository resultRepo,
+            AttemptAnswerStore answerStore,
+            GradingService gradingService,
+            DashboardAggregates dashboardAggregates,
+            ExamMetrics metrics,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.grading.async:false}") boolean enabled,
+            @Value("${exam.grading.workers:2}") int workers,
+            @Value("${exam.grading.batch-size:50}") int batchSize,
+            @Value("${exam.grading.queue-capacity:10000}") int capacity
+    ) {
+        this.attemptRepo = attemptRepo;
+        this.attemptJdbcRepo = attemptJdbcRepo;
+        this.resultRepo = resultRepo;
+        this.answerStore = answerStore;
+        this.gradingService = gradingService;
+        this.dashboardAggregates = dashboardAggregates;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, capacity));
+
+        AtomicInteger n = new AtomicInteger();
+        this.executor = enabled
+                ? Executors.newFixedThreadPool(this.workers, r -> {
+                    Thread t = new Thread(r, "grading-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                })
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /* ================= STARTUP ================= */
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+        recover();
+    }
+
+    /* ================= ENQUEUE ================= */
+
+    /**
+     * Queues a submitted attempt. Inside a transaction the attempt only
+     * becomes visible to workers after commit.
+     */
+    public void enqueue(Long attemptId, Instant submittedAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(attemptId, submittedAt);
+                }
+            });
+        } else {
+            offer(attemptId, submittedAt);
+        }
+    }
+
+    public boolean isQueued(Long attemptId) {
+        return queued.contains(attemptId);
+    }
+
+    private void offer(Long attemptId, Instant submittedAt) {
+        if (!queued.add(attemptId)) return;
+
+        if (!queue.offer(new Task(attemptId, submittedAt))) {
+            // full → stays ungraded in the DB, the next sweep picks it up
+            queued.remove(attemptId);
+            overflowed.increment();
+        }
+    }
+
+    /**
+     * Grades finished attempts right away, in the caller's transaction;
+     * for batches that must be graded when the queue is disabled.
+     */
+    public void gradeNow(List<Long> attemptIds) {
+        if (!attemptIds.isEmpty()) writeResults(attemptIds);
+    }
+
+    /* ================= RECOVERY ================= */
+
+    @Scheduled(
+            initialDelayString = "${exam.grading.recover-interval-ms:30000}",
+            fixedDelayString = "${exam.grading.recover-interval-ms:30000}"
+    )
+    public void recover() {
+        if (!enabled) return;
+
+        long lastId = 0;
+        while (queue.remainingCapacity() > 0) {
+            List<UngradedAttempt> page = attemptJdbcRepo.findUngraded(lastId, batchSize * workers);
+            if (page.isEmpty()) break;
+
+            for (UngradedAttempt u : page) {
+                if (queue.remainingCapacity() == 0) return;
+                offer(u.attemptId(), u.submittedAt());
+            }
+            lastId = page.get(page.size() - 1).attemptId();
+        }
+    }
+
+    /* ================= WORKERS ================= */
+
+    private void work() {
+        List<Task> batch = new ArrayList<>(batchSize);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+
+                grading.addAndGet(batch.size());
+                gradeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Grading worker error", e);
+            } finally {
+                grading.addAndGet(-batch.size());
+                for (Task t : batch) {
+                    queued.remove(t.attemptId());
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void gradeBatch(List<Task> batch) {
+        List<Long> ids = batch.stream().map(Task::attemptId).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> writeResults(ids));
+            graded.add(ids.size());
+            batch.forEach(this::recordLag);
+        } catch (RuntimeException e) {
+            // isolate the attempt that broke the batch
+            log.warn("Grading batch of {} failed, retrying one by one", ids.size(), e);
+            for (Task task : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> writeResults(List.of(task.attemptId())));
+                    graded.increment();
+                    recordLag(task);
+                } catch (RuntimeException single) {
+                    failed.increment();
+                    log.error("Grading attempt {} failed", task.attemptId(), single);
+                }
+            }
+        }
+
+        batches.increment();
+        Instant oldest = batch.get(0).submittedAt();
+        lastLagMs.set(Math.max(0, Duration.between(oldest, Instant.now()).toMillis()));
+    }
+
+    private void recordLag(Task task) {
+        metrics.gradingLag.record(Duration.between(task.submittedAt(), Instant.now()));
+    }
+
+    private void writeResults(List<Long> attemptIds) {
+        Set<Long> alreadyGraded = new HashSet<>(resultRepo.findGradedAttemptIds(attemptIds));
+
+        List<ExamAttempt> attempts = attemptRepo.findAllById(attemptIds)
+                .stream()
+                .filter(a -> a.getStatus() != AttemptStatus.ACTIVE)
+                .filter(a -> !alreadyGraded.contains(a.getId()))
+                .toList();
+
+        if (attempts.isEmpty()) return;
+
+        Map<Long, Map<String, String>> answers = answerStore.loadAll(attempts);
+
+        List<Result> results = new ArrayList<>(attempts.size());
+        for (ExamAttempt attempt : attempts) {
+            results.add(gradingService.grade(attempt, answers.get(attempt.getId())));
+        }
+
+        dashboardAggregates.record(resultRepo.saveAll(results));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // queued attempts stay ungraded in the DB and are recovered on startup
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        Task head = queue.peek();
+        long oldestWaitMs = head == null
+                ? 0
+                : Math.max(0, Duration.between(head.submittedAt(), Instant.now()).toMillis());
+
+        return Map.of(
+                "enabled", enabled,
+                "queueDepth", queue.size(),
+                "grading", grading.get(),
+                "oldestWaitMs", oldestWaitMs,
+                "lastBatchLagMs", lastLagMs.get(),
+                "graded", graded.sum(),
+                "failed", failed.sum(),
+                "batches", batches.sum(),
+                "overflowed", overflowed.sum()
+        );
+    }
+
+    private record Task(Long attemptId, Instant submittedAt) {}
+}
@@ -0,0 +1,55 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.entity.Result;
+import com.exam.online_exam_platform.util.AnswerKey;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Turns a finished attempt and its answers into a (not yet saved) Result.
+ * Shared by the synchronous submit path and the grading workers.
+ */
+@Service
+public class GradingService {
+
+    private final QuestionCache questionCache;
+
+    public GradingService(QuestionCache questionCache) {
+        this.questionCache = questionCache;
+    }
+
+    public Result grade(ExamAttempt attempt, Map<String, String> answers) {
+
+        AnswerKey key = questionCache.get(attempt.getExam().getId()).answerKey();
+        byte[] sheet = key.newSheet();
+        key.markAll(sheet, answers);
+
+        int totalQuestions = key.size();
+        int correct = key.grade(sheet);
+
+        int score = totalQuestions == 0
+                ? 0
+                : Math.round((correct * 100f) / totalQuestions);
+
+        Result result = new Result();
+        result.setStudentId(attempt.getStudent().getId());
+        result.setExamId(attempt.getExam().getId());
+        result.setExamAttemptId(attempt.getId());
+        result.setTotalQuestions(totalQuestions);
+        result.setCorrectAnswers(correct);
+        result.setScore(score);
+        result.setViolations(attempt.getViolations());
+        result.setSubmissionReason(attempt.getSubmissionReason());
+        result.setStatus(attempt.getStatus().name());
+
+        // UTC; the moment the student submitted, not when grading ran
+        result.setSubmittedAt(
+                attempt.getSubmittedAt() != null ? attempt.getSubmittedAt() : Instant.now()
+        );
+
+        return result;
+    }
+}
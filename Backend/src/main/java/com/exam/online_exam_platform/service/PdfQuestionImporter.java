@@ -0,0 +1,304 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.repository.ExamRepository;
+import com.exam.online_exam_platform.repository.QuestionJdbcRepository;
+import com.exam.online_exam_platform.util.PdfQuestionParser;
+import com.exam.online_exam_platform.util.PdfQuestionParser.ParseError;
+import com.exam.online_exam_platform.util.PdfQuestionParser.ParsedQuestion;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Question import from a PDF on disk, one page range at a time.
+ *
+ * Page ranges (pages-per-chunk pages each) are extracted in parallel on a
+ * dedicated fork-join pool; every worker reads its own PDDocument (opened
+ * with temp-file buffering), since a document must not be shared between
+ * threads. At most one range per worker is outstanding, and ranges are fed
+ * to the incremental parser strictly in page order, so a question may still
+ * straddle a page break. A malformed question is counted as failed (not
+ * parsed) and skipped; an import that ends with nothing imported throws.
+ *
+ * Valid questions are inserted in JDBC batches, each batch in its own
+ * transaction. A batch the database rejects is retried row by row so one
+ * bad question does not sink the rest. Batches committed before a cancel
+ * stay imported.
+ *
+ * The listener sees the running counts after every page range and batch.
+ */
+@Component
+public class PdfQuestionImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfQuestionImporter.class);
+
+    private static final int MAX_ERRORS = 50;
+
+    private final ExamRepository examRepository;
+    private final QuestionJdbcRepository questionJdbcRepository;
+    private final QuestionCache questionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int pagesPerChunk;
+    private final int batchSize;
+    private final ForkJoinPool extractPool;
+
+    public PdfQuestionImporter(
+            ExamRepository examRepository,
+            QuestionJdbcRepository questionJdbcRepository,
+            QuestionCache questionCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.question-import.pages-per-chunk:10}") int pagesPerChunk,
+            @Value("${exam.question-import.batch-size:500}") int batchSize,
+            @Value("${exam.question-import.extract-parallelism:2}") int extractParallelism
+    ) {
+        this.examRepository = examRepository;
+        this.questionJdbcRepository = questionJdbcRepository;
+        this.questionCache = questionCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pagesPerChunk = Math.max(1, pagesPerChunk);
+        this.batchSize = Math.max(1, batchSize);
+        this.extractPool = new ForkJoinPool(Math.max(1, extractParallelism));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        extractPool.shutdownNow();
+    }
+
+    /* ================= IMPORT ================= */
+
+    /**
+     * Runs the import, updating {@code progress} as it goes. Stops after the
+     * current page range once {@link Progress#cancel()} is called.
+     */
+    public Progress importPdf(Long examId, Path pdf, Progress progress, Consumer<Progress> listener) {
+        if (!examRepository.existsById(examId)) {
+            throw new RuntimeException("Exam not found");
+        }
+
+        List<ParsedQuestion> batch = new ArrayList<>(batchSize);
+
+        PdfQuestionParser.Session parser = new PdfQuestionParser.Session(new PdfQuestionParser.Listener() {
+            @Override
+            public void question(ParsedQuestion question) {
+                progress.parsed++;
+                batch.add(question);
+                if (batch.size() == batchSize) {
+                    flush(examId, batch, progress);
+                    listener.accept(progress);
+                }
+            }
+
+            @Override
+            public void error(ParseError error) {
+                progress.fail(error.toString());
+            }
+        });
+
+        try {
+            extractInOrder(pdf, progress, text -> {
+                parser.feed(text);
+                listener.accept(progress);
+            });
+
+            if (progress.cancelled) {
+                return progress;
+            }
+
+            parser.finish();
+            flush(examId, batch, progress);
+
+        } finally {
+            if (progress.imported > 0) questionCache.invalidate(examId);
+            progress.done = true;
+            listener.accept(progress);
+        }
+
+        if (progress.parsed == 0 && progress.failed == 0) {
+            throw new RuntimeException("No questions found in PDF");
+        }
+        if (progress.imported == 0) {
+            throw new RuntimeException("No questions imported, " + progress.failed + " failed");
+        }
+        return progress;
+    }
+
+    /* ================= PARALLEL EXTRACTION ================= */
+
+    private record Range(int end, CompletableFuture<String> text) {}
+
+    // hands each range's text to the consumer in page order
+    private void extractInOrder(Path pdf, Progress progress, Consumer<String> consumer) {
+        BlockingQueue<PDDocument> documents = null;
+        Deque<Range> window = new ArrayDeque<>();
+
+        try {
+            PDDocument first = open(pdf);
+            int pages = first.getNumberOfPages();
+            progress.pages = pages;
+
+            int ranges = (pages + pagesPerChunk - 1) / pagesPerChunk;
+            int workers = Math.max(1, Math.min(extractPool.getParallelism(), ranges));
+
+            documents = new ArrayBlockingQueue<>(workers);
+            documents.add(first);
+            for (int i = 1; i < workers; i++) {
+                documents.add(open(pdf));
+            }
+
+            int nextStart = 1;
+            while (!progress.cancelled && (nextStart <= pages || !window.isEmpty())) {
+                while (window.size() < workers && nextStart <= pages) {
+                    int start = nextStart;
+                    int end = Math.min(pages, start + pagesPerChunk - 1);
+                    BlockingQueue<PDDocument> pool = documents;
+
+                    window.add(new Range(end, CompletableFuture.supplyAsync(() -> extract(pool, start, end), extractPool)));
+                    nextStart = end + 1;
+                }
+
+                Range range = window.poll();
+                String text = range.text().join();
+                progress.pagesDone = range.end();
+                consumer.accept(text);
+            }
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read PDF file", e);
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to read PDF file", e.getCause());
+        } finally {
+            // documents go back to the pool when their range is done; close them after that
+            for (Range range : window) {
+                try {
+                    range.text().join();
+                } catch (RuntimeException ignored) {
+                }
+            }
+            if (documents != null) {
+                for (PDDocument document : documents) {
+                    try {
+                        document.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    private static PDDocument open(Path pdf) throws IOException {
+        return PDDocument.load(pdf.toFile(), MemoryUsageSetting.setupTempFileOnly());
+    }
+
+    private static String extract(BlockingQueue<PDDocument> documents, int start, int end) {
+        // never waits: there are as many documents as ranges in flight
+        PDDocument document = documents.poll();
+        if (document == null) throw new IllegalStateException("No free PDF document");
+
+        try {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(start);
+            stripper.setEndPage(end);
+            return stripper.getText(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            documents.add(document);
+        }
+    }
+
+    /* ================= INSERT ================= */
+
+    private void flush(Long examId, List<ParsedQuestion> batch, Progress progress) {
+        if (batch.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> questionJdbcRepository.batchInsert(examId, batch));
+            progress.imported += batch.size();
+        } catch (RuntimeException e) {
+            // isolate the rows the database rejects
+            log.warn("Question batch of {} failed for exam {}, retrying one by one", batch.size(), examId, e);
+            for (ParsedQuestion q : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> questionJdbcRepository.batchInsert(examId, List.of(q)));
+                    progress.imported++;
+                } catch (RuntimeException single) {
+                    progress.fail(new ParseError(q.number, q.line, "rejected by the database").toString());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    /* ================= PROGRESS ================= */
+
+    /** Written by the importing thread only (cancel aside); safe to read from others. */
+    public static final class Progress {
+
+        private volatile int pages;
+        private volatile int pagesDone;
+        private volatile long parsed;
+        private volatile long imported;
+        private volatile long failed;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private final List<String> errors = new ArrayList<>();
+
+        /** Asks the running import to stop after its current page range. */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        private void fail(String error) {
+            failed++;
+            synchronized (errors) {
+                if (errors.size() < MAX_ERRORS) errors.add(error);
+            }
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("pages", pages);
+            map.put("pagesDone", pagesDone);
+            map.put("parsed", parsed);
+            map.put("imported", imported);
+            map.put("failed", failed);
+            map.put("done", done);
+            map.put("cancelled", cancelled);
+            synchronized (errors) {
+                map.put("errors", List.copyOf(errors));
+            }
+            return map;
+        }
+    }
+}
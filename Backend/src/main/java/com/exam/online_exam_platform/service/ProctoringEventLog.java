@@ -0,0 +1,397 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.dto.ActiveAttemptRef;
+import com.exam.online_exam_platform.dto.ProctoringEventsRequest;
+import com.exam.online_exam_platform.entity.AttemptStatus;
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.entity.ProctoringEventType;
+import com.exam.online_exam_platform.entity.User;
+import com.exam.online_exam_platform.exception.EventBufferFullException;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.ViolationsRow;
+import com.exam.online_exam_platform.repository.ExamAttemptRepository;
+import com.exam.online_exam_platform.repository.ProctoringEventJdbcRepository;
+import com.exam.online_exam_platform.repository.ProctoringEventJdbcRepository.EventRow;
+import com.exam.online_exam_platform.repository.ProctoringEventJdbcRepository.EventView;
+import com.exam.online_exam_platform.util.RingBuffer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Proctoring events: request threads put them into a ring buffer, one
+ * writer appends them to proctoring_events in JDBC batches.
+ *
+ * A write also re-derives the violations of the attempts it had violations
+ * for and stores them on exam_attempts, so resume shows the current count.
+ * Submit writes that attempt's buffered events itself and counts once more,
+ * exactly; that is what the Result gets.
+ *
+ * A full buffer refuses the whole request (429); the page keeps its events
+ * and resends them. The attempt id behind (student, exam) is cached from
+ * start / resume, so ingest does not read exam_attempts.
+ *
+ * Changed counts go to the live feed once the write has committed.
+ */
+@Component
+public class ProctoringEventLog implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProctoringEventLog.class);
+
+    private static final int MAX_DETAIL = 200;
+
+    private final ExamAttemptRepository attemptRepo;
+    private final ExamAttemptJdbcRepository attemptJdbcRepo;
+    private final ProctoringEventJdbcRepository eventJdbcRepo;
+    private final ExamMetrics metrics;
+    private final ExamLiveFeed liveFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxEventsPerRequest;
+    private final long mergeWindowMs;
+
+    private final RingBuffer<EventRow> buffer;
+    private final Map<AttemptKey, ActiveAttempt> active = new ConcurrentHashMap<>();
+    // the other way round, for publishing counts of an attempt id
+    private final Map<Long, AttemptKey> keys = new ConcurrentHashMap<>();
+    private final ExecutorService writer;
+
+    // one writer at a time: the background loop or a submit's flush
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // drained but not written yet (a failed write); older than anything buffered
+    private final List<EventRow> unwritten = new ArrayList<>();
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private final AtomicLong lastWriteMs = new AtomicLong();
+
+    public ProctoringEventLog(
+            ExamAttemptRepository attemptRepo,
+            ExamAttemptJdbcRepository attemptJdbcRepo,
+            ProctoringEventJdbcRepository eventJdbcRepo,
+            ExamMetrics metrics,
+            ExamLiveFeed liveFeed,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.proctoring.buffer-capacity:65536}") int capacity,
+            @Value("${exam.proctoring.batch-size:1000}") int batchSize,
+            @Value("${exam.proctoring.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${exam.proctoring.max-events-per-request:200}") int maxEventsPerRequest,
+            @Value("${exam.proctoring.violation-merge-ms:800}") long mergeWindowMs
+    ) {
+        this.attemptRepo = attemptRepo;
+        this.attemptJdbcRepo = attemptJdbcRepo;
+        this.eventJdbcRepo = eventJdbcRepo;
+        this.metrics = metrics;
+        this.liveFeed = liveFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(10, flushIntervalMs);
+        this.maxEventsPerRequest = Math.max(1, maxEventsPerRequest);
+        this.mergeWindowMs = Math.max(0, mergeWindowMs);
+        this.buffer = new RingBuffer<>(capacity);
+
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "proctoring-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /* ================= STARTUP ================= */
+
+    @Override
+    public void run(ApplicationArguments args) {
+        writer.execute(this::writeLoop);
+    }
+
+    /* ================= ATTEMPTS ================= */
+
+    /** Called on start / resume of an ACTIVE attempt. */
+    public void track(ExamAttempt attempt) {
+        if (attempt.getStatus() != AttemptStatus.ACTIVE) return;
+
+        AttemptKey key = new AttemptKey(attempt.getStudent().getId(), attempt.getExam().getId());
+        active.put(key, new ActiveAttempt(attempt.getId(), attempt.getEndsAt()));
+        keys.put(attempt.getId(), key);
+    }
+
+    public void forget(Long studentId, Long examId) {
+        ActiveAttempt attempt = active.remove(new AttemptKey(studentId, examId));
+        if (attempt != null) keys.remove(attempt.attemptId());
+    }
+
+    private ActiveAttempt resolve(Long studentId, Long examId) {
+        AttemptKey key = new AttemptKey(studentId, examId);
+        ActiveAttempt attempt = active.get(key);
+
+        if (attempt == null) {
+            ActiveAttemptRef found = attemptRepo.findActiveRef(studentId, examId).orElse(null);
+
+            if (found == null) return null;
+
+            attempt = new ActiveAttempt(found.id(), found.endsAt());
+            active.put(key, attempt);
+            keys.put(attempt.attemptId(), key);
+        }
+
+        if (Instant.now().isAfter(attempt.endsAt())) {
+            if (active.remove(key, attempt)) keys.remove(attempt.attemptId());
+            return null;
+        }
+        return attempt;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        active.values().removeIf(a -> {
+            if (!now.isAfter(a.endsAt())) return false;
+            keys.remove(a.attemptId());
+            return true;
+        });
+    }
+
+    /* ================= INGEST ================= */
+
+    /**
+     * @return events accepted, or null if there is no active attempt
+     * @throws EventBufferFullException nothing was accepted, retry later
+     */
+    public Integer ingest(Long examId, User student, List<ProctoringEventsRequest.Event> events) {
+        if (events.size() > maxEventsPerRequest) {
+            throw new RuntimeException("At most " + maxEventsPerRequest + " events per request");
+        }
+
+        ActiveAttempt attempt = resolve(student.getId(), examId);
+        if (attempt == null) return null;
+
+        Instant now = Instant.now();
+        List<EventRow> rows = new ArrayList<>(events.size());
+
+        for (ProctoringEventsRequest.Event e : events) {
+            rows.add(new EventRow(
+                    attempt.attemptId(),
+                    type(e.getType()),
+                    // a clock running ahead cannot place events in the future
+                    e.getAt() == null || e.getAt() > now.toEpochMilli() ? now : Instant.ofEpochMilli(e.getAt()),
+                    now,
+                    detail(e.getDetail())
+            ));
+        }
+
+        if (!buffer.offerAll(rows)) {
+            metrics.proctoringRejected.increment(rows.size());
+            throw new EventBufferFullException(flushIntervalMs * 5);
+        }
+
+        metrics.proctoringAccepted.increment(rows.size());
+        return rows.size();
+    }
+
+    private static ProctoringEventType type(String name) {
+        if (name == null) throw new RuntimeException("Event type is required");
+        try {
+            return ProctoringEventType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown event type: " + name);
+        }
+    }
+
+    private static String detail(String detail) {
+        if (detail == null || detail.isBlank()) return null;
+        return detail.length() <= MAX_DETAIL ? detail : detail.substring(0, MAX_DETAIL);
+    }
+
+    /* ================= WRITE ================= */
+
+    private void writeLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                buffer.awaitSize(batchSize, flushIntervalMs, TimeUnit.MILLISECONDS);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Proctoring event write failed, {} events kept for the next try", unwrittenCount(), e);
+                try {
+                    Thread.sleep(flushIntervalMs * 5);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes everything buffered when called. Later events are left to the
+     * writer, so a busy buffer cannot keep the caller here.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            int remaining = buffer.size();
+
+            while (true) {
+                if (unwritten.isEmpty()) {
+                    if (remaining <= 0) return;
+                    remaining -= buffer.drainTo(unwritten, Math.min(batchSize, remaining));
+                    if (unwritten.isEmpty()) return;
+                }
+                write(unwritten);
+                unwritten.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the buffered events of one student's active attempt, leaving
+     * everyone else's to the writer. Waits for a write in progress, at most
+     * one batch, since that may hold some of them.
+     */
+    public void flush(Long studentId, Long examId) {
+        ActiveAttempt attempt = active.get(new AttemptKey(studentId, examId));
+        Long attemptId = attempt != null
+                ? attempt.attemptId()
+                : attemptRepo.findActiveRef(studentId, examId)
+                        .map(ActiveAttemptRef::id)
+                        .orElse(null);
+
+        if (attemptId == null) return;
+
+        List<EventRow> rows = new ArrayList<>();
+        List<EventRow> buffered = new ArrayList<>();
+        buffer.drainMatching(row -> attemptId.equals(row.attemptId()), buffered);
+
+        writeLock.lock();
+        try {
+            // left by a failed write; older than anything buffered
+            unwritten.removeIf(row -> attemptId.equals(row.attemptId()) && rows.add(row));
+        } finally {
+            writeLock.unlock();
+        }
+        rows.addAll(buffered);
+
+        if (rows.isEmpty()) return;
+
+        try {
+            write(rows);
+        } catch (RuntimeException e) {
+            writeLock.lock();
+            try {
+                unwritten.addAll(0, rows);
+            } finally {
+                writeLock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private int unwrittenCount() {
+        writeLock.lock();
+        try {
+            return unwritten.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(List<EventRow> rows) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                eventJdbcRepo.batchInsert(rows);
+
+                Set<Long> withViolations = new HashSet<>();
+                for (EventRow row : rows) {
+                    if (row.type().isViolation()) withViolations.add(row.attemptId());
+                }
+
+                List<ViolationsRow> counts = eventJdbcRepo.countViolations(withViolations, mergeWindowMs)
+                        .entrySet().stream()
+                        .map(e -> new ViolationsRow(e.getKey(), e.getValue()))
+                        // fixed lock order with the autosave flush
+                        .sorted(Comparator.comparing(ViolationsRow::attemptId))
+                        .toList();
+
+                int[] updated = attemptJdbcRepo.batchUpdateViolations(counts);
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] > 0) publish(counts.get(i));
+                }
+            });
+        } catch (RuntimeException e) {
+            writeFailures.increment();
+            throw e;
+        }
+
+        written.add(rows.size());
+        writes.increment();
+        lastWriteMs.set((System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void publish(ViolationsRow row) {
+        AttemptKey key = keys.get(row.attemptId());
+        if (key != null) {
+            liveFeed.publishViolations(key.examId(), key.studentId(), row.attemptId(), row.violations());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Proctoring events lost on shutdown: {}", buffer.size() + unwrittenCount(), e);
+        }
+    }
+
+    /* ================= READ ================= */
+
+    /** Derived from the event log; joins the caller's transaction. */
+    public int countViolations(Long attemptId) {
+        return eventJdbcRepo.countViolations(List.of(attemptId), mergeWindowMs).getOrDefault(attemptId, 0);
+    }
+
+    public List<EventView> events(Long attemptId, int limit) {
+        return eventJdbcRepo.findByAttempt(attemptId, limit);
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "buffered", buffer.size(),
+                "capacity", buffer.capacity(),
+                "written", written.sum(),
+                "writes", writes.sum(),
+                "writeFailures", writeFailures.sum(),
+                "lastWriteMs", lastWriteMs.get(),
+                "trackedAttempts", active.size()
+        );
+    }
+
+    private record AttemptKey(Long studentId, Long examId) {}
+
+    private record ActiveAttempt(Long attemptId, Instant endsAt) {}
+}
@@ -0,0 +1,159 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.dto.QuestionSnapshot;
+import com.exam.online_exam_platform.repository.QuestionRepository;
+import com.exam.online_exam_platform.util.AnswerKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded (LRU) per-exam cache of immutable question snapshots.
+ *
+ * Every set carries the version it was loaded at. A load that raced with an
+ * invalidation (version bumped after the load started) is served once but
+ * never cached. Concurrent misses for the same exam share one query.
+ * The compiled {@link AnswerKey} travels with the set, so it is rebuilt
+ * exactly when the questions are.
+ */
+@Component
+public class QuestionCache {
+
+    public record QuestionSet(Long examId, long version, List<QuestionSnapshot> questions, AnswerKey answerKey) {}
+
+    private final QuestionRepository questionRepo;
+    private final int maxExams;
+
+    private final Map<Long, QuestionSet> sets;
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<QuestionSet>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QuestionCache(
+            QuestionRepository questionRepo,
+            @Value("${exam.question-cache.max-exams:200}") int maxExams
+    ) {
+        this.questionRepo = questionRepo;
+        this.maxExams = Math.max(1, maxExams);
+        this.sets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, QuestionSet> eldest) {
+                return size() > QuestionCache.this.maxExams;
+            }
+        };
+    }
+
+    /* ================= READ ================= */
+
+    public QuestionSet get(Long examId) {
+        QuestionSet set;
+        synchronized (sets) {
+            set = sets.get(examId);
+        }
+        if (set != null) {
+            hits.increment();
+            return set;
+        }
+        misses.increment();
+
+        CompletableFuture<QuestionSet> mine = new CompletableFuture<>();
+        CompletableFuture<QuestionSet> inFlight = loading.putIfAbsent(examId, mine);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+
+        try {
+            QuestionSet loaded = load(examId);
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(examId, mine);
+        }
+    }
+
+    private QuestionSet load(Long examId) {
+        long version = clock.get();
+
+        List<QuestionSnapshot> questions = questionRepo.findByExamId(examId)
+                .stream()
+                .map(QuestionSnapshot::of)
+                .toList();
+
+        QuestionSet set = new QuestionSet(examId, version, questions, AnswerKey.compile(questions));
+
+        synchronized (sets) {
+            if (invalidatedAt.getOrDefault(examId, 0L) <= version) {
+                sets.put(examId, set);
+            }
+        }
+        return set;
+    }
+
+    /* ================= INVALIDATE ================= */
+
+    /**
+     * Drops the exam's set now and, inside a transaction, again after
+     * commit — so a reader cannot re-cache rows the writer has not committed.
+     */
+    public void invalidate(Long examId) {
+        evict(examId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(examId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long examId) {
+        synchronized (sets) {
+            invalidatedAt.put(examId, clock.incrementAndGet());
+            sets.remove(examId);
+        }
+        invalidations.increment();
+    }
+
+    /* ================= STATS ================= */
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (sets) {
+            size = sets.size();
+        }
+        return Map.of(
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "invalidations", invalidations.sum(),
+                "size", size,
+                "maxSize", maxExams,
+                "version", clock.get()
+        );
+    }
+}
@@ -0,0 +1,286 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.repository.ExamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PDF question imports as background jobs.
+ *
+ * The upload is spooled to disk and queued; the request returns the job id
+ * at once. max-concurrent-jobs imports run at a time (each one extracting
+ * pages in parallel, see {@link PdfQuestionImporter}); up to max-queued-jobs
+ * wait, anything beyond that is refused.
+ *
+ * Status can be polled, or streamed as NDJSON (one line per change, plus a
+ * heartbeat). A queued or running job can be cancelled. Finished jobs are
+ * kept for an hour.
+ */
+@Component
+public class QuestionImportJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionImportJobs.class);
+
+    private static final Duration KEEP_FINISHED = Duration.ofHours(1);
+    private static final long HEARTBEAT_MS = 15_000;
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private final ExamRepository examRepository;
+    private final PdfQuestionImporter importer;
+    private final ObjectMapper objectMapper;
+    private final ExamMetrics metrics;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public QuestionImportJobs(
+            ExamRepository examRepository,
+            PdfQuestionImporter importer,
+            ObjectMapper objectMapper,
+            ExamMetrics metrics,
+            @Value("${exam.question-import.max-concurrent-jobs:1}") int maxConcurrent,
+            @Value("${exam.question-import.max-queued-jobs:20}") int maxQueued
+    ) {
+        this.examRepository = examRepository;
+        this.importer = importer;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+
+        AtomicInteger n = new AtomicInteger();
+        int threads = Math.max(1, maxConcurrent);
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueued)),
+                r -> {
+                    Thread t = new Thread(r, "question-import-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+    }
+
+    /* ================= SUBMIT ================= */
+
+    public Map<String, Object> submit(Long examId, MultipartFile file) {
+        if (!examRepository.existsById(examId)) {
+            throw new RuntimeException("Exam not found");
+        }
+        pruneFinished();
+
+        Path pdf = spool(file);
+        Job job = new Job(UUID.randomUUID().toString(), examId, file.getOriginalFilename(), pdf);
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(pdf);
+            throw new RuntimeException("Too many imports queued, try again later");
+        }
+        return job.status();
+    }
+
+    // PDFBox needs random access; keep the upload on disk, not in the heap
+    private static Path spool(MultipartFile file) {
+        try {
+            Path pdf = Files.createTempFile("question-import-", ".pdf");
+            file.transferTo(pdf);
+            return pdf;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read PDF file", e);
+        }
+    }
+
+    /* ================= RUN ================= */
+
+    private void run(Job job) {
+        try {
+            if (job.progress.isCancelled()) return;
+
+            job.startedAt = Instant.now();
+            job.setStatus(Status.RUNNING);
+
+            metrics.questionImport.run(() -> importer.importPdf(job.examId, job.pdf, job.progress, p -> job.changed()));
+
+            job.setStatus(job.progress.isCancelled() ? Status.CANCELLED : Status.COMPLETED);
+        } catch (RuntimeException e) {
+            log.warn("Question import {} for exam {} failed", job.id, job.examId, e);
+            job.error = e.getMessage();
+            job.setStatus(Status.FAILED);
+        } finally {
+            job.finishedAt = Instant.now();
+            metrics.questionsImported.increment(job.progress.getImported());
+            metrics.questionsFailed.increment(job.progress.getFailed());
+            deleteQuietly(job.pdf);
+            job.changed();
+        }
+    }
+
+    /* ================= STATUS / CANCEL ================= */
+
+    public Map<String, Object> status(Long examId, String jobId) {
+        return find(examId, jobId).status();
+    }
+
+    public Map<String, Object> cancel(Long examId, String jobId) {
+        Job job = find(examId, jobId);
+        if (job.isFinished()) {
+            throw new RuntimeException("Import job already finished");
+        }
+
+        job.progress.cancel();
+        if (job.status == Status.QUEUED) {
+            job.setStatus(Status.CANCELLED);
+        }
+        job.changed();
+        return job.status();
+    }
+
+    /**
+     * Writes the job's status as one JSON line whenever it changes (and at
+     * least every 15s) until the job has finished.
+     */
+    public void streamStatus(Long examId, String jobId, OutputStream out) {
+        Job job = find(examId, jobId);
+        long seen = -1;
+
+        try {
+            while (true) {
+                long version = job.awaitChange(seen, HEARTBEAT_MS);
+                boolean finished = job.isFinished();
+
+                out.write(objectMapper.writeValueAsBytes(job.status()));
+                out.write('\n');
+                out.flush();
+
+                if (finished) return;
+                seen = version;
+            }
+        } catch (IOException e) {
+            // client went away; the job keeps running
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Job find(Long examId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.examId.equals(examId)) {
+            throw new RuntimeException("Import job not found");
+        }
+        return job;
+    }
+
+    private void pruneFinished() {
+        Instant cutoff = Instant.now().minus(KEEP_FINISHED);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(j -> j.progress.cancel());
+        executor.shutdownNow();
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "running", executor.getActiveCount(),
+                "queued", executor.getQueue().size(),
+                "tracked", jobs.size()
+        );
+    }
+
+    /* ================= JOB ================= */
+
+    private static final class Job {
+
+        final String id;
+        final Long examId;
+        final String fileName;
+        final Path pdf;
+        final Instant createdAt = Instant.now();
+        final PdfQuestionImporter.Progress progress = new PdfQuestionImporter.Progress();
+
+        volatile Status status = Status.QUEUED;
+        volatile String error;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+
+        // bumped on every change; status streams wait on it
+        private long version;
+
+        Job(String id, Long examId, String fileName, Path pdf) {
+            this.id = id;
+            this.examId = examId;
+            this.fileName = fileName;
+            this.pdf = pdf;
+        }
+
+        void setStatus(Status status) {
+            this.status = status;
+        }
+
+        boolean isFinished() {
+            return status != Status.QUEUED && status != Status.RUNNING;
+        }
+
+        synchronized void changed() {
+            version++;
+            notifyAll();
+        }
+
+        synchronized long awaitChange(long seen, long timeoutMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            while (version == seen && !isFinished()) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) break;
+                wait(left);
+            }
+            return version;
+        }
+
+        Map<String, Object> status() {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("jobId", id);
+            s.put("examId", examId);
+            s.put("fileName", fileName);
+            s.put("status", status);
+            s.put("error", error);
+            s.put("createdAt", createdAt);
+            s.put("startedAt", startedAt);
+            s.put("finishedAt", finishedAt);
+            s.putAll(progress.toMap());
+            return s;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.exam.online_exam_platform.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to the replica while it is reachable and its
+ * replay lag is within max-lag-ms, everything else to the primary.
+ *
+ * The decision is taken when a transaction runs its first statement, so the
+ * DataSource has to sit behind a LazyConnectionDataSourceProxy and Hibernate
+ * has to give the connection back after each transaction (see
+ * ReadReplicaConfig).
+ *
+ * The lag is sampled every check interval, so a read can see data up to
+ * max-lag + one interval old. A replica that fails to hand out a connection
+ * is taken out at once and comes back with the next good check.
+ *
+ * A standby whose WAL receiver is not streaming has replayed everything it
+ * received and would look current forever, so it counts as LAGGING until
+ * streaming resumes. The receiver status is only visible to roles with
+ * pg_read_all_stats; without it the replica is never used.
+ */
+public class ReplicaRouting implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRouting.class);
+
+    public enum State { UNKNOWN, UP, LAGGING, DOWN }
+
+    private static final String LAG_SQL = """
+            SELECT pg_is_in_recovery(),
+                   (SELECT status FROM pg_stat_wal_receiver),
+                   pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn(),
+                   COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            """;
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final long maxLagMs;
+    private final int checkTimeoutSeconds;
+
+    private final DataSource routingDataSource = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route();
+        }
+    };
+
+    private volatile State state = State.UNKNOWN;
+    private volatile long lagMs = -1;
+
+    private final LongAdder toReplica = new LongAdder();
+    private final LongAdder lagFallbacks = new LongAdder();
+    private final LongAdder downFallbacks = new LongAdder();
+
+    public ReplicaRouting(HikariDataSource primary, HikariDataSource replica,
+                          long maxLagMs, int checkTimeoutSeconds) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.checkTimeoutSeconds = Math.max(1, checkTimeoutSeconds);
+    }
+
+    /** Not lazy by itself; wrap it before handing it to JPA. */
+    public DataSource routingDataSource() {
+        return routingDataSource;
+    }
+
+    /* ================= ROUTE ================= */
+
+    private Connection route() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+
+        State s = state;
+        if (s != State.UP) {
+            // UNKNOWN (before the first check) counts as down
+            (s == State.LAGGING ? lagFallbacks : downFallbacks).increment();
+            return primary.getConnection();
+        }
+
+        try {
+            Connection con = replica.getConnection();
+            toReplica.increment();
+            return con;
+        } catch (SQLException e) {
+            changeState(State.DOWN, e);
+            downFallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    /* ================= LAG CHECK ================= */
+
+    @Scheduled(fixedDelayString = "${exam.replica.check-interval-ms:1000}")
+    public void checkLag() {
+        try (Connection con = replica.getConnection();
+             Statement st = con.createStatement()) {
+            st.setQueryTimeout(checkTimeoutSeconds);
+            try (ResultSet rs = st.executeQuery(LAG_SQL)) {
+                rs.next();
+                Check check = assess(rs.getBoolean(1), rs.getString(2), rs.getBoolean(3), rs.getLong(4), maxLagMs);
+                lagMs = check.lagMs();
+                changeState(check.state(), null);
+            }
+        } catch (SQLException | RuntimeException e) {
+            lagMs = -1;
+            changeState(State.DOWN, e);
+        }
+    }
+
+    record Check(State state, long lagMs) {}
+
+    static Check assess(boolean inRecovery, String receiverStatus, boolean replayedAll,
+                        long replayAgeMs, long maxLagMs) {
+        // not a standby (promoted, or the primary itself)
+        if (!inRecovery) return new Check(State.UP, 0);
+
+        // disconnected: receive = replay says nothing about the primary any more
+        if (!"streaming".equals(receiverStatus)) return new Check(State.LAGGING, replayAgeMs);
+
+        // everything streamed so far is applied, an idle primary is not lag
+        long lag = replayedAll ? 0 : replayAgeMs;
+        return new Check(lag <= maxLagMs ? State.UP : State.LAGGING, lag);
+    }
+
+    private synchronized void changeState(State next, Exception cause) {
+        State prev = state;
+        if (prev == next) return;
+        state = next;
+
+        switch (next) {
+            case UP -> log.info("Read replica in use (lag {} ms)", lagMs);
+            case LAGGING -> log.warn("Read replica {} ms behind (max {} ms) or not streaming, reads go to the primary",
+                    lagMs, maxLagMs);
+            case DOWN -> log.warn("Read replica unavailable, reads go to the primary: {}",
+                    cause == null ? "-" : cause.getMessage());
+            case UNKNOWN -> { }
+        }
+    }
+
+    /* ================= METRICS ================= */
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("exam.datasource.reads", toReplica, LongAdder::sum)
+                .description("Read-only transactions by target")
+                .tags("target", "replica", "reason", "ok")
+                .register(registry);
+        FunctionCounter.builder("exam.datasource.reads", lagFallbacks, LongAdder::sum)
+                .description("Read-only transactions by target")
+                .tags("target", "primary", "reason", "lag")
+                .register(registry);
+        FunctionCounter.builder("exam.datasource.reads", downFallbacks, LongAdder::sum)
+                .description("Read-only transactions by target")
+                .tags("target", "primary", "reason", "down")
+                .register(registry);
+
+        Gauge.builder("exam.datasource.replica.lag", this, r -> r.lagMs < 0 ? -1 : r.lagMs / 1000.0)
+                .description("Replica replay lag at the last check; -1 if the check failed")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("exam.datasource.replica.up", this, r -> r.state == State.UP ? 1 : 0)
+                .description("1 while read-only transactions go to the replica")
+                .register(registry);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("enabled", true);
+        s.put("state", state.name());
+        s.put("lagMs", lagMs);
+        s.put("maxLagMs", maxLagMs);
+        s.put("readsOnReplica", toReplica.sum());
+        s.put("readsOnPrimaryLag", lagFallbacks.sum());
+        s.put("readsOnPrimaryDown", downFallbacks.sum());
+        return s;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
@@ -0,0 +1,397 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.repository.ResultExportJdbcRepository;
+import com.exam.online_exam_platform.repository.ResultExportJdbcRepository.ResultPdfRow;
+import com.exam.online_exam_platform.util.ResultPdfGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Result statements for every result of an exam, as one ZIP.
+ *
+ * Rows are read in keyset chunks (no connection held while rendering), each
+ * PDF is rendered on a shared bounded pool, and entries are written to the
+ * response in completion order. Per bundle at most max-in-flight documents
+ * are queued or rendering, so memory stays at a few PDFs however large the
+ * exam is.
+ *
+ * A bundle takes one of the max-concurrent slots from {@link #start} (so the
+ * request can be refused before the download begins) until {@link #write}
+ * ends. If the container never runs the streaming body (async executor
+ * rejected it, request timed out first), the slot is reclaimed once the
+ * bundle has waited start-timeout-ms without being written.
+ *
+ * A bundle can be cancelled by id; a client disconnect cancels it too.
+ * The last ZIP entry, render-timings.csv, lists queue and render time per
+ * document; the rows are spooled to a temp file while the bundle runs.
+ */
+@Service
+public class ResultPdfBundleService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultPdfBundleService.class);
+
+    private static final int ROW_CHUNK = 200;
+    private static final int KEEP_FINISHED = 50;
+
+    private final ResultExportJdbcRepository exportRepository;
+    private final ExamMetrics metrics;
+    private final int maxInFlight;
+    private final int maxConcurrentBundles;
+    private final long startTimeoutMs;
+    private final ExecutorService renderPool;
+
+    private final Map<String, Bundle> running = new ConcurrentHashMap<>();
+
+    private final Map<String, Bundle> finished = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bundle> eldest) {
+                    return size() > KEEP_FINISHED;
+                }
+            }
+    );
+
+    public ResultPdfBundleService(
+            ResultExportJdbcRepository exportRepository,
+            ExamMetrics metrics,
+            @Value("${exam.pdf-bundle.render-threads:2}") int renderThreads,
+            @Value("${exam.pdf-bundle.max-in-flight:8}") int maxInFlight,
+            @Value("${exam.pdf-bundle.max-concurrent:2}") int maxConcurrentBundles,
+            @Value("${exam.pdf-bundle.start-timeout-ms:60000}") long startTimeoutMs
+    ) {
+        this.exportRepository = exportRepository;
+        this.metrics = metrics;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxConcurrentBundles = Math.max(1, maxConcurrentBundles);
+        this.startTimeoutMs = Math.max(0, startTimeoutMs);
+
+        AtomicInteger n = new AtomicInteger();
+        this.renderPool = Executors.newFixedThreadPool(Math.max(1, renderThreads), r -> {
+            Thread t = new Thread(r, "result-pdf-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /* ================= START ================= */
+
+    /**
+     * Registers a bundle for the exam; {@link #write} produces it.
+     */
+    public Bundle start(Long examId) {
+        synchronized (running) {
+            releaseUnclaimed();
+            if (running.size() >= maxConcurrentBundles) {
+                throw new RuntimeException("Too many PDF bundles in progress, try again later");
+            }
+            Bundle bundle = new Bundle(UUID.randomUUID().toString(), examId, exportRepository.countByExam(examId));
+            running.put(bundle.id, bundle);
+            return bundle;
+        }
+    }
+
+    // bundles whose write() never began; caller holds the running lock
+    private void releaseUnclaimed() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Bundle> it = running.values().iterator(); it.hasNext(); ) {
+            Bundle bundle = it.next();
+            if (bundle.claimed || now - bundle.startedAt < startTimeoutMs) continue;
+
+            it.remove();
+            bundle.cancel("ABANDONED");
+            bundle.finish("ABANDONED");
+            finished.put(bundle.id, bundle);
+            log.warn("PDF bundle {} for exam {} was never written, slot released", bundle.id, bundle.examId);
+        }
+    }
+
+    private boolean claim(Bundle bundle) {
+        synchronized (running) {
+            if (running.get(bundle.id) != bundle) return false;
+            bundle.claimed = true;
+            return true;
+        }
+    }
+
+    /* ================= WRITE ================= */
+
+    public void write(Bundle bundle, OutputStream out) {
+        if (!claim(bundle)) {
+            throw new RuntimeException("PDF bundle was not started in time, request a new one");
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // OpenPDF already compresses page content
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        CompletionService<Rendered> completion = new ExecutorCompletionService<>(renderPool);
+        Deque<ResultPdfRow> pending = new ArrayDeque<>(ROW_CHUNK);
+        long afterId = 0;
+        boolean exhausted = false;
+
+        try {
+            bundle.openTimings();
+
+            while (!bundle.cancelled) {
+                // keep the window full
+                while (bundle.inFlight.size() < maxInFlight) {
+                    if (pending.isEmpty() && !exhausted) {
+                        List<ResultPdfRow> chunk = exportRepository.findPdfRows(bundle.examId, afterId, ROW_CHUNK);
+                        pending.addAll(chunk);
+                        exhausted = chunk.size() < ROW_CHUNK;
+                        if (!chunk.isEmpty()) afterId = chunk.get(chunk.size() - 1).resultId();
+                    }
+                    if (pending.isEmpty()) break;
+
+                    ResultPdfRow row = pending.poll();
+                    long queuedAt = System.nanoTime();
+                    bundle.inFlight.add(completion.submit(() -> render(row, queuedAt)));
+                }
+                if (bundle.inFlight.isEmpty()) break;
+
+                Future<Rendered> done = completion.take();
+                bundle.inFlight.remove(done);
+                if (done.isCancelled()) continue;
+
+                writeEntry(zip, bundle, done.get());
+            }
+
+            bundle.finish(bundle.cancelled ? "CANCELLED" : "COMPLETED");
+            writeTimings(zip, bundle);
+            zip.finish();
+            zip.flush();
+
+        } catch (IOException e) {
+            // client went away
+            bundle.cancel("ABORTED");
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            bundle.cancel("ABORTED");
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("PDF bundle interrupted", e);
+        } catch (ExecutionException | RuntimeException e) {
+            bundle.cancel("FAILED");
+            throw new RuntimeException("PDF bundle failed", e);
+        } finally {
+            bundle.inFlight.forEach(f -> f.cancel(true));
+            bundle.closeTimings();
+            running.remove(bundle.id);
+            finished.put(bundle.id, bundle);
+            log.info("PDF bundle {} for exam {}: {} written, {} failed, {}",
+                    bundle.id, bundle.examId, bundle.written, bundle.failed, bundle.status);
+        }
+    }
+
+    private Rendered render(ResultPdfRow row, long queuedAt) {
+        long started = System.nanoTime();
+        try {
+            byte[] pdf = ResultPdfGenerator.generate(row.pdf());
+            long took = System.nanoTime() - started;
+            metrics.pdfRender.record(took, true);
+            return new Rendered(row, pdf, started - queuedAt, took, null);
+        } catch (RuntimeException e) {
+            long took = System.nanoTime() - started;
+            metrics.pdfRender.record(took, false);
+            return new Rendered(row, null, started - queuedAt, took, e);
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, Bundle bundle, Rendered r) throws IOException {
+        String name = entryName(r.row());
+
+        if (r.error() != null) {
+            log.warn("Result PDF {} failed", r.row().resultId(), r.error());
+            bundle.record(r, name, 0);
+            return;
+        }
+
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(r.pdf());
+        zip.closeEntry();
+        zip.flush();
+
+        bundle.record(r, name, r.pdf().length);
+    }
+
+    private void writeTimings(ZipOutputStream zip, Bundle bundle) throws IOException {
+        zip.putNextEntry(new ZipEntry("render-timings.csv"));
+        zip.write(("# status=" + bundle.status + "\n").getBytes(StandardCharsets.UTF_8));
+        zip.write("result_id,student_id,file,bytes,queue_ms,render_ms,error\n".getBytes(StandardCharsets.UTF_8));
+        bundle.timings.flush();
+        Files.copy(bundle.timingsFile, zip);
+        zip.closeEntry();
+    }
+
+    // 12-result-34-Jane_Doe.pdf
+    private static String entryName(ResultPdfRow row) {
+        String student = row.pdf().getStudentName() == null
+                ? "student"
+                : row.pdf().getStudentName().replaceAll("[^A-Za-z0-9._-]+", "_");
+        return row.studentId() + "-result-" + row.resultId() + "-" + student + ".pdf";
+    }
+
+    /* ================= CANCEL / STATUS ================= */
+
+    public Map<String, Object> cancel(String bundleId) {
+        Bundle bundle = running.get(bundleId);
+        if (bundle == null) throw new RuntimeException("PDF bundle not running");
+
+        bundle.cancel("CANCELLED");
+        return bundle.status();
+    }
+
+    public Map<String, Object> status(String bundleId) {
+        Bundle bundle = running.get(bundleId);
+        if (bundle == null) bundle = finished.get(bundleId);
+        if (bundle == null) throw new RuntimeException("PDF bundle not found");
+
+        return bundle.status();
+    }
+
+    public Map<String, Object> stats() {
+        List<Map<String, Object>> active = running.values().stream().map(Bundle::status).toList();
+        return Map.of(
+                "running", active,
+                "maxConcurrent", maxConcurrentBundles,
+                "maxInFlightPerBundle", maxInFlight,
+                "startTimeoutMs", startTimeoutMs
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    /* ================= BUNDLE ================= */
+
+    private record Rendered(ResultPdfRow row, byte[] pdf, long queueNanos, long renderNanos, Exception error) {}
+
+    public static final class Bundle {
+
+        private final String id;
+        private final Long examId;
+        private final long total;
+        private final long startedAt = System.currentTimeMillis();
+
+        private final Set<Future<Rendered>> inFlight = ConcurrentHashMap.newKeySet();
+        private volatile boolean claimed;
+        private volatile boolean cancelled;
+        private volatile String status = "RUNNING";
+        private volatile long finishedAt;
+
+        // written by the request thread only, read by status()
+        private volatile long written;
+        private volatile long failed;
+        private volatile long renderNanosTotal;
+        private volatile long renderNanosMax;
+        private volatile Long slowestResultId;
+        private Path timingsFile;
+        private BufferedWriter timings;
+
+        private Bundle(String id, Long examId, long total) {
+            this.id = id;
+            this.examId = examId;
+            this.total = total;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        private void openTimings() {
+            try {
+                timingsFile = Files.createTempFile("pdf-bundle-" + id + "-", ".csv");
+                timings = Files.newBufferedWriter(timingsFile, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create render timings file", e);
+            }
+        }
+
+        private void closeTimings() {
+            if (timingsFile == null) return;
+            try {
+                timings.close();
+            } catch (IOException ignored) {
+            }
+            try {
+                Files.deleteIfExists(timingsFile);
+            } catch (IOException e) {
+                log.warn("Could not delete {}", timingsFile, e);
+            }
+        }
+
+        private void record(Rendered r, String name, int bytes) throws IOException {
+            if (r.error() == null) written++;
+            else failed++;
+
+            renderNanosTotal += r.renderNanos();
+            if (r.renderNanos() > renderNanosMax) {
+                renderNanosMax = r.renderNanos();
+                slowestResultId = r.row().resultId();
+            }
+
+            timings.append(String.valueOf(r.row().resultId())).append(',')
+                    .append(String.valueOf(r.row().studentId())).append(',')
+                    .append(name).append(',')
+                    .append(String.valueOf(bytes)).append(',')
+                    .append(String.valueOf(millis(r.queueNanos()))).append(',')
+                    .append(String.valueOf(millis(r.renderNanos()))).append(',')
+                    .append(r.error() == null ? "" : r.error().getClass().getSimpleName())
+                    .append('\n');
+        }
+
+        private void cancel(String reason) {
+            if (!cancelled) {
+                cancelled = true;
+                status = reason;
+            }
+            inFlight.forEach(f -> f.cancel(true));
+        }
+
+        private void finish(String finalStatus) {
+            if (!cancelled) status = finalStatus;
+            finishedAt = System.currentTimeMillis();
+        }
+
+        private Map<String, Object> status() {
+            long done = written + failed;
+            long end = finishedAt == 0 ? System.currentTimeMillis() : finishedAt;
+
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("bundleId", id);
+            s.put("examId", examId);
+            s.put("status", status);
+            s.put("total", total);
+            s.put("written", written);
+            s.put("failed", failed);
+            s.put("inFlight", inFlight.size());
+            s.put("elapsedMs", end - startedAt);
+            s.put("avgRenderMs", done == 0 ? 0.0 : millis(renderNanosTotal / done));
+            s.put("maxRenderMs", millis(renderNanosMax));
+            s.put("slowestResultId", slowestResultId);
+            return s;
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+}
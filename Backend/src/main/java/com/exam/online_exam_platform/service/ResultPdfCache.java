@@ -0,0 +1,297 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.dto.ResultPdfDTO;
+import com.exam.online_exam_platform.util.ResultPdfGenerator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded on-disk cache of rendered result statements.
+ *
+ * Results never change after submit, so a statement only needs rendering
+ * once per template version. The key also carries a fingerprint of the
+ * printed fields, so renaming a student or an exam yields a new file rather
+ * than a stale one (the old file ages out of the LRU).
+ *
+ * A miss renders straight into the response and, at the same time, into a
+ * temp file that is moved into place when complete. A hit is handed to the
+ * container as a file (Tomcat sendfile), or copied with
+ * {@link FileChannel#transferTo} where that is not available.
+ */
+@Component
+public class ResultPdfCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultPdfCache.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path dir;
+    private final long maxBytes;
+    private final ExamMetrics metrics;
+
+    // file name → size, least recently served first
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResultPdfCache(
+            @Value("${exam.pdf-cache.dir:${java.io.tmpdir}/exam-result-pdf}") String dir,
+            @Value("${exam.pdf-cache.max-bytes:268435456}") long maxBytes,
+            ExamMetrics metrics
+    ) {
+        this.dir = Path.of(dir).toAbsolutePath();
+        this.maxBytes = Math.max(0, maxBytes);
+        this.metrics = metrics;
+
+        if (this.maxBytes > 0) loadIndex();
+    }
+
+    /* ================= SERVE ================= */
+
+    public void serve(Long resultId, ResultPdfDTO dto, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader("Content-Disposition", "attachment; filename=result-" + resultId + ".pdf");
+
+        if (maxBytes == 0) {
+            OutputStream out = response.getOutputStream();
+            metrics.pdfRender.run(() -> ResultPdfGenerator.generate(dto, out));
+            return;
+        }
+
+        String name = fileName(resultId, dto);
+        Path file = dir.resolve(name);
+
+        if (isCached(name) && Files.isReadable(file)) {
+            hits.increment();
+            sendFile(file, request, response);
+            return;
+        }
+        misses.increment();
+
+        renderAndStore(dto, name, file, response.getOutputStream());
+    }
+
+    // r123-t1-9f3a0c1e.pdf
+    private static String fileName(Long resultId, ResultPdfDTO dto) {
+        return "r" + resultId
+                + "-t" + ResultPdfGenerator.TEMPLATE_VERSION
+                + "-" + ResultPdfGenerator.fingerprint(dto)
+                + ".pdf";
+    }
+
+    private void sendFile(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = Files.size(file);
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // the connector writes the file itself once this request returns
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long sent = 0;
+            while (sent < size) {
+                sent += in.transferTo(sent, size - sent, out);
+            }
+        }
+    }
+
+    private void renderAndStore(ResultPdfDTO dto, String name, Path file, OutputStream client) throws IOException {
+        Path temp = null;
+        OutputStream disk = OutputStream.nullOutputStream();
+        try {
+            Files.createDirectories(dir);
+            temp = Files.createTempFile(dir, "render-", ".tmp");
+            disk = openTemp(temp);
+        } catch (IOException e) {
+            log.warn("Result PDF cache not writable, serving uncached", e);
+        }
+
+        Tee tee = new Tee(client, disk);
+        try {
+            metrics.pdfRender.run(() -> ResultPdfGenerator.generate(dto, tee));
+            try {
+                disk.close();
+            } catch (IOException e) {
+                tee.diskFailed = true;
+            }
+
+            if (temp != null && !tee.diskFailed) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                temp = null;
+                add(name, Files.size(file));
+            }
+        } finally {
+            if (temp != null) {
+                try {
+                    disk.close();
+                } catch (IOException ignored) {
+                }
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    OutputStream openTemp(Path temp) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(temp), 16 * 1024);
+    }
+
+    /* ================= INDEX ================= */
+
+    private boolean isCached(String name) {
+        synchronized (index) {
+            return index.get(name) != null;
+        }
+    }
+
+    private void add(String name, long size) {
+        List<String> evicted = new ArrayList<>();
+
+        synchronized (index) {
+            Long previous = index.put(name, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+
+            Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (eldest.getKey().equals(name)) continue;
+
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+
+        for (String old : evicted) {
+            evictions.increment();
+            try {
+                Files.deleteIfExists(dir.resolve(old));
+            } catch (IOException e) {
+                log.warn("Could not delete cached PDF {}", old, e);
+            }
+        }
+    }
+
+    // survives restarts: re-index what is on disk, oldest first
+    private void loadIndex() {
+        if (!Files.isDirectory(dir)) return;
+
+        record Cached(Path path, long size, long modified) {}
+
+        List<Cached> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) paths::iterator) {
+                String name = p.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(p);
+                } else if (name.endsWith(".pdf")) {
+                    BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+                    files.add(new Cached(p, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not index result PDF cache at {}", dir, e);
+            return;
+        }
+
+        files.sort(Comparator.comparingLong(Cached::modified));
+        for (Cached c : files) {
+            add(c.path().getFileName().toString(), c.size());
+        }
+        log.info("Result PDF cache: {} files, {} bytes in {}", index.size(), totalBytes, dir);
+    }
+
+    /* ================= STATS ================= */
+
+    public Map<String, Object> stats() {
+        synchronized (index) {
+            return Map.of(
+                    "hits", hits.sum(),
+                    "misses", misses.sum(),
+                    "evictions", evictions.sum(),
+                    "files", index.size(),
+                    "bytes", totalBytes,
+                    "maxBytes", maxBytes,
+                    "templateVersion", ResultPdfGenerator.TEMPLATE_VERSION
+            );
+        }
+    }
+
+    /* ================= TEE ================= */
+
+    // the client always gets every byte; a failing disk only loses the cache entry
+    private static final class Tee extends OutputStream {
+
+        private final OutputStream client;
+        private final OutputStream disk;
+        boolean diskFailed;
+
+        Tee(OutputStream client, OutputStream disk) {
+            this.client = client;
+            this.disk = disk;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            client.write(b);
+            if (!diskFailed) {
+                try {
+                    disk.write(b);
+                } catch (IOException e) {
+                    diskFailed = true;
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            client.write(b, off, len);
+            if (!diskFailed) {
+                try {
+                    disk.write(b, off, len);
+                } catch (IOException e) {
+                    diskFailed = true;
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            client.flush();
+            if (!diskFailed) {
+                try {
+                    disk.flush();
+                } catch (IOException e) {
+                    diskFailed = true;
+                }
+            }
+        }
+    }
+}
@@ -3,13 +3,17 @@ package com.exam.online_exam_platform.service;
 import com.exam.online_exam_platform.dto.*;
 import com.exam.online_exam_platform.entity.*;
 import com.exam.online_exam_platform.repository.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,22 +21,46 @@ public class StudentExamService {
 
     private final ExamRepository examRepo;
     private final ExamAttemptRepository attemptRepo;
-    private final QuestionRepository questionRepo;
+    private final QuestionCache questionCache;
     private final ResultRepository resultRepo;
-    private final ObjectMapper objectMapper;
+    private final AttemptAnswerStore answerStore;
+    private final AutosaveBuffer autosaveBuffer;
+    private final GradingService gradingService;
+    private final GradingQueue gradingQueue;
+    private final DashboardAggregates dashboardAggregates;
+    private final ProctoringEventLog proctoringEvents;
+    private final ExamLiveFeed liveFeed;
+    private final AttemptExpirySweeper expirySweeper;
+    private final TransactionTemplate transactionTemplate;
 
     public StudentExamService(
             ExamRepository examRepo,
             ExamAttemptRepository attemptRepo,
-            QuestionRepository questionRepo,
+            QuestionCache questionCache,
             ResultRepository resultRepo,
-            ObjectMapper objectMapper
+            AttemptAnswerStore answerStore,
+            AutosaveBuffer autosaveBuffer,
+            GradingService gradingService,
+            GradingQueue gradingQueue,
+            DashboardAggregates dashboardAggregates,
+            ProctoringEventLog proctoringEvents,
+            ExamLiveFeed liveFeed,
+            AttemptExpirySweeper expirySweeper,
+            PlatformTransactionManager transactionManager
     ) {
         this.examRepo = examRepo;
         this.attemptRepo = attemptRepo;
-        this.questionRepo = questionRepo;
+        this.questionCache = questionCache;
         this.resultRepo = resultRepo;
-        this.objectMapper = objectMapper;
+        this.answerStore = answerStore;
+        this.autosaveBuffer = autosaveBuffer;
+        this.gradingService = gradingService;
+        this.gradingQueue = gradingQueue;
+        this.dashboardAggregates = dashboardAggregates;
+        this.proctoringEvents = proctoringEvents;
+        this.liveFeed = liveFeed;
+        this.expirySweeper = expirySweeper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /* ================= STUDENT DASHBOARD ================= */
@@ -96,32 +124,30 @@ public class StudentExamService {
 
     /* ================= EXAMS LIST ================= */
     public List<StudentExamDTO> getAllExamsForStudent(User student) {
+        return examRepo.findCatalogForStudent(student.getId());
+    }
 
-        return examRepo.findAll().stream().map(exam -> {
-
-            AttemptStatus status = attemptRepo
-                    .findByStudentAndExam(student, exam)
-                    .map(ExamAttempt::getStatus)
-                    .orElse(null);
-
-            return new StudentExamDTO(
-                    exam.getId(),
-                    exam.getTitle(),
-                    exam.getDurationMinutes(),
-                    status
-            );
-        }).toList();
+    public Page<StudentExamDTO> getExamsForStudent(User student, Long courseId, int page, int size) {
+        return examRepo.findCatalogForStudent(
+                student.getId(),
+                courseId,
+                PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), 100))
+        );
     }
 
     /* ================= START / RESUME ================= */
     @Transactional
     public Map<String, Object> startOrResume(Long examId, User student) {
 
+        // resume must see answers that are still buffered
+        autosaveBuffer.flush(student.getId(), examId);
+
         Exam exam = examRepo.findById(examId)
                 .orElseThrow(() -> new RuntimeException("Exam not found"));
 
         Optional<ExamAttempt> opt = attemptRepo.findByStudentAndExam(student, exam);
         ExamAttempt attempt;
+        Map<String, String> answers;
 
         if (opt.isPresent()) {
             attempt = opt.get();
@@ -135,8 +161,7 @@ public class StudentExamService {
             }
 
             if (attempt.isExpired()) {
-                attempt.setStatus(AttemptStatus.TERMINATED);
-                attemptRepo.save(attempt);
+                expire(attempt, student);
 
                 return Map.of(
                         "status", AttemptStatus.TERMINATED,
@@ -145,6 +170,9 @@ public class StudentExamService {
                 );
             }
 
+            answers = answerStore.load(attempt);
+            liveFeed.publish(attempt, student, ExamLiveFeed.Change.RESUMED);
+
         } else {
             attempt = new ExamAttempt();
             attempt.setStudent(student);
@@ -155,10 +183,16 @@ public class StudentExamService {
             );
             attempt.setStatus(AttemptStatus.ACTIVE);
             attempt.setViolations(0);
-            attempt.setAnswersJson("{}");
             attemptRepo.save(attempt);
+            expirySweeper.track(attempt);
+            liveFeed.publish(attempt, student, ExamLiveFeed.Change.STARTED);
+
+            answers = Map.of();
         }
 
+        autosaveBuffer.track(attempt, answers);
+        proctoringEvents.track(attempt);
+
         return Map.of(
                 "status", attempt.getStatus(),
                 "examId", exam.getId(),
@@ -166,49 +200,124 @@ public class StudentExamService {
                 "durationMinutes", exam.getDurationMinutes(),
                 "endsAt", attempt.getEndsAt(),
                 "violations", attempt.getViolations(),
-                "answersJson", attempt.getAnswersJson(),
-                "questions", questionRepo.findByExam(exam)
+                "answersJson", answerStore.toJson(answers),
+                "autosaveSeq", attempt.getAutosaveSeq(),
+                "questions", questionCache.get(exam.getId()).questions()
         );
     }
 
     /* ================= AUTOSAVE ================= */
-    @Transactional
-    public void autosave(Long examId, User student, String answers, int violations) {
+    // not @Transactional: buffered saves must not take a pooled connection
+    public void autosave(Long examId, User student, String answersJson) {
+
+        Map<String, String> answers = answerStore.parse(answersJson);
+
+        if (autosaveBuffer.record(student.getId(), examId, answers)) {
+            liveFeed.publish(examId, student, ExamLiveFeed.Change.AUTOSAVED);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(tx ->
+                saveProgress(examId, student, answers)
+        );
+    }
+
+    private void saveProgress(Long examId, User student, Map<String, String> answers) {
 
         Exam exam = examRepo.findById(examId).orElseThrow();
 
-        ExamAttempt attempt = attemptRepo
-                .findByStudentAndExamAndStatus(student, exam, AttemptStatus.ACTIVE)
-                .orElse(null);
+        // locked: same lock order as the buffer flush and submit
+        ExamAttempt attempt = attemptRepo.findForUpdate(student, exam).orElse(null);
 
-        if (attempt == null) return;
+        if (attempt == null || attempt.getStatus() != AttemptStatus.ACTIVE) return;
 
         if (attempt.isExpired()) {
-            attempt.setStatus(AttemptStatus.TERMINATED);
-            attemptRepo.save(attempt);
+            expire(attempt, student);
             return;
         }
 
-        attempt.setAnswersJson(answers);
-        attempt.setViolations(Math.max(attempt.getViolations(), violations));
+        answerStore.replace(attempt, answers);
+        attempt.setWriteGen(attempt.getWriteGen() + 1);
         attemptRepo.save(attempt);
+        liveFeed.publish(attempt, student, ExamLiveFeed.Change.AUTOSAVED);
+    }
+
+    /* ================= DELTA AUTOSAVE ================= */
+    // returns the last sequence applied, or null when there is no active attempt
+    public Long autosaveDelta(Long examId, User student, Map<String, String> changes, long seq) {
+
+        Long applied = autosaveBuffer.recordDelta(student.getId(), examId, changes, seq);
+        if (applied != null) {
+            liveFeed.publish(examId, student, ExamLiveFeed.Change.AUTOSAVED);
+            return applied;
+        }
+
+        return transactionTemplate.execute(tx ->
+                saveDelta(examId, student, changes, seq)
+        );
+    }
+
+    private Long saveDelta(Long examId, User student, Map<String, String> changes, long seq) {
+
+        Exam exam = examRepo.findById(examId).orElseThrow();
+
+        // locked: concurrent deltas must not lose each other's answers
+        ExamAttempt attempt = attemptRepo.findForUpdate(student, exam).orElse(null);
+
+        if (attempt == null || attempt.getStatus() != AttemptStatus.ACTIVE) return null;
+
+        if (attempt.isExpired()) {
+            expire(attempt, student);
+            return null;
+        }
+
+        // stale / duplicate deltas are ignored
+        if (seq <= attempt.getAutosaveSeq()) return attempt.getAutosaveSeq();
+
+        answerStore.write(attempt, changes);
+        attempt.setAutosaveSeq(seq);
+        attempt.setWriteGen(attempt.getWriteGen() + 1);
+        attemptRepo.save(attempt);
+        liveFeed.publish(attempt, student, ExamLiveFeed.Change.AUTOSAVED);
+        return seq;
+    }
+
+    /* ================= PROCTORING EVENTS ================= */
+    // null when there is no active attempt
+    public Integer recordProctoringEvents(Long examId, User student,
+                                          List<ProctoringEventsRequest.Event> events) {
+        return proctoringEvents.ingest(examId, student, events);
     }
 
     /* ================= SUBMIT ================= */
-    @Transactional
-    public void submit(Long examId, User student, String answers, int violations, String reason) {
+    // not @Transactional: the attempt's buffered proctoring events are written (and committed) first
+    public void submit(Long examId, User student, String answers, String reason) {
+
+        proctoringEvents.flush(student.getId(), examId);
+
+        transactionTemplate.executeWithoutResult(tx ->
+                submitAttempt(examId, student, answers, reason)
+        );
+
+        proctoringEvents.forget(student.getId(), examId);
+    }
+
+    private void submitAttempt(Long examId, User student, String answers, String reason) {
+
+        autosaveBuffer.flush(student.getId(), examId);
 
         Exam exam = examRepo.findById(examId)
                 .orElseThrow(() -> new RuntimeException("Exam not found"));
 
         ExamAttempt attempt = attemptRepo
-                .findByStudentAndExam(student, exam)
+                .findForUpdate(student, exam)
                 .orElseThrow(() -> new RuntimeException("Attempt not found"));
 
         if (attempt.getStatus() != AttemptStatus.ACTIVE) return;
 
-        attempt.setAnswersJson(answers);
-        attempt.setViolations(Math.max(attempt.getViolations(), violations));
+        Map<String, String> submitted = answerStore.parse(answers);
+        answerStore.replace(attempt, submitted);
+        attempt.setViolations(proctoringEvents.countViolations(attempt.getId()));
 
         if (attempt.getSubmissionReason() == null) {
             attempt.setSubmissionReason(reason);
@@ -220,46 +329,80 @@ public class StudentExamService {
                         : AttemptStatus.SUBMITTED
         );
 
+        attempt.setSubmittedAt(Instant.now());
+
         attemptRepo.save(attempt);
 
+        // anything but a manual submit in time was cut short
+        boolean manual = attempt.getStatus() == AttemptStatus.SUBMITTED
+                && (attempt.getSubmissionReason() == null || "MANUAL_SUBMIT".equals(attempt.getSubmissionReason()));
+        liveFeed.publish(attempt, student, manual ? ExamLiveFeed.Change.SUBMITTED : ExamLiveFeed.Change.TERMINATED);
+
+        // stored answers now equal the submitted ones → grade those
+        grade(attempt, () -> submitted);
+    }
+
+    /* ================= EXPIRY ================= */
+    // found past endsAt by the student's own request; the sweeper does the same in batches
+    private void expire(ExamAttempt attempt, User student) {
+
+        attempt.setStatus(AttemptStatus.TERMINATED);
+
+        if (attempt.getSubmissionReason() == null) {
+            attempt.setSubmissionReason("TIME_EXPIRED");
+        }
+
+        attempt.setSubmittedAt(Instant.now());
+
+        // exact, like submit; events stop being accepted at endsAt
+        attempt.setViolations(proctoringEvents.countViolations(attempt.getId()));
+
+        attemptRepo.save(attempt);
+        liveFeed.publish(attempt, student, ExamLiveFeed.Change.TERMINATED);
+
+        grade(attempt, () -> answerStore.load(attempt));
+    }
+
+    private void grade(ExamAttempt attempt, Supplier<Map<String, String>> answers) {
+
         if (resultRepo.existsByExamAttemptId(attempt.getId())) return;
 
-        List<Question> questions = questionRepo.findByExam(exam);
+        if (gradingQueue.isEnabled()) {
+            gradingQueue.enqueue(attempt.getId(), attempt.getSubmittedAt());
+            return;
+        }
+
+        Result result = resultRepo.save(gradingService.grade(attempt, answers.get()));
+        dashboardAggregates.record(List.of(result));
+    }
+
+    /* ================= GRADING STATUS ================= */
+    // on the primary: polled right after submit, which a lagging replica would not show yet
+    @Transactional
+    public Map<String, Object> getResultStatus(Long examId, User student) {
+
+        ExamAttempt attempt = attemptRepo
+                .findByStudentIdAndExamId(student.getId(), examId)
+                .orElse(null);
 
-        Map<String, String> submitted;
-        try {
-            submitted = objectMapper.readValue(answers, Map.class);
-        } catch (Exception e) {
-            submitted = Map.of();
+        if (attempt == null) {
+            return Map.of("status", "NOT_STARTED");
         }
 
-        int correct = 0;
-        for (Question q : questions) {
-            if (q.getCorrectAnswer() != null &&
-                    q.getCorrectAnswer().equals(submitted.get(String.valueOf(q.getId())))) {
-                correct++;
-            }
+        if (attempt.getStatus() == AttemptStatus.ACTIVE) {
+            return Map.of("status", "IN_PROGRESS");
         }
 
-        int score = questions.isEmpty()
-                ? 0
-                : Math.round((correct * 100f) / questions.size());
-
-        Result result = new Result();
-        result.setStudentId(student.getId());
-        result.setExamId(exam.getId());
-        result.setExamAttemptId(attempt.getId());
-        result.setTotalQuestions(questions.size());
-        result.setCorrectAnswers(correct);
-        result.setScore(score);
-        result.setViolations(attempt.getViolations());
-        result.setSubmissionReason(attempt.getSubmissionReason());
-        result.setStatus(attempt.getStatus().name());
-
-        // ✅ FINAL FIX — UTC SAFE
-        result.setSubmittedAt(Instant.now());
-
-        resultRepo.save(result);
+        return resultRepo.findByExamAttemptId(attempt.getId())
+                .<Map<String, Object>>map(r -> Map.of(
+                        "status", "GRADED",
+                        "resultId", r.getId(),
+                        "score", r.getScore()
+                ))
+                .orElseGet(() -> Map.of(
+                        "status", "GRADING",
+                        "queued", gradingQueue.isQueued(attempt.getId())
+                ));
     }
 
     /* ================= RESULTS LIST ================= */
@@ -322,29 +465,19 @@ public class StudentExamService {
         Exam exam = examRepo.findById(result.getExamId()).orElseThrow();
         ExamAttempt attempt = attemptRepo.findById(result.getExamAttemptId()).orElseThrow();
 
-        Map<String, String> answers;
-        try {
-            answers = objectMapper.readValue(attempt.getAnswersJson(), Map.class);
-        } catch (Exception e) {
-            answers = Map.of();
-        }
+        Map<String, String> answers = answerStore.load(attempt);
 
         List<QuestionReviewDTO> list = new ArrayList<>();
 
-        for (Question q : questionRepo.findByExam(exam)) {
+        for (QuestionSnapshot q : questionCache.get(exam.getId()).questions()) {
 
-            String selected = answers.get(String.valueOf(q.getId()));
-            String correct = q.getCorrectAnswer();
+            String selected = answers.get(String.valueOf(q.id()));
+            String correct = q.correctAnswer();
 
             QuestionReviewDTO dto = new QuestionReviewDTO();
-            dto.setQuestionId(q.getId());
-            dto.setQuestionText(q.getQuestionText());
-            dto.setOptions(List.of(
-                    q.getOptionA(),
-                    q.getOptionB(),
-                    q.getOptionC(),
-                    q.getOptionD()
-            ));
+            dto.setQuestionId(q.id());
+            dto.setQuestionText(q.questionText());
+            dto.setOptions(q.options());
             dto.setSelectedAnswer(selected);
             dto.setCorrectAnswer(correct);
             dto.setStatus(
@@ -0,0 +1,165 @@
+package com.exam.online_exam_platform.util;
+
+import com.exam.online_exam_platform.dto.QuestionSnapshot;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled answer key of one exam.
+ *
+ * Question ids are kept sorted in a long[], the correct option (0-3 = A-D)
+ * in a parallel byte[]. Submitted answers are decoded into an answer sheet
+ * of the same layout, so grading is a byte comparison per question with no
+ * entity loads and no string compares. Immutable and thread-safe.
+ */
+public final class AnswerKey {
+
+    public static final byte NO_ANSWER = -1;
+
+    private static final int OPTIONS = 4;
+
+    private final long[] questionIds;
+    private final byte[] correct;
+
+    // decoding tables: option texts (+ their hashes) per question, 4 per row
+    private final String[] optionTexts;
+    private final int[] optionHashes;
+
+    private AnswerKey(long[] questionIds, byte[] correct, String[] optionTexts, int[] optionHashes) {
+        this.questionIds = questionIds;
+        this.correct = correct;
+        this.optionTexts = optionTexts;
+        this.optionHashes = optionHashes;
+    }
+
+    /* ================= COMPILE ================= */
+
+    public static AnswerKey compile(List<QuestionSnapshot> questions) {
+        List<QuestionSnapshot> sorted = questions.stream()
+                .sorted(Comparator.comparing(QuestionSnapshot::id))
+                .toList();
+
+        int n = sorted.size();
+        long[] ids = new long[n];
+        byte[] correct = new byte[n];
+        String[] texts = new String[n * OPTIONS];
+        int[] hashes = new int[n * OPTIONS];
+
+        for (int i = 0; i < n; i++) {
+            QuestionSnapshot q = sorted.get(i);
+            ids[i] = q.id();
+
+            texts[i * OPTIONS] = q.optionA();
+            texts[i * OPTIONS + 1] = q.optionB();
+            texts[i * OPTIONS + 2] = q.optionC();
+            texts[i * OPTIONS + 3] = q.optionD();
+
+            for (int o = 0; o < OPTIONS; o++) {
+                String t = texts[i * OPTIONS + o];
+                hashes[i * OPTIONS + o] = t == null ? 0 : t.hashCode();
+            }
+        }
+
+        AnswerKey key = new AnswerKey(ids, correct, texts, hashes);
+        for (int i = 0; i < n; i++) {
+            correct[i] = key.optionIndex(i, sorted.get(i).correctAnswer());
+        }
+        return key;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    /* ================= ANSWER SHEET ================= */
+
+    public byte[] newSheet() {
+        byte[] sheet = new byte[questionIds.length];
+        Arrays.fill(sheet, NO_ANSWER);
+        return sheet;
+    }
+
+    /** Records one answer; unknown questions / options are ignored. */
+    public void mark(byte[] sheet, long questionId, String answer) {
+        int i = Arrays.binarySearch(questionIds, questionId);
+        if (i >= 0) sheet[i] = optionIndex(i, answer);
+    }
+
+    public void markAll(byte[] sheet, Map<String, String> answers) {
+        answers.forEach((key, answer) -> {
+            long questionId = parseId(key);
+            if (questionId >= 0) mark(sheet, questionId, answer);
+        });
+    }
+
+    /**
+     * Decodes a {"questionId": "option"} JSON object straight into a sheet,
+     * without building a Map. Malformed input yields an empty sheet.
+     */
+    public byte[] decode(JsonFactory jsonFactory, String json) {
+        byte[] sheet = newSheet();
+        if (json == null || json.isEmpty()) return sheet;
+
+        try (JsonParser p = jsonFactory.createParser(json)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return sheet;
+
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                long questionId = parseId(p.currentName());
+                JsonToken value = p.nextToken();
+
+                if (value == JsonToken.VALUE_STRING && questionId >= 0) {
+                    mark(sheet, questionId, p.getText());
+                } else {
+                    p.skipChildren();
+                }
+            }
+        } catch (Exception e) {
+            return newSheet();
+        }
+        return sheet;
+    }
+
+    /* ================= GRADE ================= */
+
+    public int grade(byte[] sheet) {
+        int score = 0;
+        for (int i = 0; i < correct.length; i++) {
+            if (correct[i] != NO_ANSWER && sheet[i] == correct[i]) score++;
+        }
+        return score;
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private byte optionIndex(int question, String answer) {
+        if (answer == null) return NO_ANSWER;
+
+        int h = answer.hashCode();
+        int base = question * OPTIONS;
+
+        for (int o = 0; o < OPTIONS; o++) {
+            if (optionHashes[base + o] == h && answer.equals(optionTexts[base + o])) {
+                return (byte) o;
+            }
+        }
+        return NO_ANSWER;
+    }
+
+    private static long parseId(String key) {
+        if (key == null || key.isEmpty() || key.length() > 18) return -1;
+
+        long id = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
@@ -0,0 +1,73 @@
+package com.exam.online_exam_platform.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal RFC 4180 row writer over a Writer (no buffering of its own).
+ *
+ * Fields containing , " CR or LF are quoted. Text starting with = + - @
+ * is prefixed with ' so spreadsheets do not evaluate it as a formula.
+ */
+public final class CsvWriter {
+
+    private final Writer out;
+    private boolean firstField = true;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public CsvWriter text(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) return this;
+
+        boolean formula = "=+-@".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula || needsQuotes(value);
+
+        if (!quote) {
+            out.write(value);
+            return this;
+        }
+
+        out.write('"');
+        if (formula) out.write('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+        return this;
+    }
+
+    public CsvWriter number(long value) throws IOException {
+        separator();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public CsvWriter row(String... values) throws IOException {
+        for (String v : values) text(v);
+        return endRow();
+    }
+
+    public CsvWriter endRow() throws IOException {
+        out.write("\r\n");
+        firstField = true;
+        return this;
+    }
+
+    private void separator() throws IOException {
+        if (!firstField) out.write(',');
+        firstField = false;
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
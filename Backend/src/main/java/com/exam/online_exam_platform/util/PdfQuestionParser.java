@@ -1,8 +1,28 @@
 package com.exam.online_exam_platform.util;
 
 import java.util.*;
-import java.util.regex.*;
 
+/**
+ * Question blocks in extracted PDF text:
+ *
+ * <pre>
+ * Q1. What is the capital of France?
+ * A. Berlin
+ * B. Paris
+ * C. Rome
+ * D. Madrid
+ * ANSWER: Paris
+ * </pre>
+ *
+ * Markers are case-insensitive and may be indented; question and option
+ * text may run over several lines. The correct answer must equal one of
+ * the options.
+ *
+ * Single pass, one line at a time, no regex and no backtracking: every
+ * character is looked at a constant number of times. A malformed block is
+ * reported as a {@link ParseError} and skipped up to the next Q line; it
+ * never stops the rest from parsing.
+ */
 public class PdfQuestionParser {
 
     public static class ParsedQuestion {
@@ -12,50 +32,269 @@ public class PdfQuestionParser {
         public String optionC;
         public String optionD;
         public String correctAnswer;
+
+        // n of "Qn." and the line it started on (1-based)
+        public int number;
+        public int line;
     }
 
-    private static final Pattern QUESTION_BLOCK = Pattern.compile(
-            "Q\\d+\\.\\s*(.*?)\\n" +
-                    "A\\.\\s*(.*?)\\n" +
-                    "B\\.\\s*(.*?)\\n" +
-                    "C\\.\\s*(.*?)\\n" +
-                    "D\\.\\s*(.*?)\\n" +
-                    "\\s*ANSWER:\\s*(.*?)\\n",
-            Pattern.DOTALL | Pattern.CASE_INSENSITIVE
-    );
+    public record ParseError(int questionNumber, int line, String message) {
+        @Override
+        public String toString() {
+            return "Q" + questionNumber + " (line " + line + "): " + message;
+        }
+    }
+
+    public record Parsed(List<ParsedQuestion> questions, List<ParseError> errors) {}
+
+    public interface Listener {
+        void question(ParsedQuestion question);
 
-    public static List<ParsedQuestion> parse(String text) {
+        void error(ParseError error);
+    }
+
+    public static Parsed parse(CharSequence text) {
         List<ParsedQuestion> questions = new ArrayList<>();
+        List<ParseError> errors = new ArrayList<>();
 
-        Matcher matcher = QUESTION_BLOCK.matcher(text);
+        Session session = new Session(new Listener() {
+            @Override
+            public void question(ParsedQuestion question) {
+                questions.add(question);
+            }
 
-        while (matcher.find()) {
-            ParsedQuestion q = new ParsedQuestion();
+            @Override
+            public void error(ParseError error) {
+                errors.add(error);
+            }
+        });
+        session.feed(text);
+        session.finish();
+
+        return new Parsed(questions, errors);
+    }
+
+    /* ================= INCREMENTAL ================= */
+
+    // where the current block is
+    private static final int SEEK = 0;      // outside a block (or skipping a broken one)
+    private static final int QUESTION = 1;
+    private static final int OPTION_A = 2;
+    private static final int OPTION_B = 3;
+    private static final int OPTION_C = 4;
+    private static final int OPTION_D = 5;
+
+    private static final String[] FIELD = {"", "question", "option A", "option B", "option C", "option D"};
+
+    /**
+     * Parses text that arrives in pieces (e.g. one page range at a time).
+     * Only the unfinished last line is carried between {@link #feed} calls;
+     * block state carries over, so a question may span page boundaries.
+     */
+    public static class Session {
+
+        private final Listener listener;
+
+        private final StringBuilder partialLine = new StringBuilder();
+        private final StringBuilder field = new StringBuilder();
+        private final String[] fields = new String[6];
+
+        private int state = SEEK;
+        private int lineNo;
+        private int number;
+        private int startLine;
+
+        public Session(Listener listener) {
+            this.listener = listener;
+        }
+
+        public void feed(CharSequence text) {
+            int len = text.length();
+            int start = 0;
+
+            for (int i = 0; i < len; i++) {
+                if (text.charAt(i) != '\n') continue;
+
+                if (partialLine.isEmpty()) {
+                    line(text, start, i);
+                } else {
+                    partialLine.append(text, start, i);
+                    line(partialLine, 0, partialLine.length());
+                    partialLine.setLength(0);
+                }
+                start = i + 1;
+            }
+
+            partialLine.append(text, start, len);
+        }
+
+        /** End of document: the last line, and whatever block it leaves open. */
+        public void finish() {
+            if (!partialLine.isEmpty()) {
+                line(partialLine, 0, partialLine.length());
+                partialLine.setLength(0);
+            }
+            if (state != SEEK) {
+                fail("incomplete question at end of document (no ANSWER line)");
+            }
+        }
+
+        /* ---------- one line ---------- */
+
+        private void line(CharSequence s, int from, int to) {
+            lineNo++;
+
+            // trim (also drops the \r of \r\n)
+            while (from < to && s.charAt(from) <= ' ') from++;
+            while (to > from && s.charAt(to - 1) <= ' ') to--;
+            if (from == to) return;
+
+            // Q<n>.
+            int qEnd = questionMarker(s, from, to);
+            if (qEnd > 0) {
+                if (state != SEEK) {
+                    fail("missing " + missingAfter(state) + " before next question");
+                }
+                number = questionNumber(s, from + 1, qEnd - 1);
+                startLine = lineNo;
+                state = QUESTION;
+                field.setLength(0);
+                append(s, qEnd, to);
+                return;
+            }
+
+            if (state == SEEK) return;
 
-            q.questionText = matcher.group(1).trim();
-            q.optionA = matcher.group(2).trim();
-            q.optionB = matcher.group(3).trim();
-            q.optionC = matcher.group(4).trim();
-            q.optionD = matcher.group(5).trim();
-            q.correctAnswer = matcher.group(6).trim();
+            // A. – D.
+            int option = optionMarker(s, from, to);
+            if (option > 0) {
+                if (option != state + 1) {
+                    fail("found " + FIELD[option] + " where " + missingAfter(state) + " was expected");
+                    return;
+                }
+                closeField();
+                state = option;
+                append(s, from + 2, to);
+                return;
+            }
+
+            // ANSWER:
+            if (startsWithIgnoreCase(s, from, to, "ANSWER:")) {
+                if (state != OPTION_D) {
+                    fail("ANSWER before " + missingAfter(state));
+                    return;
+                }
+                closeField();
+                complete(trim(s, from + 7, to));
+                return;
+            }
+
+            // continuation of the current field
+            if (!field.isEmpty()) field.append('\n');
+            field.append(s, from, to);
+        }
+
+        private void complete(String answer) {
+            ParsedQuestion q = new ParsedQuestion();
+            q.questionText = fields[QUESTION];
+            q.optionA = fields[OPTION_A];
+            q.optionB = fields[OPTION_B];
+            q.optionC = fields[OPTION_C];
+            q.optionD = fields[OPTION_D];
+            q.correctAnswer = answer;
+            q.number = number;
+            q.line = startLine;
 
-            List<String> options = List.of(
-                    q.optionA, q.optionB, q.optionC, q.optionD
-            );
+            String problem = null;
+            for (int f = QUESTION; f <= OPTION_D; f++) {
+                if (fields[f].isEmpty()) {
+                    problem = FIELD[f] + " is empty";
+                    break;
+                }
+            }
+            if (problem == null && !answer.equals(q.optionA) && !answer.equals(q.optionB)
+                    && !answer.equals(q.optionC) && !answer.equals(q.optionD)) {
+                problem = "correct answer does not match any option: " + answer;
+            }
 
-            if (!options.contains(q.correctAnswer)) {
-                throw new IllegalArgumentException(
-                        "Correct answer does not match any option: " + q.correctAnswer
-                );
+            if (problem != null) {
+                fail(problem);
+            } else {
+                listener.question(q);
+                reset();
             }
+        }
+
+        private void fail(String message) {
+            listener.error(new ParseError(number, startLine, message));
+            reset();
+        }
 
-            questions.add(q);
+        private void reset() {
+            state = SEEK;
+            field.setLength(0);
+            Arrays.fill(fields, null);
         }
 
-        if (questions.isEmpty()) {
-            throw new IllegalArgumentException("No valid questions found in PDF");
+        private void append(CharSequence s, int from, int to) {
+            while (from < to && s.charAt(from) <= ' ') from++;
+            field.append(s, from, to);
         }
 
-        return questions;
+        private void closeField() {
+            fields[state] = field.toString();
+            field.setLength(0);
+        }
+    }
+
+    /* ================= MARKERS ================= */
+
+    // "Q12." → index after the dot, else -1
+    private static int questionMarker(CharSequence s, int from, int to) {
+        if (from >= to || (s.charAt(from) | 0x20) != 'q') return -1;
+
+        int i = from + 1;
+        while (i < to && isDigit(s.charAt(i))) i++;
+
+        if (i == from + 1 || i >= to || s.charAt(i) != '.') return -1;
+        return i + 1;
+    }
+
+    private static int questionNumber(CharSequence s, int from, int to) {
+        int n = 0;
+        for (int i = from; i < to && n < 100_000_000; i++) {
+            n = n * 10 + (s.charAt(i) - '0');
+        }
+        return n;
+    }
+
+    // "A." .. "D." → OPTION_A .. OPTION_D, else 0
+    private static int optionMarker(CharSequence s, int from, int to) {
+        if (to - from < 2 || s.charAt(from + 1) != '.') return 0;
+
+        int letter = s.charAt(from) | 0x20;
+        return letter >= 'a' && letter <= 'd' ? OPTION_A + (letter - 'a') : 0;
+    }
+
+    private static boolean startsWithIgnoreCase(CharSequence s, int from, int to, String prefix) {
+        if (to - from < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toUpperCase(s.charAt(from + i)) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static String trim(CharSequence s, int from, int to) {
+        while (from < to && s.charAt(from) <= ' ') from++;
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+        return s.subSequence(from, to).toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static String missingAfter(int state) {
+        return state == OPTION_D ? "ANSWER" : FIELD[state + 1];
     }
 }
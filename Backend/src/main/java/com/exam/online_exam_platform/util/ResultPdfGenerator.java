@@ -5,61 +5,82 @@ import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfWriter;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 
 public class ResultPdfGenerator {
 
+    /**
+     * Bump whenever the layout or wording below changes; cached PDFs of the
+     * previous version are then never served again.
+     */
+    public static final int TEMPLATE_VERSION = 1;
+
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm");
 
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    // built once; only read while rendering
+    private static final Font TITLE_FONT = new Font(Font.HELVETICA, 16, Font.BOLD);
+    private static final Font LABEL_FONT = new Font(Font.HELVETICA, 11, Font.BOLD);
+    private static final Font VALUE_FONT = new Font(Font.HELVETICA, 11);
+    private static final Font FOOTER_FONT = new Font(Font.HELVETICA, 9, Font.ITALIC);
+
     public static byte[] generate(ResultPdfDTO data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        generate(data, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Renders straight into {@code out}. The stream is flushed but not closed.
+     */
+    public static void generate(ResultPdfDTO data, OutputStream out) {
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         Document doc = new Document(PageSize.A4);
 
         try {
-            PdfWriter.getInstance(doc, out);
+            PdfWriter writer = PdfWriter.getInstance(doc, out);
+            writer.setCloseStream(false);
             doc.open();
 
-            Font titleFont = new Font(Font.HELVETICA, 16, Font.BOLD);
-            Font labelFont = new Font(Font.HELVETICA, 11, Font.BOLD);
-            Font valueFont = new Font(Font.HELVETICA, 11);
-
-            doc.add(new Paragraph("ONLINE EXAMINATION PLATFORM", titleFont));
+            doc.add(new Paragraph("ONLINE EXAMINATION PLATFORM", TITLE_FONT));
             doc.add(new Paragraph("Official Result Statement\n\n"));
 
-            doc.add(new Paragraph("Student Details", labelFont));
-            doc.add(new Paragraph("Name: " + data.getStudentName(), valueFont));
-            doc.add(new Paragraph("Email: " + data.getStudentEmail(), valueFont));
+            doc.add(new Paragraph("Student Details", LABEL_FONT));
+            doc.add(new Paragraph("Name: " + data.getStudentName(), VALUE_FONT));
+            doc.add(new Paragraph("Email: " + data.getStudentEmail(), VALUE_FONT));
             doc.add(new Paragraph("\n"));
 
-            doc.add(new Paragraph("Exam Details", labelFont));
-            doc.add(new Paragraph("Exam Title: " + data.getExamTitle(), valueFont));
+            doc.add(new Paragraph("Exam Details", LABEL_FONT));
+            doc.add(new Paragraph("Exam Title: " + data.getExamTitle(), VALUE_FONT));
 
             // ✅ FIX: Instant → ZonedDateTime → format
             String submittedAt =
                     data.getSubmittedAt()
-                            .atZone(ZoneId.of("Asia/Kolkata"))
+                            .atZone(IST)
                             .format(FORMATTER);
 
-            doc.add(new Paragraph("Submitted At: " + submittedAt, valueFont));
+            doc.add(new Paragraph("Submitted At: " + submittedAt, VALUE_FONT));
             doc.add(new Paragraph("\n"));
 
-            doc.add(new Paragraph("Result Summary", labelFont));
-            doc.add(new Paragraph("Score: " + data.getScore() + "%", valueFont));
-            doc.add(new Paragraph("Status: " + data.getResultStatus(), valueFont));
+            doc.add(new Paragraph("Result Summary", LABEL_FONT));
+            doc.add(new Paragraph("Score: " + data.getScore() + "%", VALUE_FONT));
+            doc.add(new Paragraph("Status: " + data.getResultStatus(), VALUE_FONT));
             doc.add(new Paragraph("\n"));
 
-            doc.add(new Paragraph("Performance Breakdown", labelFont));
-            doc.add(new Paragraph("Total Questions: " + data.getTotalQuestions(), valueFont));
-            doc.add(new Paragraph("Correct Answers: " + data.getCorrectAnswers(), valueFont));
-            doc.add(new Paragraph("Violations: " + data.getViolations(), valueFont));
+            doc.add(new Paragraph("Performance Breakdown", LABEL_FONT));
+            doc.add(new Paragraph("Total Questions: " + data.getTotalQuestions(), VALUE_FONT));
+            doc.add(new Paragraph("Correct Answers: " + data.getCorrectAnswers(), VALUE_FONT));
+            doc.add(new Paragraph("Violations: " + data.getViolations(), VALUE_FONT));
 
             doc.add(new Paragraph("\n\n"));
             doc.add(new Paragraph(
                     "This is a system-generated document. No signature required.",
-                    new Font(Font.HELVETICA, 9, Font.ITALIC)
+                    FOOTER_FONT
             ));
 
         } catch (Exception e) {
@@ -67,7 +88,24 @@ public class ResultPdfGenerator {
         } finally {
             doc.close();
         }
+    }
 
-        return out.toByteArray();
+    /**
+     * Changes whenever anything printed on the statement changes (e.g. the
+     * student is renamed), so a cached copy is never stale.
+     */
+    public static String fingerprint(ResultPdfDTO data) {
+        int h = Objects.hash(
+                data.getStudentName(),
+                data.getStudentEmail(),
+                data.getExamTitle(),
+                data.getScore(),
+                data.getResultStatus(),
+                data.getTotalQuestions(),
+                data.getCorrectAnswers(),
+                data.getViolations(),
+                data.getSubmittedAt()
+        );
+        return Integer.toHexString(h);
     }
 }
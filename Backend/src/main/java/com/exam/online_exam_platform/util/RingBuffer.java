@@ -0,0 +1,140 @@
+package com.exam.online_exam_platform.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Bounded FIFO over a preallocated array, for many producers and one
+ * draining consumer.
+ *
+ * Producers add a whole request's items or nothing, so a full buffer never
+ * keeps half a batch. One lock, held only for the array copies; the consumer
+ * can wait until enough items have piled up to be worth a write.
+ */
+public final class RingBuffer<T> {
+
+    private final Object[] items;
+    private final int mask;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition filled = lock.newCondition();
+
+    private long head; // next to drain
+    private long tail; // next to fill
+    private int waitingFor;
+
+    /** @param capacity rounded up to a power of two */
+    public RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.items = new Object[size];
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return false, adding nothing, if all of them do not fit */
+    public boolean offerAll(List<? extends T> batch) {
+        int n = batch.size();
+        if (n == 0) return true;
+
+        lock.lock();
+        try {
+            if (tail - head + n > items.length) return false;
+
+            for (int i = 0; i < n; i++) {
+                items[(int) (tail++ & mask)] = batch.get(i);
+            }
+
+            if (waitingFor > 0 && tail - head >= waitingFor) {
+                filled.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Moves up to {@code max} of the oldest items into {@code sink}. */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super T> sink, int max) {
+        lock.lock();
+        try {
+            int n = (int) Math.min(max, tail - head);
+            for (int i = 0; i < n; i++) {
+                int slot = (int) (head++ & mask);
+                sink.add((T) items[slot]);
+                items[slot] = null;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves every item matching {@code filter} into {@code sink}, oldest
+     * first; the rest keep their order. One pass over what is buffered,
+     * under the lock, so it is for the occasional caller, not the consumer.
+     */
+    @SuppressWarnings("unchecked")
+    public int drainMatching(Predicate<? super T> filter, Collection<? super T> sink) {
+        lock.lock();
+        try {
+            long keep = head;
+            int n = 0;
+            for (long i = head; i < tail; i++) {
+                T item = (T) items[(int) (i & mask)];
+                if (filter.test(item)) {
+                    sink.add(item);
+                    n++;
+                } else {
+                    items[(int) (keep++ & mask)] = item;
+                }
+            }
+            for (long i = keep; i < tail; i++) {
+                items[(int) (i & mask)] = null;
+            }
+            tail = keep;
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until at least {@code count} items are buffered or the timeout
+     * passes. For the single consumer.
+     *
+     * @return whether {@code count} items are there
+     */
+    public boolean awaitSize(int count, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+
+        lock.lock();
+        try {
+            waitingFor = count;
+            while (tail - head < count && nanos > 0) {
+                nanos = filled.awaitNanos(nanos);
+            }
+            return tail - head >= count;
+        } finally {
+            waitingFor = 0;
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.exam.online_exam_platform.repository;
+
+import com.exam.online_exam_platform.entity.ProctoringEventType;
+import com.exam.online_exam_platform.repository.ProctoringEventJdbcRepository.EventRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.exam.online_exam_platform.entity.ProctoringEventType.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the repository's own SQL, on H2 in PostgreSQL mode
+class ProctoringViolationCountTest {
+
+    private static final long WINDOW_MS = 800;
+    private static final Instant T0 = Instant.parse("2026-01-01T10:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private ProctoringEventJdbcRepository repo;
+
+    @BeforeEach
+    void schema() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:violations;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS proctoring_events");
+        jdbcTemplate.execute("""
+                CREATE TABLE proctoring_events (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    attempt_id BIGINT NOT NULL,
+                    type VARCHAR(32) NOT NULL,
+                    violation BOOLEAN NOT NULL,
+                    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                    received_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                    detail VARCHAR(200)
+                )
+                """);
+        repo = new ProctoringEventJdbcRepository(jdbcTemplate);
+    }
+
+    @Test
+    void tabSwitchReportedTwiceIsOneViolation() {
+        insert(1L, TAB_HIDDEN, 0, WINDOW_BLUR, 30, TAB_VISIBLE, 4_000, WINDOW_FOCUS, 4_010);
+
+        assertThat(repo.countViolations(List.of(1L), WINDOW_MS)).containsExactly(Map.entry(1L, 1));
+    }
+
+    @Test
+    void aChainOfCloseViolationsIsOneIncident() {
+        // each within the window of the previous one, though the last is 2.4s after the first
+        insert(1L, TAB_HIDDEN, 0, FULLSCREEN_EXIT, 799, ESC_KEY, 1_598, DEVTOOLS, 2_397);
+
+        assertThat(repo.countViolations(List.of(1L), WINDOW_MS)).containsEntry(1L, 1);
+    }
+
+    @Test
+    void aGapOfTheWholeWindowStartsANewIncident() {
+        insert(1L, TAB_HIDDEN, 0, TAB_HIDDEN, 800, TAB_HIDDEN, 1_599);
+
+        assertThat(repo.countViolations(List.of(1L), WINDOW_MS)).containsEntry(1L, 2);
+    }
+
+    @Test
+    void orderedByWhenTheyHappenedNotWhenTheyArrived() {
+        insert(1L, TAB_HIDDEN, 5_000, TAB_HIDDEN, 0, TAB_HIDDEN, 400, TAB_HIDDEN, 10_000);
+
+        assertThat(repo.countViolations(List.of(1L), WINDOW_MS)).containsEntry(1L, 3);
+    }
+
+    @Test
+    void perAttemptAndOnlyForTheAttemptsAsked() {
+        insert(1L, TAB_HIDDEN, 0, TAB_HIDDEN, 2_000);
+        insert(2L, CAMERA_STOPPED, 100);
+        insert(3L, TAB_HIDDEN, 0);
+        insert(4L, TAB_VISIBLE, 0, CLIPBOARD_BLOCKED, 5_000);
+
+        assertThat(repo.countViolations(List.of(1L, 2L, 4L), WINDOW_MS))
+                .containsOnly(Map.entry(1L, 2), Map.entry(2L, 1));
+    }
+
+    @Test
+    void zeroWindowCountsEveryViolation() {
+        insert(1L, TAB_HIDDEN, 0, WINDOW_BLUR, 1, ESC_KEY, 2);
+
+        assertThat(repo.countViolations(List.of(1L), 0)).containsEntry(1L, 3);
+    }
+
+    // attempt, then (type, ms after T0) pairs
+    private void insert(Long attemptId, Object... events) {
+        List<EventRow> rows = new ArrayList<>();
+        for (int i = 0; i < events.length; i += 2) {
+            Instant at = T0.plusMillis(((Number) events[i + 1]).longValue());
+            rows.add(new EventRow(attemptId, (ProctoringEventType) events[i], at, at, null));
+        }
+        repo.batchInsert(rows);
+    }
+}
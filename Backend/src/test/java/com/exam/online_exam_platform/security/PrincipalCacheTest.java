@@ -0,0 +1,161 @@
+package com.exam.online_exam_platform.security;
+
+import com.exam.online_exam_platform.entity.User;
+import com.exam.online_exam_platform.repository.ExamAttemptRepository;
+import com.exam.online_exam_platform.repository.UserRepository;
+import com.exam.online_exam_platform.service.AdminStudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrincipalCacheTest {
+
+    private final AtomicLong millis = new AtomicLong(1_000_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void entryExpiresAfterTheTtl() {
+        PrincipalCache cache = cache(10, 300);
+
+        cache.get(1L, loader(user(1L, "a@test")));
+        millis.addAndGet(299_999);
+        cache.get(1L, loader(user(1L, "a@test")));
+        assertThat(loads).hasValue(1);
+
+        millis.addAndGet(1);
+        cache.get(1L, loader(user(1L, "a@test")));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void leastRecentlyUsedUserIsEvicted() {
+        PrincipalCache cache = cache(2, 300);
+
+        cache.get(1L, loader(user(1L, "a@test")));
+        cache.get(2L, loader(user(2L, "b@test")));
+        cache.get(1L, loader(user(1L, "a@test")));
+        cache.get(3L, loader(user(3L, "c@test")));
+        assertThat(loads).hasValue(3);
+
+        cache.get(1L, loader(user(1L, "a@test")));
+        assertThat(loads).hasValue(3);
+        cache.get(2L, loader(user(2L, "b@test")));
+        assertThat(loads).hasValue(4);
+        assertThat(cache.stats()).containsEntry("size", 2);
+    }
+
+    @Test
+    void updateDuringALoadKeepsTheOldCopyOutOfTheCache() {
+        PrincipalCache cache = cache(10, 300);
+        AdminStudentService admin = adminService(cache);
+
+        User before = user(1L, "old@test");
+        // the admin's update commits while this request is reading the row
+        Optional<User> served = cache.get(1L, () -> {
+            loads.incrementAndGet();
+            admin.updateStudent(1L, user(1L, "new@test"));
+            return Optional.of(before);
+        });
+
+        assertThat(served).containsSame(before);
+        assertThat(cache.get(1L, loader(user(1L, "new@test")))).hasValueSatisfying(
+                u -> assertThat(u.getEmail()).isEqualTo("new@test"));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void deleteIsEvictedAgainAfterCommit() {
+        PrincipalCache cache = cache(10, 300);
+        AdminStudentService admin = adminService(cache);
+        cache.get(1L, loader(user(1L, "a@test")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        admin.deleteStudent(1L);
+        // read before the delete commits: the row is still there
+        cache.get(1L, loader(user(1L, "a@test")));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.get(1L, Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void evictionsAreForgottenOnceNoOlderLoadIsRunning() {
+        PrincipalCache cache = cache(10, 300);
+
+        // no load running: nothing to remember
+        for (long id = 1; id <= 100; id++) cache.evict(id);
+        assertThat(cache.stats()).containsEntry("pendingEvictions", 0);
+
+        cache.get(1L, () -> {
+            cache.evict(1L);
+            cache.evict(2L);
+            assertThat(cache.stats()).containsEntry("pendingEvictions", 2);
+            return Optional.of(user(1L, "a@test"));
+        });
+        assertThat(cache.stats()).containsEntry("pendingEvictions", 0).containsEntry("size", 0);
+    }
+
+    @Test
+    void failedLoadDoesNotPinEvictions() {
+        PrincipalCache cache = cache(10, 300);
+
+        assertThatThrownBy(() -> cache.get(1L, () -> {
+            cache.evict(2L);
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.stats()).containsEntry("pendingEvictions", 0);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private PrincipalCache cache(int maxSize, long ttlSeconds) {
+        return new PrincipalCache(maxSize, ttlSeconds) {
+            @Override
+            long now() {
+                return millis.get();
+            }
+        };
+    }
+
+    private Supplier<Optional<User>> loader(User user) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.of(user);
+        };
+    }
+
+    private static AdminStudentService adminService(PrincipalCache cache) {
+        UserRepository users = mock(UserRepository.class);
+        when(users.findById(1L)).thenReturn(Optional.of(user(1L, "old@test")));
+        return new AdminStudentService(users, mock(ExamAttemptRepository.class), mock(PasswordEncoder.class), cache);
+    }
+
+    private static User user(Long id, String email) {
+        User u = new User();
+        ReflectionTestUtils.setField(u, "id", id);
+        u.setName(email);
+        u.setEmail(email);
+        return u;
+    }
+}
@@ -0,0 +1,99 @@
+package com.exam.online_exam_platform.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret-test-secret-test-secret-0123");
+    // exp has second precision
+    private final long start = System.currentTimeMillis() / 1000 * 1000;
+    private final AtomicLong millis = new AtomicLong(start);
+
+    @Test
+    void cachedTokenIsVerifiedAgainOnceItsExpHasPassed() {
+        VerifiedTokenCache cache = cache(10);
+        String token = token(1L, start + 60_000);
+
+        cache.verify(token);
+        millis.set(start + 59_999);
+        assertThat(cache.verify(token).userId()).isEqualTo(1L);
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+
+        // at exp the entry is dead, whatever is left of the cache
+        millis.set(start + 60_000);
+        cache.verify(token);
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 2L);
+    }
+
+    @Test
+    void expiredTokenIsRejectedAndNotCached() {
+        VerifiedTokenCache cache = cache(10);
+
+        assertThatThrownBy(() -> cache.verify(token(1L, start - 1_000))).isInstanceOf(ExpiredJwtException.class);
+        assertThat(cache.stats()).containsEntry("size", 0);
+    }
+
+    @Test
+    void fullCachePurgesExpiredEntriesAtMostOnceASecond() {
+        VerifiedTokenCache cache = cache(2);
+        String shortLived = token(1L, start + 10_000);
+        String longLived = token(2L, start + 300_000);
+        cache.verify(shortLived);
+        cache.verify(longLived);
+
+        // full, but the short-lived entry is dead: purged to make room
+        millis.set(start + 20_000);
+        String third = token(3L, start + 300_000);
+        cache.verify(third);
+        assertThat(cache.stats()).containsEntry("size", 2);
+        cache.verify(third);
+        assertThat(cache.stats()).containsEntry("hits", 1L);
+
+        // full of live entries: verified every time, never cached, no purge storm
+        String fourth = token(4L, start + 300_000);
+        assertThat(cache.verify(fourth).userId()).isEqualTo(4L);
+        assertThat(cache.verify(fourth).userId()).isEqualTo(4L);
+        assertThat(cache.stats()).containsEntry("size", 2).containsEntry("hits", 1L);
+    }
+
+    @Test
+    void zeroSizeNeverCaches() {
+        VerifiedTokenCache cache = cache(0);
+        String token = token(1L, start + 60_000);
+
+        cache.verify(token);
+        cache.verify(token);
+
+        assertThat(cache.stats()).containsEntry("size", 0).containsEntry("hits", 0L);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private VerifiedTokenCache cache(int maxSize) {
+        return new VerifiedTokenCache(jwtUtil, maxSize) {
+            @Override
+            long now() {
+                return millis.get();
+            }
+        };
+    }
+
+    private String token(Long userId, long expiresAt) {
+        return Jwts.builder()
+                .setSubject("user" + userId + "@test")
+                .claim("uid", userId)
+                .claim("role", "STUDENT")
+                .setExpiration(new Date(expiresAt))
+                .signWith(jwtUtil.getKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,54 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.config.JacksonConfig;
+import com.exam.online_exam_platform.dto.AdminResultDTO;
+import com.exam.online_exam_platform.dto.AdminResultFilter;
+import com.exam.online_exam_platform.repository.ResultExportJdbcRepository;
+import com.exam.online_exam_platform.repository.ResultRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// the NDJSON export goes through the application's ObjectMapper
+class AdminResultStreamTest {
+
+    private final ResultRepository resultRepository = mock(ResultRepository.class);
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void oneJsonObjectPerLineWithIsoTimestamps() throws Exception {
+        Instant submittedAt = Instant.parse("2026-01-01T10:00:00Z");
+        when(resultRepository.findAdminResults(isNull(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(row(2L, submittedAt), row(1L, null)));
+
+        AdminResultService service = new AdminResultService(resultRepository, mock(ResultExportJdbcRepository.class),
+                objectMapper, mock(ProctoringEventLog.class), mock(PlatformTransactionManager.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(service.streamResults(new AdminResultFilter(null, null, null, null, null), out)).isEqualTo(2);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("resultId").asLong()).isEqualTo(2L);
+        assertThat(first.get("submittedAt").asText()).isEqualTo("2026-01-01T10:00:00Z");
+        assertThat(objectMapper.readTree(lines.get(1)).get("submittedAt").isNull()).isTrue();
+    }
+
+    private static AdminResultDTO row(Long resultId, Instant submittedAt) {
+        return new AdminResultDTO(resultId, 100L, "Jane Doe", "jane@example.com", 7L, "Algebra",
+                60, 10, 6, 0, "PASS", "MANUAL", submittedAt);
+    }
+}
@@ -0,0 +1,95 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.exception.AdmissionRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttemptAdmissionTest {
+
+    @Test
+    void gateIsDroppedOnceTheLastRequestFinishes() {
+        AttemptAdmission admission = admission(2, 0);
+
+        AttemptAdmission.Permit first = admission.admit(1L);
+        AttemptAdmission.Permit second = admission.admit(1L);
+        admission.admit(2L).close();
+        assertThat(admission.stats()).containsEntry("gates", 1).containsEntry("inFlight", 2);
+
+        first.close();
+        assertThat(admission.stats()).containsEntry("gates", 1);
+
+        second.close();
+        second.close();
+        assertThat(admission.stats()).containsEntry("gates", 0).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void rejectedRequestsDoNotKeepTheGate() {
+        AttemptAdmission admission = admission(1, 0);
+
+        AttemptAdmission.Permit held = admission.admit(1L);
+        assertThatThrownBy(() -> admission.admit(1L)).isInstanceOf(AdmissionRejectedException.class);
+        assertThat(admission.stats()).containsEntry("gates", 1).containsEntry("rejected", 1L);
+
+        held.close();
+        assertThat(admission.stats()).containsEntry("gates", 0);
+    }
+
+    @Test
+    void neverMoreThanTheLimitWhileGatesComeAndGo() throws Exception {
+        int limit = 2;
+        AttemptAdmission admission = admission(limit, 50);
+        PeakCounter running = new PeakCounter();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                tasks.add(pool.submit(() -> {
+                    try (AttemptAdmission.Permit ignored = admission.admit(1L)) {
+                        running.enter();
+                        Thread.onSpinWait();
+                        running.leave();
+                    } catch (AdmissionRejectedException ignored) {
+                        // a full queue is fine here; only the limit matters
+                    }
+                }));
+            }
+            for (Future<?> t : tasks) t.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(running.max()).isLessThanOrEqualTo(limit);
+        assertThat(admission.stats()).containsEntry("gates", 0);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private static AttemptAdmission admission(int maxConcurrent, long maxWaitMs) {
+        return new AttemptAdmission(true, maxConcurrent, 200, maxWaitMs, 500, 10_000);
+    }
+
+    private static final class PeakCounter {
+        private int current;
+        private int max;
+
+        synchronized void enter() {
+            max = Math.max(max, ++current);
+        }
+
+        synchronized void leave() {
+            current--;
+        }
+
+        synchronized int max() {
+            return max;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.exam.online_exam_platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttemptAnswerDiffTest {
+
+    @Test
+    void onlyChangedAndNewAnswers() {
+        Map<String, String> changes = AttemptAnswerStore.diff(
+                Map.of("1", "A", "2", "B"),
+                Map.of("1", "A", "2", "C", "3", "D"));
+
+        assertThat(changes).containsOnly(Map.entry("2", "C"), Map.entry("3", "D"));
+    }
+
+    @Test
+    void missingOrNullAnswersAreDeleted() {
+        Map<String, String> next = new HashMap<>();
+        next.put("2", null);
+        next.put("4", null);
+
+        Map<String, String> changes = AttemptAnswerStore.diff(Map.of("1", "A", "2", "B"), next);
+
+        Map<String, String> deleted = new HashMap<>();
+        deleted.put("1", null);
+        deleted.put("2", null);
+        assertThat(changes).isEqualTo(deleted);
+    }
+
+    @Test
+    void sameAnswersMeanNoChanges() {
+        assertThat(AttemptAnswerStore.diff(Map.of("1", "A"), Map.of("1", "A"))).isEmpty();
+        assertThat(AttemptAnswerStore.diff(Map.of(), Map.of())).isEmpty();
+    }
+}
@@ -0,0 +1,112 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.AttemptAnswer;
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.repository.AttemptAnswerJdbcRepository;
+import com.exam.online_exam_platform.repository.AttemptAnswerJdbcRepository.AnswerRow;
+import com.exam.online_exam_platform.repository.AttemptAnswerRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.LegacyAnswers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+// a cleared answer that only the legacy blob has must not come back on the next load
+class AttemptAnswerLegacyTest {
+
+    private static final Long ATTEMPT = 5L;
+    private static final String BLOB = "{\"101\": \"A\", \"102\": \"B\"}";
+
+    private final AttemptAnswerRepository answerRepo = mock(AttemptAnswerRepository.class);
+    private final AttemptAnswerJdbcRepository answerJdbcRepo = mock(AttemptAnswerJdbcRepository.class);
+    private final ExamAttemptJdbcRepository attemptJdbcRepo = mock(ExamAttemptJdbcRepository.class);
+
+    private AttemptAnswerStore store;
+    private ExamAttempt attempt;
+
+    @BeforeEach
+    void store() {
+        store = new AttemptAnswerStore(answerRepo, answerJdbcRepo, attemptJdbcRepo, new ObjectMapper());
+
+        attempt = new ExamAttempt();
+        ReflectionTestUtils.setField(attempt, "id", ATTEMPT);
+        attempt.setAnswersJson(BLOB);
+
+        // what the table holds once the blob has been moved
+        when(answerRepo.findByAttemptId(ATTEMPT)).thenReturn(List.of(row(101L, "A"), row(102L, "B")));
+    }
+
+    @Test
+    void fullSaveMovesTheBlobBeforeDeleting() {
+        store.replace(attempt, Map.of("102", "B"));
+
+        InOrder order = inOrder(answerJdbcRepo, attemptJdbcRepo);
+        order.verify(answerJdbcRepo).batchInsertIfAbsent(blobRows());
+        order.verify(attemptJdbcRepo).clearLegacyAnswers(List.of(ATTEMPT));
+        order.verify(answerJdbcRepo).batchDelete(List.of(new AnswerRow(ATTEMPT, 101L, null)));
+        assertThat(attempt.getAnswersJson()).isNull();
+    }
+
+    @Test
+    void deltaMovesTheBlobBeforeDeleting() {
+        store.write(attempt, cleared("101"));
+
+        InOrder order = inOrder(answerJdbcRepo, attemptJdbcRepo);
+        order.verify(answerJdbcRepo).batchInsertIfAbsent(blobRows());
+        order.verify(attemptJdbcRepo).clearLegacyAnswers(List.of(ATTEMPT));
+        order.verify(answerJdbcRepo).batchDelete(List.of(new AnswerRow(ATTEMPT, 101L, null)));
+    }
+
+    @Test
+    void bufferedWriteLooksUpAndMovesBlobs() {
+        when(attemptJdbcRepo.findLegacyAnswers(Set.of(ATTEMPT))).thenReturn(List.of(new LegacyAnswers(ATTEMPT, BLOB)));
+
+        store.writeAll(Map.of(ATTEMPT, cleared("102")));
+
+        InOrder order = inOrder(answerJdbcRepo, attemptJdbcRepo);
+        order.verify(answerJdbcRepo).batchInsertIfAbsent(blobRows());
+        order.verify(attemptJdbcRepo).clearLegacyAnswers(List.of(ATTEMPT));
+        order.verify(answerJdbcRepo).batchDelete(List.of(new AnswerRow(ATTEMPT, 102L, null)));
+    }
+
+    @Test
+    void migratedAttemptsAreNotTouched() {
+        attempt.setAnswersJson(null);
+
+        store.write(attempt, Map.of("103", "C"));
+
+        verify(answerJdbcRepo, never()).batchInsertIfAbsent(anyList());
+        verify(attemptJdbcRepo, never()).clearLegacyAnswers(anyList());
+        verify(answerJdbcRepo).batchUpsert(List.of(new AnswerRow(ATTEMPT, 103L, "C")));
+    }
+
+    private static List<AnswerRow> blobRows() {
+        return argThat(rows -> rows != null && Set.copyOf(rows).equals(Set.of(
+                new AnswerRow(ATTEMPT, 101L, "A"), new AnswerRow(ATTEMPT, 102L, "B"))));
+    }
+
+    private static AttemptAnswer row(Long questionId, String answer) {
+        AttemptAnswer a = new AttemptAnswer();
+        a.setAttemptId(ATTEMPT);
+        a.setQuestionId(questionId);
+        a.setAnswer(answer);
+        return a;
+    }
+
+    private static Map<String, String> cleared(String questionId) {
+        Map<String, String> changes = new HashMap<>();
+        changes.put(questionId, null);
+        return changes;
+    }
+}
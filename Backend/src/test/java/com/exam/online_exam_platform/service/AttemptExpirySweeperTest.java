@@ -0,0 +1,168 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.ActiveDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AttemptExpirySweeperTest {
+
+    private static final long GRACE_MS = 60_000;
+
+    private final ExamAttemptJdbcRepository attemptJdbcRepo = mock(ExamAttemptJdbcRepository.class);
+    private final AutosaveBuffer autosaveBuffer = mock(AutosaveBuffer.class);
+    private final ProctoringEventLog proctoringEvents = mock(ProctoringEventLog.class);
+    private final GradingQueue gradingQueue = mock(GradingQueue.class);
+    private final ExamLiveFeed liveFeed = mock(ExamLiveFeed.class);
+
+    private AttemptExpirySweeper sweeper;
+
+    @BeforeEach
+    void sweeper() {
+        sweeper = sweeper(500);
+    }
+
+    @Test
+    void takesOnlyAttemptsPastTheGracePeriod() {
+        index(deadline(1L, -GRACE_MS - 5_000), deadline(2L, -GRACE_MS / 2), deadline(3L, 600_000));
+        terminating(ids -> ids);
+
+        sweeper.sweep();
+
+        assertThat(terminated()).containsExactly(Set.of(1L));
+        verify(autosaveBuffer).flush(101L, 7L);
+        verify(gradingQueue).gradeNow(List.of(1L));
+        verify(liveFeed).publishExpired(7L, 101L, 1L);
+        verify(proctoringEvents).forget(101L, 7L);
+        assertThat(sweeper.stats()).containsEntry("indexed", 2).containsEntry("expired", 1L);
+    }
+
+    @Test
+    void expiresInBatches() {
+        sweeper = sweeper(2);
+        index(deadline(1L, -GRACE_MS - 3_000), deadline(2L, -GRACE_MS - 2_000),
+                deadline(3L, -GRACE_MS - 1_000), deadline(4L, -GRACE_MS - 500), deadline(5L, -GRACE_MS - 100));
+        terminating(ids -> ids);
+
+        sweeper.sweep();
+
+        // oldest deadline first
+        assertThat(terminated()).containsExactly(Set.of(1L, 2L), Set.of(3L, 4L), Set.of(5L));
+        assertThat(sweeper.stats()).containsEntry("indexed", 0).containsEntry("expired", 5L);
+    }
+
+    @Test
+    void attemptsNoLongerActiveAreLeftAlone() {
+        index(deadline(1L, -GRACE_MS - 1_000), deadline(2L, -GRACE_MS - 1_000));
+        // 2 was submitted meanwhile: the UPDATE skips it
+        terminating(ids -> ids.stream().filter(id -> id == 1L).toList());
+
+        sweeper.sweep();
+
+        verify(gradingQueue).gradeNow(List.of(1L));
+        verify(liveFeed).publishExpired(7L, 101L, 1L);
+        verify(liveFeed, never()).publishExpired(anyLong(), anyLong(), eq(2L));
+        verify(proctoringEvents, never()).forget(eq(102L), anyLong());
+        assertThat(sweeper.stats()).containsEntry("indexed", 0).containsEntry("expired", 1L);
+    }
+
+    @Test
+    void queuesGradingWhenTheQueueIsOn() {
+        when(gradingQueue.isEnabled()).thenReturn(true);
+        index(deadline(1L, -GRACE_MS - 1_000));
+        terminating(ids -> ids);
+
+        sweeper.sweep();
+
+        verify(gradingQueue).enqueue(eq(1L), any(Instant.class));
+        verify(gradingQueue, never()).gradeNow(anyList());
+    }
+
+    @Test
+    void failedBatchGoesBackIntoTheIndex() {
+        index(deadline(1L, -GRACE_MS - 1_000), deadline(2L, -GRACE_MS - 1_000));
+        when(attemptJdbcRepo.terminateExpired(anyCollection(), any(), any()))
+                .thenThrow(new RuntimeException("connection refused"));
+
+        sweeper.sweep();
+
+        assertThat(sweeper.stats())
+                .containsEntry("indexed", 2)
+                .containsEntry("failures", 1L)
+                .containsEntry("expired", 0L);
+        verify(liveFeed, never()).publishExpired(anyLong(), anyLong(), anyLong());
+
+        reset(attemptJdbcRepo);
+        terminating(ids -> ids);
+        sweeper.sweep();
+
+        assertThat(terminated()).containsExactly(Set.of(1L, 2L));
+        assertThat(sweeper.stats()).containsEntry("indexed", 0).containsEntry("expired", 2L);
+    }
+
+    @Test
+    void rescanDoesNotIndexTwice() {
+        index(deadline(1L, 600_000), deadline(2L, 600_000));
+        index(deadline(2L, 600_000), deadline(3L, 600_000));
+
+        assertThat(sweeper.stats()).containsEntry("indexed", 3);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private interface Terminate {
+        List<Long> apply(List<Long> ids);
+    }
+
+    private void terminating(Terminate terminate) {
+        when(attemptJdbcRepo.terminateExpired(anyCollection(), any(), any()))
+                .thenAnswer(inv -> {
+                    Collection<Long> ids = inv.getArgument(0);
+                    return new ArrayList<>(terminate.apply(ids.stream().sorted().toList()));
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Set<Long>> terminated() {
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(attemptJdbcRepo, atLeastOnce()).terminateExpired(ids.capture(), any(), any());
+        return ids.getAllValues().stream().map(c -> (Set<Long>) new HashSet<>(c)).toList();
+    }
+
+    // through the startup rescan, as one page
+    private void index(ActiveDeadline... deadlines) {
+        long last = Arrays.stream(deadlines).mapToLong(ActiveDeadline::attemptId).max().orElse(0);
+        when(attemptJdbcRepo.findActiveDeadlines(eq(0L), anyInt())).thenReturn(List.of(deadlines));
+        when(attemptJdbcRepo.findActiveDeadlines(eq(last), anyInt())).thenReturn(List.of());
+        sweeper.rebuild();
+    }
+
+    private static ActiveDeadline deadline(Long attemptId, long endsInMs) {
+        return new ActiveDeadline(attemptId, 100L + attemptId, 7L,
+                Instant.now().plus(Duration.ofMillis(endsInMs)));
+    }
+
+    private AttemptExpirySweeper sweeper(int batchSize) {
+        return new AttemptExpirySweeper(
+                attemptJdbcRepo,
+                autosaveBuffer,
+                proctoringEvents,
+                gradingQueue,
+                liveFeed,
+                new ExamMetrics(new SimpleMeterRegistry(), attemptJdbcRepo),
+                mock(PlatformTransactionManager.class),
+                true, GRACE_MS, batchSize
+        );
+    }
+}
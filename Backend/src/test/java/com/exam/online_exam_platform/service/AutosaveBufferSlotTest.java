@@ -0,0 +1,112 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.service.AutosaveBuffer.PendingAttempt;
+import com.exam.online_exam_platform.service.AutosaveBuffer.Progress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutosaveBufferSlotTest {
+
+    private ExamAttempt attempt;
+
+    @BeforeEach
+    void attempt() {
+        attempt = new ExamAttempt();
+        attempt.setEndsAt(Instant.now().plus(Duration.ofHours(1)));
+        attempt.setAutosaveSeq(3);
+        attempt.setWriteGen(7);
+    }
+
+    @Test
+    void drainsOnlyChangedQuestions() {
+        PendingAttempt slot = new PendingAttempt(attempt, Map.of("1", "A", "2", "B"));
+
+        assertThat(slot.replace(Map.of("1", "A", "2", "C", "3", "D"))).isTrue();
+
+        Progress progress = slot.drain();
+        assertThat(progress.changes()).containsOnly(Map.entry("2", "C"), Map.entry("3", "D"));
+        assertThat(progress.gen()).isEqualTo(8);
+
+        slot.written(true);
+        assertThat(slot.drain()).isNull();
+    }
+
+    @Test
+    void unchangedReplaceIsNotDirty() {
+        PendingAttempt slot = new PendingAttempt(attempt, Map.of("1", "A"));
+
+        slot.replace(Map.of("1", "A"));
+
+        assertThat(slot.drain()).isNull();
+    }
+
+    @Test
+    void clearedAnswerIsWrittenAsNull() {
+        PendingAttempt slot = new PendingAttempt(attempt, Map.of("1", "A", "2", "B"));
+
+        slot.replace(Map.of("2", "B"));
+
+        Map<String, String> cleared = new HashMap<>();
+        cleared.put("1", null);
+        assertThat(slot.drain().changes()).isEqualTo(cleared);
+    }
+
+    @Test
+    void staleAndDuplicateDeltasAreIgnored() {
+        PendingAttempt slot = new PendingAttempt(attempt, Map.of());
+
+        assertThat(slot.apply(Map.of("1", "A"), 4)).isEqualTo(4);
+        assertThat(slot.apply(Map.of("1", "B"), 4)).isEqualTo(4);
+        assertThat(slot.apply(Map.of("1", "C"), 2)).isEqualTo(4);
+
+        Progress progress = slot.drain();
+        assertThat(progress.seq()).isEqualTo(4);
+        assertThat(progress.changes()).containsOnly(Map.entry("1", "A"));
+    }
+
+    @Test
+    void failedWriteIsRetriedWithANewGeneration() {
+        PendingAttempt slot = new PendingAttempt(attempt, Map.of());
+        slot.replace(Map.of("1", "A"));
+
+        Progress first = slot.drain();
+        slot.replace(Map.of("1", "A", "2", "B"));
+        slot.written(false);
+
+        Progress retry = slot.drain();
+        assertThat(retry.changes()).containsOnlyKeys("1", "2");
+        assertThat(retry.gen()).isGreaterThan(first.gen());
+    }
+
+    @Test
+    void closeResendsInFlightKeysWithANewerGeneration() {
+        PendingAttempt slot = new PendingAttempt(attempt, Map.of());
+        slot.replace(Map.of("1", "A"));
+        Progress inFlight = slot.drain();
+
+        slot.replace(Map.of("1", "A", "2", "B"));
+        Progress last = slot.close();
+
+        assertThat(last.changes()).containsOnly(Map.entry("1", "A"), Map.entry("2", "B"));
+        // the batch still in flight can no longer overwrite this one
+        assertThat(last.gen()).isGreaterThan(inFlight.gen());
+    }
+
+    @Test
+    void closedSlotRefusesSaves() {
+        PendingAttempt slot = new PendingAttempt(attempt, Map.of());
+
+        assertThat(slot.close()).isNull();
+        assertThat(slot.replace(Map.of("1", "A"))).isFalse();
+        assertThat(slot.apply(Map.of("1", "A"), 9)).isNull();
+        assertThat(slot.drain()).isNull();
+    }
+}
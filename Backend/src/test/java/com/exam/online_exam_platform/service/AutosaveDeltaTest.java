@@ -0,0 +1,167 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.dto.ActiveAttemptRef;
+import com.exam.online_exam_platform.entity.AttemptStatus;
+import com.exam.online_exam_platform.entity.Exam;
+import com.exam.online_exam_platform.entity.ExamAttempt;
+import com.exam.online_exam_platform.entity.User;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.ProgressRow;
+import com.exam.online_exam_platform.repository.ExamAttemptRepository;
+import com.exam.online_exam_platform.repository.ExamRepository;
+import com.exam.online_exam_platform.repository.ResultRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// deltas apply in sequence order; stale, duplicate and late ones are dropped, buffered or not
+class AutosaveDeltaTest {
+
+    private static final Long STUDENT = 100L;
+    private static final Long EXAM = 7L;
+    private static final Long ATTEMPT = 5L;
+    private static final long SAVED_SEQ = 3;
+
+    private final ExamRepository examRepo = mock(ExamRepository.class);
+    private final ExamAttemptRepository attemptRepo = mock(ExamAttemptRepository.class);
+    private final ExamAttemptJdbcRepository attemptJdbcRepo = mock(ExamAttemptJdbcRepository.class);
+    private final AttemptAnswerStore answerStore = mock(AttemptAnswerStore.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @BeforeEach
+    void activeAttempt() {
+        when(attemptRepo.findActiveRef(STUDENT, EXAM)).thenReturn(Optional.of(new ActiveAttemptRef(
+                ATTEMPT, Instant.now().plus(Duration.ofHours(1)), SAVED_SEQ, 0L, null)));
+        when(answerStore.load(ATTEMPT, null)).thenReturn(Map.of("1", "A"));
+        // every progress row lands
+        when(attemptJdbcRepo.batchUpdateProgress(anyList())).thenAnswer(inv -> {
+            int[] counts = new int[((List<?>) inv.getArgument(0)).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    /* ================= BUFFERED ================= */
+
+    @Test
+    void bufferedDeltasKeepOnlyTheNewestOfEachSequence() {
+        AutosaveBuffer buffer = buffer();
+
+        assertThat(buffer.recordDelta(STUDENT, EXAM, Map.of("1", "B"), 5)).isEqualTo(5);
+        // arrives after 5: out of order
+        assertThat(buffer.recordDelta(STUDENT, EXAM, Map.of("1", "X"), 4)).isEqualTo(5);
+        // retried by the client
+        assertThat(buffer.recordDelta(STUDENT, EXAM, Map.of("2", "Y"), 5)).isEqualTo(5);
+        // gaps are fine: 6 may have been merged into 7 on the client
+        assertThat(buffer.recordDelta(STUDENT, EXAM, Map.of("2", "C"), 7)).isEqualTo(7);
+
+        buffer.flush(STUDENT, EXAM);
+
+        verify(attemptJdbcRepo).batchUpdateProgress(List.of(new ProgressRow(ATTEMPT, 7, 1)));
+        verify(answerStore).writeAll(Map.of(ATTEMPT, Map.of("1", "B", "2", "C")));
+    }
+
+    @Test
+    void bufferedDeltaAtOrBelowTheSavedSequenceIsStale() {
+        AutosaveBuffer buffer = buffer();
+
+        assertThat(buffer.recordDelta(STUDENT, EXAM, Map.of("1", "X"), SAVED_SEQ)).isEqualTo(SAVED_SEQ);
+        assertThat(buffer.recordDelta(STUDENT, EXAM, Map.of("1", "X"), 1)).isEqualTo(SAVED_SEQ);
+
+        buffer.flush(STUDENT, EXAM);
+
+        verify(attemptJdbcRepo, never()).batchUpdateProgress(anyList());
+        verify(answerStore, never()).writeAll(anyMap());
+    }
+
+    /* ================= WRITE-THROUGH ================= */
+
+    @Test
+    void writeThroughDeltasKeepOnlyTheNewestOfEachSequence() {
+        ExamAttempt attempt = writeThroughAttempt();
+        StudentExamService service = service(buffer(false));
+        User student = attempt.getStudent();
+
+        assertThat(service.autosaveDelta(EXAM, student, Map.of("1", "B"), 5)).isEqualTo(5);
+        assertThat(service.autosaveDelta(EXAM, student, Map.of("1", "X"), 4)).isEqualTo(5);
+        assertThat(service.autosaveDelta(EXAM, student, Map.of("2", "Y"), 5)).isEqualTo(5);
+        assertThat(service.autosaveDelta(EXAM, student, Map.of("1", "X"), SAVED_SEQ)).isEqualTo(5);
+        assertThat(service.autosaveDelta(EXAM, student, Map.of("2", "C"), 7)).isEqualTo(7);
+
+        var order = inOrder(answerStore);
+        order.verify(answerStore).write(attempt, Map.of("1", "B"));
+        order.verify(answerStore).write(attempt, Map.of("2", "C"));
+        verifyNoMoreInteractions(answerStore);
+
+        assertThat(attempt.getAutosaveSeq()).isEqualTo(7);
+        // one write generation per applied delta
+        assertThat(attempt.getWriteGen()).isEqualTo(2);
+    }
+
+    @Test
+    void writeThroughDeltaWithoutAnActiveAttemptIsRefused() {
+        ExamAttempt attempt = writeThroughAttempt();
+        attempt.setStatus(AttemptStatus.SUBMITTED);
+
+        assertThat(service(buffer(false)).autosaveDelta(EXAM, attempt.getStudent(), Map.of("1", "B"), 9)).isNull();
+        verify(answerStore, never()).write(any(), anyMap());
+    }
+
+    /* ================= HELPERS ================= */
+
+    private AutosaveBuffer buffer() {
+        return buffer(true);
+    }
+
+    private AutosaveBuffer buffer(boolean enabled) {
+        return new AutosaveBuffer(attemptRepo, attemptJdbcRepo, answerStore, transactionManager, enabled, 200);
+    }
+
+    private ExamAttempt writeThroughAttempt() {
+        User student = new User();
+        ReflectionTestUtils.setField(student, "id", STUDENT);
+        Exam exam = new Exam();
+        exam.setId(EXAM);
+
+        ExamAttempt attempt = new ExamAttempt();
+        ReflectionTestUtils.setField(attempt, "id", ATTEMPT);
+        attempt.setStudent(student);
+        attempt.setExam(exam);
+        attempt.setEndsAt(Instant.now().plus(Duration.ofHours(1)));
+        attempt.setAutosaveSeq(SAVED_SEQ);
+
+        when(examRepo.findById(EXAM)).thenReturn(Optional.of(exam));
+        when(attemptRepo.findForUpdate(student, exam)).thenReturn(Optional.of(attempt));
+        return attempt;
+    }
+
+    private StudentExamService service(AutosaveBuffer buffer) {
+        return new StudentExamService(
+                examRepo,
+                attemptRepo,
+                mock(QuestionCache.class),
+                mock(ResultRepository.class),
+                answerStore,
+                buffer,
+                mock(GradingService.class),
+                mock(GradingQueue.class),
+                mock(DashboardAggregates.class),
+                mock(ProctoringEventLog.class),
+                mock(ExamLiveFeed.class),
+                mock(AttemptExpirySweeper.class),
+                transactionManager
+        );
+    }
+}
@@ -0,0 +1,153 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.Result;
+import com.exam.online_exam_platform.service.DashboardAggregates.StudentAverage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class DashboardAggregatesTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T10:00:00Z");
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void schema() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:dashboard;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS results");
+        jdbcTemplate.execute("""
+                CREATE TABLE results (
+                    id BIGINT PRIMARY KEY,
+                    exam_id BIGINT NOT NULL,
+                    user_id BIGINT NOT NULL,
+                    score INT NOT NULL,
+                    submitted_at TIMESTAMP WITH TIME ZONE
+                )
+                """);
+    }
+
+    @Test
+    void recordedResultsUpdateEveryAggregate() {
+        DashboardAggregates aggregates = aggregates(jdbcTemplate);
+
+        aggregates.record(List.of(
+                result(1L, 10L, 100L, 80, T0),
+                result(2L, 10L, 101L, 30, T0.plusSeconds(60)),
+                result(3L, 11L, 100L, 40, T0.plusSeconds(30))
+        ));
+
+        assertThat(aggregates.averageScore()).isEqualTo(50.0);
+        assertThat(aggregates.passRate()).isEqualTo(200.0 / 3);
+        assertThat(aggregates.recentExams(5))
+                .extracting(DashboardAggregates.ExamActivity::examId).containsExactly(10L, 11L);
+        assertThat(aggregates.topStudents(1)).containsExactly(new StudentAverage(100L, 60.0, 2));
+        assertThat(aggregates.bottomStudents(1)).containsExactly(new StudentAverage(101L, 30.0, 1));
+    }
+
+    @Test
+    void rebuildMatchesTheTable() {
+        insert(result(1L, 10L, 100L, 80, T0), result(2L, 10L, 101L, 30, null), result(7L, 11L, 100L, 40, T0));
+        DashboardAggregates aggregates = aggregates(jdbcTemplate);
+
+        assertThat(aggregates.rebuild())
+                .containsEntry("status", "REBUILT")
+                .containsEntry("results", 3L)
+                .containsEntry("replayed", 0);
+        assertThat(aggregates.averageScore()).isEqualTo(50.0);
+        assertThat(aggregates.topStudents(2)).extracting(StudentAverage::studentId).containsExactly(100L, 101L);
+    }
+
+    @Test
+    void resultsCommittedDuringTheScanAreCountedOnce() throws Exception {
+        Result seen = result(2L, 10L, 101L, 30, T0);
+        Result unseen = result(3L, 10L, 102L, 90, T0);
+        insert(result(1L, 10L, 100L, 60, T0), seen);
+
+        JdbcTemplate scanning = spy(jdbcTemplate);
+        DashboardAggregates aggregates = aggregates(scanning);
+
+        // two commits land while the scan runs; only the first is in its snapshot
+        doAnswer(inv -> {
+            Thread committer = new Thread(() -> aggregates.record(List.of(seen, unseen)));
+            committer.start();
+            committer.join();
+            return inv.callRealMethod();
+        }).when(scanning).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertThat(aggregates.rebuild())
+                .containsEntry("results", 3L)
+                .containsEntry("replayed", 1);
+        assertThat(aggregates.averageScore()).isEqualTo(60.0);
+    }
+
+    @Test
+    void idRangesHandleGapsAndLargeIds() {
+        DashboardAggregates.IdRanges ids = new DashboardAggregates.IdRanges();
+        long big = 5_000_000_000L;
+        for (long id = 1; id <= 1_000; id++) ids.add(id);
+        for (long id = 1_500; id <= 1_600; id++) ids.add(id);
+        ids.add(big);
+        ids.add(big + 1);
+
+        assertThat(ids.ranges()).isEqualTo(3);
+        assertThat(ids.contains(1)).isTrue();
+        assertThat(ids.contains(1_000)).isTrue();
+        assertThat(ids.contains(1_001)).isFalse();
+        assertThat(ids.contains(1_550)).isTrue();
+        assertThat(ids.contains(big + 1)).isTrue();
+        assertThat(ids.contains(big + 2)).isFalse();
+        assertThat(ids.contains(0)).isFalse();
+    }
+
+    @Test
+    void idRangesGrowPastTheirInitialSize() {
+        DashboardAggregates.IdRanges ids = new DashboardAggregates.IdRanges();
+        for (long id = 0; id < 100; id++) ids.add(id * 10);
+
+        assertThat(ids.ranges()).isEqualTo(100);
+        assertThat(ids.contains(990)).isTrue();
+        assertThat(ids.contains(995)).isFalse();
+    }
+
+    /* ================= HELPERS ================= */
+
+    private DashboardAggregates aggregates(JdbcTemplate template) {
+        return new DashboardAggregates(template, new DataSourceTransactionManager(dataSource));
+    }
+
+    private void insert(Result... results) {
+        for (Result r : results) {
+            jdbcTemplate.update("INSERT INTO results (id, exam_id, user_id, score, submitted_at) VALUES (?, ?, ?, ?, ?)",
+                    r.getId(), r.getExamId(), r.getStudentId(), r.getScore(),
+                    r.getSubmittedAt() == null ? null : Timestamp.from(r.getSubmittedAt()));
+        }
+    }
+
+    private static Result result(Long id, Long examId, Long studentId, int score, Instant submittedAt) {
+        Result r = new Result();
+        ReflectionTestUtils.setField(r, "id", id);
+        r.setExamId(examId);
+        r.setStudentId(studentId);
+        r.setScore(score);
+        r.setSubmittedAt(submittedAt);
+        return r;
+    }
+}
@@ -0,0 +1,164 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.AttemptStatus;
+import com.exam.online_exam_platform.entity.User;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.LiveAttemptRow;
+import com.exam.online_exam_platform.service.ExamLiveFeed.AttemptUpdate;
+import com.exam.online_exam_platform.service.ExamLiveFeed.Change;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExamLiveFeedTest {
+
+    private static final Long EXAM = 7L;
+
+    private final ExamAttemptJdbcRepository attemptJdbcRepo = mock(ExamAttemptJdbcRepository.class);
+    private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+    private ExamLiveFeed feed;
+
+    private record Event(String name, List<Object> data) {}
+
+    @AfterEach
+    void shutdown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (feed != null) feed.shutdown();
+    }
+
+    @Test
+    void changesToOneStudentMergeUntilTheNextSend() throws InterruptedException {
+        feed = feed(200);
+        feed.subscribe(EXAM);
+        assertThat(next().name()).isEqualTo("snapshot");
+
+        feed.publish(EXAM, student(1L, "Asha"), Change.AUTOSAVED);
+        feed.publishViolations(EXAM, 1L, 11L, 2);
+        feed.publishExpired(EXAM, 2L, 12L);
+
+        Event attempts = next();
+        assertThat(attempts.name()).isEqualTo("attempts");
+        assertThat(attempts.data()).hasSize(2).contains(
+                // the name from the first change, the violations from the second
+                new AttemptUpdate(1L, "Asha", 11L, Change.VIOLATION, null, 2, at(attempts, 1L)),
+                new AttemptUpdate(2L, null, 12L, Change.TERMINATED, AttemptStatus.TERMINATED, null, at(attempts, 2L)));
+        assertThat(feed.stats()).containsEntry("coalesced", 1L);
+    }
+
+    @Test
+    void changesWhileTheSnapshotIsReadFollowIt() throws InterruptedException {
+        feed = feed(0);
+        when(attemptJdbcRepo.findLiveStates(EXAM)).thenAnswer(inv -> {
+            feed.publishViolations(EXAM, 1L, 11L, 3);
+            return List.of(new LiveAttemptRow(11L, 1L, "Asha", AttemptStatus.ACTIVE, 2,
+                    Instant.parse("2026-01-01T10:00:00Z"), null));
+        });
+
+        feed.subscribe(EXAM);
+
+        Event snapshot = next();
+        assertThat(snapshot.name()).isEqualTo("snapshot");
+        assertThat(((AttemptUpdate) snapshot.data().get(0)).violations()).isEqualTo(2);
+
+        Event attempts = next();
+        assertThat(attempts.name()).isEqualTo("attempts");
+        assertThat(((AttemptUpdate) attempts.data().get(0)).violations()).isEqualTo(3);
+    }
+
+    @Test
+    void changesInsideATransactionWaitForTheCommit() throws InterruptedException {
+        feed = feed(0);
+        feed.subscribe(EXAM);
+        next();
+
+        TransactionSynchronizationManager.initSynchronization();
+        feed.publishViolations(EXAM, 1L, 11L, 1);
+        List<TransactionSynchronization> rolledBack = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        feed.publishViolations(EXAM, 2L, 12L, 1);
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(rolledBack).hasSize(1);
+        committed.forEach(TransactionSynchronization::afterCommit);
+
+        // one send carries everything offered so far: only the committed change is in it
+        assertThat(next().data()).extracting("studentId").containsExactly(2L);
+        assertThat(events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void nobodyWatchingPublishesNothing() {
+        feed = feed(0);
+
+        feed.publishViolations(EXAM, 1L, 11L, 1);
+
+        assertThat(feed.stats()).containsEntry("published", 0L).containsEntry("exams", 0);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private ExamLiveFeed feed(long intervalMs) {
+        return new ExamLiveFeed(attemptJdbcRepo, mock(PlatformTransactionManager.class), intervalMs, 60_000, 10, 1) {
+            @Override
+            SseEmitter newEmitter() {
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        String name = null;
+                        List<Object> data = null;
+                        for (DataWithMediaType part : builder.build()) {
+                            if (part.getData() instanceof String text && text.startsWith("event:")) {
+                                name = text.substring("event:".length(), text.indexOf('\n'));
+                            } else if (part.getData() instanceof List<?> list) {
+                                data = List.copyOf(list);
+                            }
+                        }
+                        events.add(new Event(name, data));
+                    }
+                };
+            }
+        };
+    }
+
+    private Event next() throws InterruptedException {
+        Event event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event).isNotNull();
+        return event;
+    }
+
+    private static Instant at(Event event, Long studentId) {
+        return event.data().stream()
+                .map(AttemptUpdate.class::cast)
+                .filter(u -> u.studentId().equals(studentId))
+                .findFirst().orElseThrow()
+                .at();
+    }
+
+    private static User student(Long id, String name) {
+        User u = new User();
+        ReflectionTestUtils.setField(u, "id", id);
+        u.setName(name);
+        return u;
+    }
+}
@@ -0,0 +1,108 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository.UngradedAttempt;
+import com.exam.online_exam_platform.repository.ExamAttemptRepository;
+import com.exam.online_exam_platform.repository.ResultRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// the workers are never started (run() is not called), so the queue only fills
+class GradingQueueTest {
+
+    private final ExamAttemptJdbcRepository attemptJdbcRepo = mock(ExamAttemptJdbcRepository.class);
+    private GradingQueue queue;
+
+    @AfterEach
+    void shutdown() {
+        if (queue != null) queue.shutdown();
+    }
+
+    @Test
+    void queuesEachAttemptOnce() {
+        queue = queue(10);
+
+        queue.enqueue(1L, Instant.now());
+        queue.enqueue(1L, Instant.now());
+        queue.enqueue(2L, Instant.now());
+
+        assertThat(queue.isQueued(1L)).isTrue();
+        assertThat(queue.stats()).containsEntry("queueDepth", 2);
+    }
+
+    @Test
+    void fullQueueDropsTheAttemptForTheSweep() {
+        queue = queue(2);
+
+        queue.enqueue(1L, Instant.now());
+        queue.enqueue(2L, Instant.now());
+        queue.enqueue(3L, Instant.now());
+
+        assertThat(queue.isQueued(3L)).isFalse();
+        assertThat(queue.stats())
+                .containsEntry("queueDepth", 2)
+                .containsEntry("overflowed", 1L);
+    }
+
+    @Test
+    void recoverPagesThroughUngradedAttempts() {
+        queue = queue(10);
+        Instant at = Instant.now();
+        queue.enqueue(2L, at);
+
+        when(attemptJdbcRepo.findUngraded(eq(0L), anyInt()))
+                .thenReturn(List.of(new UngradedAttempt(1L, at), new UngradedAttempt(2L, at)));
+        when(attemptJdbcRepo.findUngraded(eq(2L), anyInt()))
+                .thenReturn(List.of(new UngradedAttempt(5L, at)));
+        when(attemptJdbcRepo.findUngraded(eq(5L), anyInt()))
+                .thenReturn(List.of());
+
+        queue.recover();
+
+        assertThat(queue.isQueued(1L)).isTrue();
+        assertThat(queue.isQueued(5L)).isTrue();
+        assertThat(queue.stats()).containsEntry("queueDepth", 3);
+    }
+
+    @Test
+    void recoverStopsWhenTheQueueIsFull() {
+        queue = queue(2);
+        Instant at = Instant.now();
+
+        when(attemptJdbcRepo.findUngraded(anyLong(), anyInt())).thenReturn(List.of(
+                new UngradedAttempt(1L, at), new UngradedAttempt(2L, at), new UngradedAttempt(3L, at)));
+
+        queue.recover();
+
+        assertThat(queue.isQueued(3L)).isFalse();
+        assertThat(queue.stats())
+                .containsEntry("queueDepth", 2)
+                .containsEntry("overflowed", 0L);
+    }
+
+    private GradingQueue queue(int capacity) {
+        return new GradingQueue(
+                mock(ExamAttemptRepository.class),
+                attemptJdbcRepo,
+                mock(ResultRepository.class),
+                mock(AttemptAnswerStore.class),
+                mock(GradingService.class),
+                mock(DashboardAggregates.class),
+                new ExamMetrics(new SimpleMeterRegistry(), attemptJdbcRepo),
+                mock(PlatformTransactionManager.class),
+                true, 1, 10, capacity
+        );
+    }
+}
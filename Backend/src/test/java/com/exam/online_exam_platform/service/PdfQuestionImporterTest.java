@@ -0,0 +1,130 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.repository.ExamRepository;
+import com.exam.online_exam_platform.repository.QuestionJdbcRepository;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PdfQuestionImporterTest {
+
+    private static final Long EXAM = 7L;
+
+    private static final String GOOD = """
+            Q1. What is the capital of France?
+            A. Berlin
+            B. Paris
+            C. Rome
+            D. Madrid
+            ANSWER: Paris
+            """;
+
+    // the answer is not one of the options
+    private static final String BAD = """
+            Q2. What is the capital of Spain?
+            A. Berlin
+            B. Paris
+            C. Rome
+            D. Lisbon
+            ANSWER: Madrid
+            """;
+
+    @TempDir
+    Path dir;
+
+    private final ExamRepository examRepository = mock(ExamRepository.class);
+    private final QuestionJdbcRepository questionJdbcRepository = mock(QuestionJdbcRepository.class);
+    private final QuestionCache questionCache = mock(QuestionCache.class);
+
+    private PdfQuestionImporter importer;
+
+    @BeforeEach
+    void importer() {
+        when(examRepository.existsById(EXAM)).thenReturn(true);
+        importer = new PdfQuestionImporter(examRepository, questionJdbcRepository, questionCache,
+                mock(PlatformTransactionManager.class), 10, 500, 1);
+    }
+
+    @AfterEach
+    void shutdown() {
+        importer.shutdown();
+    }
+
+    @Test
+    void malformedQuestionsCountAsFailedNotParsed() throws IOException {
+        PdfQuestionImporter.Progress progress = new PdfQuestionImporter.Progress();
+
+        importer.importPdf(EXAM, pdf(GOOD + BAD), progress, p -> {});
+
+        assertThat(progress.toMap())
+                .containsEntry("parsed", 1L)
+                .containsEntry("imported", 1L)
+                .containsEntry("failed", 1L)
+                .containsEntry("done", true);
+        verify(questionCache).invalidate(EXAM);
+    }
+
+    @Test
+    void nothingValidToImportFails() throws IOException {
+        PdfQuestionImporter.Progress progress = new PdfQuestionImporter.Progress();
+
+        assertThatThrownBy(() -> importer.importPdf(EXAM, pdf(BAD), progress, p -> {}))
+                .hasMessage("No questions imported, 1 failed");
+        assertThat(progress.toMap()).containsEntry("parsed", 0L).containsEntry("failed", 1L);
+        verifyNoInteractions(questionJdbcRepository);
+    }
+
+    @Test
+    void everyRowRejectedByTheDatabaseFails() throws IOException {
+        doThrow(new RuntimeException("constraint")).when(questionJdbcRepository).batchInsert(eq(EXAM), anyList());
+        PdfQuestionImporter.Progress progress = new PdfQuestionImporter.Progress();
+
+        assertThatThrownBy(() -> importer.importPdf(EXAM, pdf(GOOD), progress, p -> {}))
+                .hasMessage("No questions imported, 1 failed");
+        verify(questionCache, never()).invalidate(any());
+    }
+
+    @Test
+    void emptyPdfFindsNoQuestions() throws IOException {
+        assertThatThrownBy(() -> importer.importPdf(EXAM, pdf("Nothing to see here"),
+                new PdfQuestionImporter.Progress(), p -> {}))
+                .hasMessage("No questions found in PDF");
+    }
+
+    /* ================= HELPERS ================= */
+
+    private Path pdf(String text) throws IOException {
+        Path file = dir.resolve("questions.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 11);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 720);
+                for (String line : text.split("\n")) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
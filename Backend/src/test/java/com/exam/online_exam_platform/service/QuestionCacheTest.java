@@ -0,0 +1,141 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.entity.Question;
+import com.exam.online_exam_platform.repository.QuestionRepository;
+import com.exam.online_exam_platform.service.QuestionCache.QuestionSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class QuestionCacheTest {
+
+    private static final Long EXAM = 7L;
+
+    private final QuestionRepository questionRepo = mock(QuestionRepository.class);
+    private final QuestionCache cache = new QuestionCache(questionRepo, 10);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsServedButNotCached() {
+        when(questionRepo.findByExamId(EXAM))
+                .thenAnswer(inv -> {
+                    // an admin edit lands while the rows are being read
+                    cache.invalidate(EXAM);
+                    return List.of(question(1L, "old"));
+                })
+                .thenReturn(List.of(question(1L, "new")));
+
+        assertThat(text(cache.get(EXAM))).isEqualTo("old");
+        assertThat(text(cache.get(EXAM))).isEqualTo("new");
+        assertThat(text(cache.get(EXAM))).isEqualTo("new");
+
+        verify(questionRepo, times(2)).findByExamId(EXAM);
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMissesShareOneQuery() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(questionRepo.findByExamId(EXAM)).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(question(1L, "Q"));
+        });
+
+        CompletableFuture<QuestionSet> first = CompletableFuture.supplyAsync(() -> cache.get(EXAM));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<CompletableFuture<QuestionSet>> waiters = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<QuestionSet> w = new CompletableFuture<>();
+            waiters.add(w);
+            Thread t = new Thread(() -> w.complete(cache.get(EXAM)));
+            threads.add(t);
+            t.start();
+        }
+        // every one of them is parked on the first load
+        for (Thread t : threads) {
+            while (t.getState() != Thread.State.WAITING) Thread.onSpinWait();
+        }
+        release.countDown();
+
+        QuestionSet loaded = first.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<QuestionSet> w : waiters) {
+            assertThat(w.get(5, TimeUnit.SECONDS)).isSameAs(loaded);
+        }
+        verify(questionRepo, times(1)).findByExamId(EXAM);
+        assertThat(cache.missCount()).isEqualTo(4);
+    }
+
+    @Test
+    void setReadBeforeTheWriterCommitsIsDroppedAfterCommit() {
+        when(questionRepo.findByExamId(EXAM))
+                .thenReturn(List.of(question(1L, "old")))
+                .thenReturn(List.of(question(1L, "old")))
+                .thenReturn(List.of(question(1L, "new")));
+        cache.get(EXAM);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(EXAM);
+
+        // a reader between the writer's invalidate and its commit still sees the old rows
+        assertThat(text(cache.get(EXAM))).isEqualTo("old");
+        assertThat(text(cache.get(EXAM))).isEqualTo("old");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(text(cache.get(EXAM))).isEqualTo("new");
+        verify(questionRepo, times(3)).findByExamId(EXAM);
+    }
+
+    @Test
+    void leastRecentlyUsedExamIsEvicted() {
+        QuestionCache small = new QuestionCache(questionRepo, 2);
+        when(questionRepo.findByExamId(anyLong())).thenReturn(List.of(question(1L, "Q")));
+
+        small.get(1L);
+        small.get(2L);
+        small.get(1L);
+        small.get(3L);
+
+        assertThat(small.stats()).containsEntry("size", 2);
+        small.get(1L);
+        small.get(2L);
+        verify(questionRepo, times(2)).findByExamId(2L);
+        verify(questionRepo, times(1)).findByExamId(1L);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private static String text(QuestionSet set) {
+        return set.questions().get(0).questionText();
+    }
+
+    private static Question question(Long id, String text) {
+        Question q = new Question();
+        q.setId(id);
+        q.setQuestionText(text);
+        q.setOptionA("A");
+        q.setOptionB("B");
+        q.setOptionC("C");
+        q.setOptionD("D");
+        q.setCorrectAnswer("A");
+        return q;
+    }
+}
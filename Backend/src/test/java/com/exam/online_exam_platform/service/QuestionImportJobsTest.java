@@ -0,0 +1,160 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.config.JacksonConfig;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ExamRepository;
+import com.exam.online_exam_platform.service.PdfQuestionImporter.Progress;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class QuestionImportJobsTest {
+
+    private static final Long EXAM = 7L;
+
+    private final ExamRepository examRepository = mock(ExamRepository.class);
+    private final PdfQuestionImporter importer = mock(PdfQuestionImporter.class);
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    // the import holds its thread until released (or cancelled)
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private QuestionImportJobs jobs;
+
+    @BeforeEach
+    void jobs() {
+        when(examRepository.existsById(EXAM)).thenReturn(true);
+        when(importer.importPdf(eq(EXAM), any(), any(), any())).thenAnswer(inv -> {
+            Progress progress = inv.getArgument(2);
+            Consumer<Progress> listener = inv.getArgument(3);
+            started.countDown();
+            listener.accept(progress);
+            try {
+                while (!progress.isCancelled() && !release.await(10, TimeUnit.MILLISECONDS)) {
+                    Thread.onSpinWait();
+                }
+            } catch (InterruptedException e) {
+                // shutdown
+            }
+            return progress;
+        });
+
+        // one running, one waiting
+        jobs = new QuestionImportJobs(examRepository, importer, objectMapper,
+                new ExamMetrics(new SimpleMeterRegistry(), mock(ExamAttemptJdbcRepository.class)), 1, 1);
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        jobs.shutdown();
+    }
+
+    @Test
+    void importsBeyondTheQueueAreRefused() throws Exception {
+        String running = submit();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        submit();
+
+        assertThatThrownBy(this::submit).hasMessageContaining("Too many imports queued");
+        assertThat(jobs.stats()).containsEntry("tracked", 2).containsEntry("queued", 1);
+
+        release.countDown();
+        assertThat(finalStatus(running)).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void queuedJobCancelledNeverRuns() throws Exception {
+        String running = submit();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        String queued = submit();
+
+        assertThat(jobs.cancel(EXAM, queued)).containsEntry("status", QuestionImportJobs.Status.CANCELLED);
+        assertThatThrownBy(() -> jobs.cancel(EXAM, queued)).hasMessageContaining("already finished");
+
+        release.countDown();
+        assertThat(finalStatus(running)).isEqualTo("COMPLETED");
+        // the cancelled job keeps its place in the queue until the worker skips it
+        while (!jobs.stats().get("queued").equals(0)) Thread.onSpinWait();
+        assertThat(finalStatus(submit())).isEqualTo("COMPLETED");
+        verify(importer, times(2)).importPdf(eq(EXAM), any(), any(), any());
+        assertThat(jobs.status(EXAM, queued)).containsEntry("status", QuestionImportJobs.Status.CANCELLED);
+    }
+
+    @Test
+    void runningJobCancelledStopsTheImport() throws Exception {
+        String running = submit();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        jobs.cancel(EXAM, running);
+
+        assertThat(finalStatus(running)).isEqualTo("CANCELLED");
+    }
+
+    @Test
+    void statusStreamEndsOnceTheJobFinishes() throws Exception {
+        String running = submit();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Thread stream = new Thread(() -> jobs.streamStatus(EXAM, running, out));
+        stream.start();
+        while (out.size() == 0) Thread.onSpinWait();
+
+        release.countDown();
+        stream.join(5_000);
+        assertThat(stream.isAlive()).isFalse();
+
+        List<String> statuses = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+            statuses.add(objectMapper.readTree(line).get("status").asText());
+        }
+        assertThat(statuses).first().isEqualTo("RUNNING");
+        assertThat(statuses).last().isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void jobsAreScopedToTheirExam() throws Exception {
+        String running = submit();
+
+        assertThatThrownBy(() -> jobs.status(8L, running)).hasMessageContaining("not found");
+        assertThatThrownBy(() -> jobs.cancel(8L, running)).hasMessageContaining("not found");
+    }
+
+    /* ================= HELPERS ================= */
+
+    private String submit() {
+        MockMultipartFile pdf = new MockMultipartFile("file", "questions.pdf", "application/pdf", new byte[]{1, 2, 3});
+        Map<String, Object> status = jobs.submit(EXAM, pdf);
+        return (String) status.get("jobId");
+    }
+
+    // follows the status stream to its last line
+    private String finalStatus(String jobId) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        jobs.streamStatus(EXAM, jobId, out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        JsonNode last = objectMapper.readTree(lines.get(lines.size() - 1));
+        return last.get("status").asText();
+    }
+}
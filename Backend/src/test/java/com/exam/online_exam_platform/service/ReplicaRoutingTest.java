@@ -0,0 +1,123 @@
+package com.exam.online_exam_platform.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingTest {
+
+    private static final long MAX_LAG_MS = 1_000;
+
+    private final HikariDataSource primary = mock(HikariDataSource.class);
+    private final HikariDataSource replica = mock(HikariDataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ResultSet check = mock(ResultSet.class);
+
+    private ReplicaRouting routing;
+
+    @BeforeEach
+    void routing() throws SQLException {
+        Statement st = mock(Statement.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(st);
+        when(st.executeQuery(anyString())).thenReturn(check);
+
+        routing = new ReplicaRouting(primary, replica, MAX_LAG_MS, 2);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void caughtUpStandbyTakesReads() throws SQLException {
+        replicaReports(true, "streaming", true, 60_000);
+
+        assertThat(readConnection()).isSameAs(replicaConnection);
+        assertThat(routing.stats()).containsEntry("state", "UP").containsEntry("lagMs", 0L);
+    }
+
+    @Test
+    void writesNeverGoToTheReplica() throws SQLException {
+        replicaReports(true, "streaming", true, 0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        assertThat(readConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void replayBehindByMoreThanTheToleranceFallsBack() throws SQLException {
+        replicaReports(true, "streaming", false, 5_000);
+
+        assertThat(readConnection()).isSameAs(primaryConnection);
+        assertThat(routing.stats()).containsEntry("state", "LAGGING").containsEntry("lagMs", 5_000L);
+    }
+
+    @Test
+    void replayBehindWithinTheToleranceKeepsTheReplica() throws SQLException {
+        replicaReports(true, "streaming", false, 400);
+
+        assertThat(readConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void disconnectedReceiverIsNotCaughtUp() throws SQLException {
+        // receive = replay, but nothing arrives from the primary any more
+        replicaReports(true, "waiting", true, 0);
+        assertThat(readConnection()).isSameAs(primaryConnection);
+
+        replicaReports(true, null, true, 0);
+        assertThat(readConnection()).isSameAs(primaryConnection);
+        assertThat(routing.stats()).containsEntry("state", "LAGGING");
+
+        replicaReports(true, "streaming", true, 0);
+        assertThat(readConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void failedCheckTakesTheReplicaOut() throws SQLException {
+        replicaReports(true, "streaming", true, 0);
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        routing.checkLag();
+
+        assertThat(routing.stats()).containsEntry("state", "DOWN").containsEntry("lagMs", -1L);
+        assertThat(readConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void noReadsOnTheReplicaBeforeTheFirstCheck() throws SQLException {
+        assertThat(readConnection()).isSameAs(primaryConnection);
+        verify(replica, never()).getConnection();
+    }
+
+    /* ================= HELPERS ================= */
+
+    private void replicaReports(boolean inRecovery, String receiverStatus, boolean replayedAll, long replayAgeMs)
+            throws SQLException {
+        when(check.next()).thenReturn(true);
+        when(check.getBoolean(1)).thenReturn(inRecovery);
+        when(check.getString(2)).thenReturn(receiverStatus);
+        when(check.getBoolean(3)).thenReturn(replayedAll);
+        when(check.getLong(4)).thenReturn(replayAgeMs);
+        routing.checkLag();
+    }
+
+    private Connection readConnection() throws SQLException {
+        return routing.routingDataSource().getConnection();
+    }
+}
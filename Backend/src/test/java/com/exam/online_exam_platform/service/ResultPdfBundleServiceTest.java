@@ -0,0 +1,122 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.dto.ResultPdfDTO;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.repository.ResultExportJdbcRepository;
+import com.exam.online_exam_platform.repository.ResultExportJdbcRepository.ResultPdfRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResultPdfBundleServiceTest {
+
+    private static final Long EXAM = 7L;
+
+    private final ResultExportJdbcRepository exportRepository = mock(ResultExportJdbcRepository.class);
+    private ResultPdfBundleService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) service.shutdown();
+    }
+
+    @Test
+    void slotIsTakenUntilTheBundleIsWritten() {
+        service = service(1, 60_000);
+        service.start(EXAM);
+
+        assertThatThrownBy(() -> service.start(EXAM)).hasMessageContaining("Too many PDF bundles");
+    }
+
+    @Test
+    void bundleNeverWrittenGivesItsSlotBack() {
+        service = service(1, 0);
+        ResultPdfBundleService.Bundle lost = service.start(EXAM);
+
+        ResultPdfBundleService.Bundle next = service.start(EXAM);
+
+        assertThat(service.status(lost.getId())).containsEntry("status", "ABANDONED");
+        assertThat(service.status(next.getId())).containsEntry("status", "RUNNING");
+        // the streaming body turning up late must not run a bundle that no longer holds a slot
+        assertThatThrownBy(() -> service.write(lost, new ByteArrayOutputStream()))
+                .hasMessageContaining("not started in time");
+    }
+
+    @Test
+    void writesEveryStatementAndTheirTimings() throws IOException {
+        service = service(1, 60_000);
+        List<ResultPdfRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) rows.add(row(id));
+        when(exportRepository.findPdfRows(eq(EXAM), anyLong(), anyInt())).thenReturn(rows).thenReturn(List.of());
+
+        ResultPdfBundleService.Bundle bundle = service.start(EXAM);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.write(bundle, out);
+
+        Map<String, byte[]> entries = unzip(out.toByteArray());
+        assertThat(entries).hasSize(6).containsKey("105-result-3-Student_3.pdf");
+
+        List<String> timings = new String(entries.get("render-timings.csv"), StandardCharsets.UTF_8).lines().toList();
+        assertThat(timings).first().isEqualTo("# status=COMPLETED");
+        assertThat(timings).hasSize(2 + 5);
+
+        assertThat(service.status(bundle.getId())).containsEntry("written", 5L);
+        assertThat(spooled(bundle)).isEmpty();
+        // slot released
+        service.start(EXAM);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private ResultPdfBundleService service(int maxConcurrent, long startTimeoutMs) {
+        return new ResultPdfBundleService(
+                exportRepository,
+                new ExamMetrics(new SimpleMeterRegistry(), mock(ExamAttemptJdbcRepository.class)),
+                1, 2, maxConcurrent, startTimeoutMs
+        );
+    }
+
+    private static ResultPdfRow row(long resultId) {
+        return new ResultPdfRow(resultId, 102 + resultId, new ResultPdfDTO(
+                "Student " + resultId, "s" + resultId + "@example.com", "Algebra",
+                60, "PASS", 10, 6, 0, Instant.parse("2026-01-01T10:00:00Z")));
+    }
+
+    private static Map<String, byte[]> unzip(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry e; (e = in.getNextEntry()) != null; ) {
+                entries.put(e.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    private static List<Path> spooled(ResultPdfBundleService.Bundle bundle) throws IOException {
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir"));
+        try (Stream<Path> files = Files.list(tmp)) {
+            return files.filter(f -> f.getFileName().toString().startsWith("pdf-bundle-" + bundle.getId())).toList();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.dto.ResultPdfDTO;
+import com.exam.online_exam_platform.repository.ExamAttemptJdbcRepository;
+import com.exam.online_exam_platform.util.ResultPdfGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ResultPdfCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void totalBytesEvictTheLeastRecentlyServedStatement() throws IOException {
+        ResultPdfCache unbounded = cache(Long.MAX_VALUE);
+        serve(unbounded, 1L);
+        serve(unbounded, 2L);
+        long bytes = (long) unbounded.stats().get("bytes");
+
+        // room for two and a half statements
+        ResultPdfCache cache = cache(bytes * 5 / 4);
+        assertThat(cache.stats()).containsEntry("files", 2);
+
+        serve(cache, 1L);
+        serve(cache, 3L);
+
+        assertThat(cache.stats())
+                .containsEntry("hits", 1L)
+                .containsEntry("misses", 1L)
+                .containsEntry("evictions", 1L)
+                .containsEntry("files", 2);
+        assertThat(pdfs()).hasSize(2).noneMatch(name -> name.startsWith("r2-"));
+
+        serve(cache, 1L);
+        serve(cache, 2L);
+        assertThat(cache.stats()).containsEntry("hits", 2L).containsEntry("misses", 2L);
+    }
+
+    @Test
+    void restartReindexesOldestFirstAndDropsLeftoverTempFiles() throws IOException {
+        Files.write(dir.resolve("render-123.tmp"), new byte[10]);
+        Files.write(dir.resolve("notes.txt"), new byte[10]);
+        Path older = Files.write(dir.resolve("r1-t1-old.pdf"), new byte[100]);
+        Path newer = Files.write(dir.resolve("r2-t1-new.pdf"), new byte[100]);
+        Files.setLastModifiedTime(older, FileTime.from(Instant.now().minusSeconds(60)));
+        Files.setLastModifiedTime(newer, FileTime.from(Instant.now()));
+
+        ResultPdfCache cache = cache(150);
+
+        // the newest file is the last one to go
+        assertThat(cache.stats()).containsEntry("files", 1).containsEntry("bytes", 100L);
+        assertThat(Files.exists(older)).isFalse();
+        assertThat(Files.exists(newer)).isTrue();
+        assertThat(Files.exists(dir.resolve("render-123.tmp"))).isFalse();
+        assertThat(Files.exists(dir.resolve("notes.txt"))).isTrue();
+    }
+
+    @Test
+    void failedDiskWriteStillServesTheWholeStatement() throws IOException {
+        ResultPdfCache cache = new ResultPdfCache(dir.toString(), Long.MAX_VALUE, metrics()) {
+            @Override
+            OutputStream openTemp(Path temp) throws IOException {
+                return new FailingAfter(super.openTemp(temp), 100);
+            }
+        };
+
+        MockHttpServletResponse response = serve(cache, 1L);
+
+        byte[] pdf = response.getContentAsByteArray();
+        assertThat(pdf).hasSize(ResultPdfGenerator.generate(dto(1L)).length);
+        assertThat(new String(pdf, StandardCharsets.ISO_8859_1)).startsWith("%PDF").contains("%%EOF");
+
+        assertThat(cache.stats()).containsEntry("files", 0).containsEntry("bytes", 0L);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+
+        // and the next request renders again
+        serve(cache, 1L);
+        assertThat(cache.stats()).containsEntry("misses", 2L);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private ResultPdfCache cache(long maxBytes) {
+        return new ResultPdfCache(dir.toString(), maxBytes, metrics());
+    }
+
+    private static ExamMetrics metrics() {
+        return new ExamMetrics(new SimpleMeterRegistry(), mock(ExamAttemptJdbcRepository.class));
+    }
+
+    private static MockHttpServletResponse serve(ResultPdfCache cache, Long resultId) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.serve(resultId, dto(resultId), new MockHttpServletRequest(), response);
+        return response;
+    }
+
+    private static ResultPdfDTO dto(Long resultId) {
+        return new ResultPdfDTO("Student " + resultId, "s" + resultId + "@example.com", "Algebra",
+                60, "PASS", 10, 6, 0, Instant.parse("2026-01-01T10:00:00Z"));
+    }
+
+    private List<String> pdfs() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(f -> f.getFileName().toString()).filter(n -> n.endsWith(".pdf")).toList();
+        }
+    }
+
+    // a disk that fills up part way through the statement
+    private static final class FailingAfter extends FilterOutputStream {
+
+        private long left;
+
+        FailingAfter(OutputStream out, long bytes) {
+            super(out);
+            this.left = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (left-- <= 0) throw new IOException("No space left on device");
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int i = 0; i < len; i++) write(b[off + i]);
+        }
+    }
+}
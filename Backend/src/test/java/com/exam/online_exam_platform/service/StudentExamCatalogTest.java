@@ -0,0 +1,160 @@
+package com.exam.online_exam_platform.service;
+
+import com.exam.online_exam_platform.dto.StudentExamDTO;
+import com.exam.online_exam_platform.entity.*;
+import com.exam.online_exam_platform.repository.CourseRepository;
+import com.exam.online_exam_platform.repository.ExamAttemptRepository;
+import com.exam.online_exam_platform.repository.ExamRepository;
+import com.exam.online_exam_platform.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "jwt.secret=test-secret-test-secret-test-secret-0123",
+        "frontend.url=http://localhost",
+        "exam.answers.migrate-legacy=false",
+        "exam.grading.async=false"
+})
+class StudentExamCatalogTest {
+
+    private static final int EXAMS = 300;
+
+    @Autowired StudentExamService service;
+    @Autowired UserRepository userRepo;
+    @Autowired CourseRepository courseRepo;
+    @Autowired ExamRepository examRepo;
+    @Autowired ExamAttemptRepository attemptRepo;
+    @Autowired EntityManagerFactory emf;
+
+    private User student;
+    private Course course;
+    private List<Exam> exams;
+
+    @BeforeEach
+    void seed() {
+        attemptRepo.deleteAll();
+        examRepo.deleteAll();
+        courseRepo.deleteAll();
+        userRepo.deleteAll();
+
+        student = user("student@test", Role.STUDENT);
+        User other = user("other@test", Role.STUDENT);
+
+        course = course("C1");
+        Course otherCourse = course("C2");
+
+        exams = new ArrayList<>();
+        for (int i = 0; i < EXAMS; i++) {
+            exams.add(exam("Exam " + i, i % 3 == 0 ? otherCourse : course));
+        }
+
+        attempt(student, exams.get(0), AttemptStatus.SUBMITTED);
+        attempt(student, exams.get(1), AttemptStatus.ACTIVE);
+        attempt(other, exams.get(2), AttemptStatus.TERMINATED);
+    }
+
+    @Test
+    void catalogIsOneQuery() {
+        Statistics stats = statistics();
+
+        List<StudentExamDTO> catalog = service.getAllExamsForStudent(student);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(catalog).hasSize(EXAMS);
+        assertThat(catalog.get(0).getAttemptStatus()).isEqualTo(AttemptStatus.SUBMITTED);
+        assertThat(catalog.get(1).getAttemptStatus()).isEqualTo(AttemptStatus.ACTIVE);
+        // another student's attempt must not leak in
+        assertThat(catalog.get(2).getAttemptStatus()).isNull();
+    }
+
+    @Test
+    void pagedCourseCatalogIsContentPlusCount() {
+        Statistics stats = statistics();
+
+        Page<StudentExamDTO> page = service.getExamsForStudent(student, course.getId(), 0, 20);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(20);
+        // every third exam belongs to the other course
+        assertThat(page.getTotalElements()).isEqualTo(EXAMS * 2 / 3);
+        assertThat(page.getContent().get(0).getId()).isEqualTo(exams.get(1).getId());
+        assertThat(page.getContent().get(0).getAttemptStatus()).isEqualTo(AttemptStatus.ACTIVE);
+    }
+
+    @Test
+    void activeAttemptLookupLoadsNoEntities() {
+        Statistics stats = statistics();
+
+        var active = attemptRepo.findActiveRef(student.getId(), exams.get(1).getId());
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(active).hasValueSatisfying(ref -> {
+            assertThat(ref.seq()).isZero();
+            assertThat(ref.endsAt()).isNotNull();
+        });
+        // submitted, not active
+        assertThat(attemptRepo.findActiveRef(student.getId(), exams.get(0).getId())).isEmpty();
+    }
+
+    /* ================= HELPERS ================= */
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+
+    private User user(String email, Role role) {
+        User u = new User();
+        u.setName(email);
+        u.setEmail(email);
+        u.setPassword("x");
+        u.setRole(role);
+        return userRepo.save(u);
+    }
+
+    private Course course(String code) {
+        Course c = new Course();
+        c.setCourseCode(code);
+        c.setCourseName(code);
+        return courseRepo.save(c);
+    }
+
+    private Exam exam(String title, Course course) {
+        Exam e = new Exam();
+        e.setTitle(title);
+        e.setDurationMinutes(30);
+        e.setCourse(course);
+        return examRepo.save(e);
+    }
+
+    private void attempt(User student, Exam exam, AttemptStatus status) {
+        ExamAttempt a = new ExamAttempt();
+        a.setStudent(student);
+        a.setExam(exam);
+        a.setStatus(status);
+        a.setStartedAt(Instant.now());
+        a.setEndsAt(Instant.now().plus(30, ChronoUnit.MINUTES));
+        attemptRepo.save(a);
+    }
+}
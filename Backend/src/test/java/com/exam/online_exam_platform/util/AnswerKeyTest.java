@@ -0,0 +1,116 @@
+package com.exam.online_exam_platform.util;
+
+import com.exam.online_exam_platform.dto.QuestionSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerKeyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void gradesLikeTheStringCompareLoop() throws Exception {
+        Random random = new Random(7);
+
+        for (int round = 0; round < 200; round++) {
+            List<QuestionSnapshot> questions = randomQuestions(random, 1 + random.nextInt(60));
+            Map<String, String> answers = randomAnswers(random, questions);
+            AnswerKey key = AnswerKey.compile(questions);
+
+            byte[] sheet = key.newSheet();
+            key.markAll(sheet, answers);
+            byte[] decoded = key.decode(objectMapper.getFactory(), objectMapper.writeValueAsString(answers));
+
+            int expected = legacyGrade(questions, answers);
+            assertThat(key.grade(sheet)).isEqualTo(expected);
+            assertThat(key.grade(decoded)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void ignoresUnknownQuestionsAndOptions() {
+        AnswerKey key = AnswerKey.compile(List.of(question(10L, "B")));
+
+        byte[] sheet = key.newSheet();
+        key.markAll(sheet, Map.of("10", "not an option", "11", "B", "x", "B"));
+
+        assertThat(key.grade(sheet)).isZero();
+    }
+
+    @Test
+    void questionWithoutAValidAnswerNeverScores() {
+        AnswerKey key = AnswerKey.compile(List.of(question(1L, null), question(2L, "C")));
+
+        byte[] sheet = key.newSheet();
+        key.markAll(sheet, Map.of("1", "A", "2", "C"));
+
+        assertThat(key.grade(sheet)).isEqualTo(1);
+    }
+
+    @Test
+    void malformedJsonDecodesToAnEmptySheet() {
+        AnswerKey key = AnswerKey.compile(List.of(question(1L, "A")));
+
+        assertThat(key.decode(objectMapper.getFactory(), "{\"1\": \"A\"")).containsOnly(AnswerKey.NO_ANSWER);
+        assertThat(key.decode(objectMapper.getFactory(), "[]")).containsOnly(AnswerKey.NO_ANSWER);
+        assertThat(key.decode(objectMapper.getFactory(), null)).containsOnly(AnswerKey.NO_ANSWER);
+    }
+
+    @Test
+    void decodeSkipsNonStringValues() {
+        AnswerKey key = AnswerKey.compile(List.of(question(1L, "A"), question(2L, "B")));
+
+        byte[] sheet = key.decode(objectMapper.getFactory(), "{\"1\": {\"x\": 1}, \"2\": \"B\", \"3\": [1]}");
+
+        assertThat(key.grade(sheet)).isEqualTo(1);
+    }
+
+    /* ================= HELPERS ================= */
+
+    // what submit did before the key: compare the correct answer text per question
+    private static int legacyGrade(List<QuestionSnapshot> questions, Map<String, String> submitted) {
+        int correct = 0;
+        for (QuestionSnapshot q : questions) {
+            if (q.correctAnswer() != null &&
+                    q.correctAnswer().equals(submitted.get(String.valueOf(q.id())))) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    private static List<QuestionSnapshot> randomQuestions(Random random, int n) {
+        List<QuestionSnapshot> questions = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+
+        while (questions.size() < n) {
+            long id = 1 + random.nextInt(10_000);
+            if (!ids.add(id)) continue;
+
+            String[] options = {"A" + id, "B" + id, "C" + id, "D" + id};
+            questions.add(new QuestionSnapshot(id, "Question " + id,
+                    options[0], options[1], options[2], options[3], options[random.nextInt(4)]));
+        }
+        return questions;
+    }
+
+    private static Map<String, String> randomAnswers(Random random, List<QuestionSnapshot> questions) {
+        Map<String, String> answers = new HashMap<>();
+        for (QuestionSnapshot q : questions) {
+            switch (random.nextInt(6)) {
+                case 0 -> { } // unanswered
+                case 1 -> answers.put(String.valueOf(q.id()), "something else");
+                default -> answers.put(String.valueOf(q.id()), q.options().get(random.nextInt(4)));
+            }
+        }
+        return answers;
+    }
+
+    private static QuestionSnapshot question(Long id, String correct) {
+        return new QuestionSnapshot(id, "Question " + id, "A", "B", "C", "D", correct);
+    }
+}
@@ -0,0 +1,49 @@
+package com.exam.online_exam_platform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvWriterTest {
+
+    @Test
+    void plainFieldsAreWrittenAsIs() throws IOException {
+        assertThat(csv(w -> w.row("id", "name").text("7").number(42).endRow()))
+                .isEqualTo("id,name\r\n7,42\r\n");
+    }
+
+    @Test
+    void quotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        assertThat(csv(w -> w.row("a,b", "say \"hi\"", "two\nlines", "cr\rhere")))
+                .isEqualTo("\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",\"cr\rhere\"\r\n");
+    }
+
+    @Test
+    void nullAndEmptyAreEmptyFields() throws IOException {
+        assertThat(csv(w -> w.row(null, "", "x"))).isEqualTo(",,x\r\n");
+    }
+
+    @Test
+    void neutralisesFormulas() throws IOException {
+        assertThat(csv(w -> w.row("=SUM(A1)", "+1", "-1", "@cmd", "a=b")))
+                .isEqualTo("\"'=SUM(A1)\",\"'+1\",\"'-1\",\"'@cmd\",a=b\r\n");
+    }
+
+    @Test
+    void formulaWithQuotesIsEscapedToo() throws IOException {
+        assertThat(csv(w -> w.row("=\"x\""))).isEqualTo("\"'=\"\"x\"\"\"\r\n");
+    }
+
+    private interface Rows {
+        void write(CsvWriter writer) throws IOException;
+    }
+
+    private static String csv(Rows rows) throws IOException {
+        StringWriter out = new StringWriter();
+        rows.write(new CsvWriter(out));
+        return out.toString();
+    }
+}
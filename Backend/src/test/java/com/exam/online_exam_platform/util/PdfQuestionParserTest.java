@@ -0,0 +1,191 @@
+package com.exam.online_exam_platform.util;
+
+import com.exam.online_exam_platform.util.PdfQuestionParser.ParseError;
+import com.exam.online_exam_platform.util.PdfQuestionParser.Parsed;
+import com.exam.online_exam_platform.util.PdfQuestionParser.ParsedQuestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfQuestionParserTest {
+
+    private static final String BLOCK = """
+            Q1. What is the capital of France?
+            A. Berlin
+            B. Paris
+            C. Rome
+            D. Madrid
+            ANSWER: Paris
+            """;
+
+    @Test
+    void parsesABlock() {
+        Parsed parsed = PdfQuestionParser.parse(BLOCK);
+
+        assertThat(parsed.errors()).isEmpty();
+        assertThat(parsed.questions()).hasSize(1);
+
+        ParsedQuestion q = parsed.questions().get(0);
+        assertThat(q.questionText).isEqualTo("What is the capital of France?");
+        assertThat(q.optionA).isEqualTo("Berlin");
+        assertThat(q.optionD).isEqualTo("Madrid");
+        assertThat(q.correctAnswer).isEqualTo("Paris");
+        assertThat(q.number).isEqualTo(1);
+        assertThat(q.line).isEqualTo(1);
+    }
+
+    @Test
+    void markersAreCaseInsensitiveIndentedAndFieldsSpanLines() {
+        Parsed parsed = PdfQuestionParser.parse("""
+                   q12.  Which of these
+                   is prime?
+                  a. 4
+                  b. 6
+                  c. 7
+                  d. 9
+                  answer:   7
+                """);
+
+        assertThat(parsed.errors()).isEmpty();
+        ParsedQuestion q = parsed.questions().get(0);
+        assertThat(q.number).isEqualTo(12);
+        assertThat(q.questionText).isEqualTo("Which of these\nis prime?");
+        assertThat(q.correctAnswer).isEqualTo("7");
+    }
+
+    @Test
+    void multiLineOptionMustMatchTheAnswerExactly() {
+        Parsed parsed = PdfQuestionParser.parse("""
+                Q1. Pick one
+                A. first
+                line
+                B. b
+                C. c
+                D. d
+                ANSWER: b
+                """);
+
+        assertThat(parsed.errors()).isEmpty();
+        assertThat(parsed.questions().get(0).optionA).isEqualTo("first\nline");
+    }
+
+    @Test
+    void crlfLineEndings() {
+        Parsed parsed = PdfQuestionParser.parse(BLOCK.replace("\n", "\r\n"));
+
+        assertThat(parsed.errors()).isEmpty();
+        assertThat(parsed.questions().get(0).correctAnswer).isEqualTo("Paris");
+    }
+
+    @Test
+    void brokenBlockIsReportedAndTheNextOneStillParses() {
+        Parsed parsed = PdfQuestionParser.parse("""
+                Q1. Missing an option
+                A. a
+                B. b
+                D. d
+                ANSWER: a
+                Q2. Fine
+                A. a
+                B. b
+                C. c
+                D. d
+                ANSWER: d
+                """);
+
+        assertThat(parsed.questions()).extracting(q -> q.number).containsExactly(2);
+        assertThat(parsed.errors()).containsExactly(
+                new ParseError(1, 1, "found option D where option C was expected"));
+    }
+
+    @Test
+    void newQuestionBeforeAnswerFailsThePreviousOne() {
+        Parsed parsed = PdfQuestionParser.parse("""
+                Q1. No answer
+                A. a
+                B. b
+                C. c
+                D. d
+                """ + BLOCK.replace("Q1.", "Q2."));
+
+        assertThat(parsed.questions()).extracting(q -> q.number).containsExactly(2);
+        assertThat(parsed.errors()).containsExactly(new ParseError(1, 1, "missing ANSWER before next question"));
+    }
+
+    @Test
+    void answerMustMatchAnOption() {
+        Parsed parsed = PdfQuestionParser.parse(BLOCK.replace("ANSWER: Paris", "ANSWER: Lyon"));
+
+        assertThat(parsed.questions()).isEmpty();
+        assertThat(parsed.errors()).extracting(ParseError::message)
+                .containsExactly("correct answer does not match any option: Lyon");
+    }
+
+    @Test
+    void earlyAnswerAndEmptyFields() {
+        Parsed parsed = PdfQuestionParser.parse("""
+                Q1. Too short
+                A. a
+                ANSWER: a
+                Q2.
+                A. a
+                B. b
+                C. c
+                D. d
+                ANSWER: a
+                """);
+
+        assertThat(parsed.questions()).isEmpty();
+        assertThat(parsed.errors()).containsExactly(
+                new ParseError(1, 1, "ANSWER before option B"),
+                new ParseError(2, 4, "question is empty"));
+    }
+
+    @Test
+    void unfinishedBlockAtEndOfDocument() {
+        Parsed parsed = PdfQuestionParser.parse("Q3. Cut off\nA. a\nB. b");
+
+        assertThat(parsed.errors()).containsExactly(
+                new ParseError(3, 1, "incomplete question at end of document (no ANSWER line)"));
+    }
+
+    @Test
+    void textOutsideBlocksIsIgnored() {
+        Parsed parsed = PdfQuestionParser.parse("Chapter 1\nQuiz\n\n" + BLOCK + "Page 2 of 2\n");
+
+        assertThat(parsed.questions()).hasSize(1);
+        assertThat(parsed.errors()).isEmpty();
+    }
+
+    @Test
+    void sessionCarriesLinesAndBlocksAcrossFeeds() {
+        List<ParsedQuestion> questions = new ArrayList<>();
+        List<ParseError> errors = new ArrayList<>();
+        PdfQuestionParser.Session session = new PdfQuestionParser.Session(new PdfQuestionParser.Listener() {
+            @Override
+            public void question(ParsedQuestion question) {
+                questions.add(question);
+            }
+
+            @Override
+            public void error(ParseError error) {
+                errors.add(error);
+            }
+        });
+
+        // split mid-line and mid-block, the way page ranges cut the text
+        String text = BLOCK + BLOCK.replace("Q1.", "Q2.");
+        for (int from = 0; from < text.length(); from += 7) {
+            session.feed(text.substring(from, Math.min(text.length(), from + 7)));
+        }
+        session.finish();
+
+        assertThat(errors).isEmpty();
+        assertThat(questions).extracting(q -> q.number).containsExactly(1, 2);
+        assertThat(questions).extracting(q -> q.line).containsExactly(1, 7);
+        assertThat(questions.get(1).correctAnswer).isEqualTo("Paris");
+    }
+}
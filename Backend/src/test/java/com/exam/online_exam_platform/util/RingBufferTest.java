@@ -0,0 +1,108 @@
+package com.exam.online_exam_platform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new RingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new RingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThat(new RingBuffer<>(0).capacity()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsOrderAcrossWraparound() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        List<Integer> drained = new ArrayList<>();
+
+        int next = 0;
+        for (int round = 0; round < 50; round++) {
+            List<Integer> batch = range(next, next + 5);
+            assertThat(buffer.offerAll(batch)).isTrue();
+            next += 5;
+
+            buffer.drainTo(drained, 4 + round % 3);
+        }
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+
+        assertThat(drained).isEqualTo(range(0, next));
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offerAllIsAllOrNothing() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+
+        assertThat(buffer.offerAll(range(0, 6))).isTrue();
+        assertThat(buffer.offerAll(range(6, 9))).isFalse();
+        assertThat(buffer.size()).isEqualTo(6);
+
+        assertThat(buffer.offerAll(range(6, 8))).isTrue();
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 100);
+        assertThat(drained).isEqualTo(range(0, 8));
+    }
+
+    @Test
+    void drainMatchingTakesOnlyMatchesAndKeepsTheRestInOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+
+        // wrapped: head in the middle of the array
+        buffer.offerAll(range(0, 6));
+        buffer.drainTo(new ArrayList<>(), 5);
+        buffer.offerAll(range(6, 13));
+
+        List<Integer> even = new ArrayList<>();
+        assertThat(buffer.drainMatching(i -> i % 2 == 0, even)).isEqualTo(4);
+        assertThat(even).containsExactly(6, 8, 10, 12);
+
+        // the freed slots are usable again
+        assertThat(buffer.offerAll(range(13, 17))).isTrue();
+
+        List<Integer> rest = new ArrayList<>();
+        buffer.drainTo(rest, 100);
+        assertThat(rest).containsExactly(5, 7, 9, 11, 13, 14, 15, 16);
+    }
+
+    @Test
+    void emptyBatchAlwaysFits() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(2);
+        buffer.offerAll(range(0, 2));
+
+        assertThat(buffer.offerAll(List.of())).isTrue();
+    }
+
+    @Test
+    void awaitSizeWakesWhenEnoughArrive() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(16);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 4; i++) buffer.offerAll(range(i * 2, i * 2 + 2));
+        });
+        producer.start();
+
+        assertThat(buffer.awaitSize(8, 5, TimeUnit.SECONDS)).isTrue();
+        producer.join();
+    }
+
+    @Test
+    void awaitSizeTimesOut() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(16);
+        buffer.offerAll(range(0, 3));
+
+        assertThat(buffer.awaitSize(4, 20, TimeUnit.MILLISECONDS)).isFalse();
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().toList();
+    }
+}
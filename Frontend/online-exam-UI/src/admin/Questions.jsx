@@ -149,7 +149,13 @@ const Questions = () => {
       setImporting(true);
       setImportMsg("");
 
-      const res = await importQuestionsPdf(examId, importFile);
+      const res = await importQuestionsPdf(examId, importFile, job => {
+        if (job.status === "RUNNING") {
+          setImportMsg(
+            `Pages ${job.pagesDone}/${job.pages} · ${job.imported} imported, ${job.failed} failed`
+          );
+        }
+      });
       setImportMsg(res.data || "Questions imported successfully");
 
       setImportFile(null);
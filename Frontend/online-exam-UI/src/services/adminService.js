@@ -40,6 +40,20 @@ export const deleteExam = examId =>
 export const getAdminResults = () =>
   api.get("/admin/results");
 
+// ZIP of every result PDF of an exam; aborting the signal cancels rendering
+export const downloadResultPdfBundle = (examId, signal) =>
+  api.get("/admin/results/pdf-bundle", {
+    params: { examId },
+    responseType: "blob",
+    signal
+  });
+
+export const getResultPdfBundleStatus = bundleId =>
+  api.get(`/admin/results/pdf-bundle/${bundleId}`);
+
+export const cancelResultPdfBundle = bundleId =>
+  api.delete(`/admin/results/pdf-bundle/${bundleId}`);
+
 /* ===== STUDENTS ===== */
 
 export const getStudents = () =>
@@ -90,13 +104,42 @@ export const getMyResults = () =>
 export const getMyProfile = () =>
   api.get("/student/profile");
 
-export const importQuestionsPdf = (examId, file) => {
+/* ===== PDF IMPORT (BACKGROUND JOB) ===== */
+
+export const getImportJob = (examId, jobId) =>
+  api.get(`/admin/exams/${examId}/questions/import-jobs/${jobId}`);
+
+export const cancelImportJob = (examId, jobId) =>
+  api.delete(`/admin/exams/${examId}/questions/import-jobs/${jobId}`);
+
+const importSummary = job =>
+  `Imported ${job.imported} questions` +
+  (job.failed ? ` (${job.failed} failed)` : "") +
+  (job.status === "CANCELLED" ? " before the import was cancelled" : "");
+
+// uploads, then polls the job; onProgress(job) sees every status
+export const importQuestionsPdf = async (examId, file, onProgress = () => {}) => {
   const formData = new FormData();
   formData.append("file", file);
 
-  return api.post(
+  const res = await api.post(
     `/admin/exams/${examId}/questions/import-pdf`,
     formData,
     { headers: { "Content-Type": "multipart/form-data" } }
   );
+
+  let job = res.data;
+  onProgress(job);
+
+  while (job.status === "QUEUED" || job.status === "RUNNING") {
+    await new Promise(resolve => setTimeout(resolve, 1000));
+    job = (await getImportJob(examId, job.jobId)).data;
+    onProgress(job);
+  }
+
+  if (job.status === "FAILED") {
+    throw { response: { data: job.error || "Failed to import questions from PDF" } };
+  }
+
+  return { data: importSummary(job), job };
 };
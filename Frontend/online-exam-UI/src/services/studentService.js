@@ -61,11 +61,29 @@ export const downloadResultPdf = (resultId) =>
 
 export const getMyExams = () => api.get("/student/exams");
 
-export const startOrResumeExam = (examId) =>
-  api.get(`/student/exams/${examId}/attempt`);
+// 429 = start gate busy → wait the hinted time and try again
+export const startOrResumeExam = async (examId, retries = 20) => {
+  try {
+    return await api.get(`/student/exams/${examId}/attempt`);
+  } catch (err) {
+    if (err.response?.status !== 429 || retries <= 0) throw err;
+
+    const waitMs = err.response.data?.retryAfterMs ?? 1000;
+    await new Promise(resolve => setTimeout(resolve, waitMs));
+    return startOrResumeExam(examId, retries - 1);
+  }
+};
 
 export const saveExamProgress = (examId, body) =>
   api.post(`/student/exams/${examId}/autosave`, body);
 
+// { events: [{ type, at, detail }] } → 202; 429 = server buffer full, keep them and resend
+export const sendProctoringEvents = (examId, events) =>
+  api.post(`/student/exams/${examId}/proctoring-events`, { events });
+
 export const submitExam = (examId, body) =>
   api.post(`/student/exams/${examId}/submit`, body);
+
+// NOT_STARTED | IN_PROGRESS | GRADING | GRADED (+ resultId, score)
+export const getResultStatus = (examId) =>
+  api.get(`/student/exams/${examId}/result-status`);
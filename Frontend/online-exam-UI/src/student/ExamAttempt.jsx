@@ -2,11 +2,17 @@ import { useEffect, useState, useRef, useCallback } from "react";
 import { useParams, useNavigate } from "react-router-dom";
 import {
   startOrResumeExam,
-  submitExam
+  submitExam,
+  sendProctoringEvents,
+  getResultStatus
 } from "../services/studentService";
 import "./ExamAttempt.css";
 
 const MAX_VIOLATIONS = 3;
+const EVENT_FLUSH_MS = 2000;
+const EVENTS_PER_REQUEST = 200;
+const RESULT_POLL_MS = 1000;
+const RESULT_POLL_TRIES = 10;
 
 /* ================= SHUFFLE ================= */
 const shuffleArray = (array, seed) => {
@@ -29,6 +35,21 @@ const shuffleArray = (array, seed) => {
   return result;
 };
 
+/* ================= RESULT STATUS ================= */
+// grading may be queued behind other submissions; wait a little for it
+const waitForResult = async examId => {
+  for (let i = 0; i < RESULT_POLL_TRIES; i++) {
+    try {
+      const { data } = await getResultStatus(examId);
+      if (data.status !== "GRADING") return data;
+    } catch {
+      return null;
+    }
+    await new Promise(resolve => setTimeout(resolve, RESULT_POLL_MS));
+  }
+  return null;
+};
+
 const ExamAttempt = () => {
   const { examId } = useParams();
   const navigate = useNavigate();
@@ -46,6 +67,8 @@ const ExamAttempt = () => {
   const streamRef = useRef(null);
   const submittedRef = useRef(false);
   const violationLockRef = useRef(false);
+  const eventsRef = useRef([]);
+  const sendingRef = useRef(null);
 
   /* ================= SYNC SELECTION (🔥 FIX) ================= */
   useEffect(() => {
@@ -56,34 +79,76 @@ const ExamAttempt = () => {
     setSelected(answers[String(q.id)] ?? null);
   }, [currentIndex, questions, answers]);
 
+  /* ================= PROCTORING EVENTS ================= */
+  // the server keeps the log and counts violations from it;
+  // the local counter only drives the badge and the termination
+  const recordEvent = useCallback((type, detail) => {
+    if (submittedRef.current) return;
+    eventsRef.current.push({ type, at: Date.now(), detail });
+  }, []);
+
+  const flushEvents = useCallback(() => {
+    if (sendingRef.current) return sendingRef.current;
+
+    const send = async () => {
+      while (eventsRef.current.length > 0) {
+        const batch = eventsRef.current.splice(0, EVENTS_PER_REQUEST);
+        try {
+          await sendProctoringEvents(examId, batch);
+        } catch (err) {
+          // no active attempt any more: nothing to attach them to
+          if (err.response?.status === 409) return;
+          eventsRef.current.unshift(...batch);
+          return;
+        }
+      }
+    };
+
+    sendingRef.current = send().finally(() => (sendingRef.current = null));
+    return sendingRef.current;
+  }, [examId]);
+
+  useEffect(() => {
+    if (!ready) return;
+
+    const timer = setInterval(flushEvents, EVENT_FLUSH_MS);
+    return () => clearInterval(timer);
+  }, [ready, flushEvents]);
+
   /* ================= NORMAL SUBMIT ================= */
   const submitExamNormally = useCallback(async () => {
     if (submittedRef.current) return;
     submittedRef.current = true;
 
+    await flushEvents();
     await submitExam(examId, {
       reason: "MANUAL_SUBMIT",
-      answers: JSON.stringify(answers),
-      violations
+      answers: JSON.stringify(answers)
     }).catch(() => {});
 
     streamRef.current?.getTracks().forEach(t => t.stop());
     document.exitFullscreen?.().catch(() => {});
 
-    alert("Exam submitted successfully.");
+    const result = await waitForResult(examId);
+    alert(
+      result?.status === "GRADED"
+        ? `Exam submitted successfully. Your score: ${result.score}%`
+        : "Exam submitted successfully. Your result will appear under Results once graded."
+    );
     navigate("/student/exams", { replace: true });
-  }, [examId, answers, violations, navigate]);
+  }, [examId, answers, flushEvents, navigate]);
 
   /* ================= TERMINATE ================= */
   const terminateExam = useCallback(
-    async reason => {
+    async (reason, eventType) => {
       if (submittedRef.current) return;
+      if (eventType) recordEvent(eventType);
       submittedRef.current = true;
 
+      await flushEvents();
       await submitExam(examId, {
         reason,
-        answers: JSON.stringify(answers),
-        violations: violations + 1
+        answers: JSON.stringify(answers)
       }).catch(() => {});
 
       streamRef.current?.getTracks().forEach(t => t.stop());
@@ -92,13 +157,15 @@ const ExamAttempt = () => {
       alert("Exam terminated due to rule violation.");
       navigate("/student/exams", { replace: true });
     },
-    [examId, answers, violations, navigate]
+    [examId, answers, recordEvent, flushEvents, navigate]
   );
 
   /* ================= VIOLATION ================= */
   const addViolation = useCallback(
-    () => {
-      if (submittedRef.current || violationLockRef.current) return;
+    (type, detail) => {
+      if (submittedRef.current) return;
+      recordEvent(type, detail);
+      if (violationLockRef.current) return;
 
       violationLockRef.current = true;
       setTimeout(() => (violationLockRef.current = false), 800);
@@ -111,7 +178,7 @@ const ExamAttempt = () => {
         return next;
       });
     },
-    [terminateExam]
+    [recordEvent, terminateExam]
   );
 
   /* ================= START ================= */
@@ -134,9 +201,9 @@ const ExamAttempt = () => {
         streamRef.current = stream;
         videoRef.current.srcObject = stream;
         stream.getVideoTracks()[0].onended = () =>
-          terminateExam("CAMERA_STOPPED");
+          terminateExam("CAMERA_STOPPED", "CAMERA_STOPPED");
       })
-      .catch(() => terminateExam("CAMERA_DENIED"));
+      .catch(() => terminateExam("CAMERA_DENIED", "CAMERA_DENIED"));
 
     return () => {
       streamRef.current?.getTracks().forEach(t => t.stop());
@@ -152,45 +219,55 @@ const ExamAttempt = () => {
 
       if (key === "escape") {
         e.preventDefault();
-        terminateExam("ESC_KEY");
+        terminateExam("ESC_KEY", "ESC_KEY");
       }
 
       if (e.ctrlKey || e.metaKey) {
         if (["c", "v", "a", "x", "s", "p"].includes(key)) {
           e.preventDefault();
-          addViolation();
+          addViolation("BLOCKED_SHORTCUT", key);
         }
       }
 
       if (key === "f12") {
         e.preventDefault();
-        terminateExam("DEVTOOLS");
+        terminateExam("DEVTOOLS", "DEVTOOLS");
       }
     };
 
     const onVisibilityChange = () => {
-      if (document.hidden) addViolation();
+      if (document.hidden) addViolation("TAB_HIDDEN");
+      else recordEvent("TAB_VISIBLE");
     };
 
-    const onBlur = () => addViolation();
+    const onBlur = () => addViolation("WINDOW_BLUR");
+    const onFocus = () => recordEvent("WINDOW_FOCUS");
 
     const onFullscreenChange = () => {
       if (!document.fullscreenElement) {
-        terminateExam("EXIT_FULLSCREEN");
+        terminateExam("EXIT_FULLSCREEN", "FULLSCREEN_EXIT");
       }
     };
 
-    const block = e => e.preventDefault();
+    const blockClipboard = e => {
+      e.preventDefault();
+      recordEvent("CLIPBOARD_BLOCKED", e.type);
+    };
+    const blockContextMenu = e => {
+      e.preventDefault();
+      recordEvent("CONTEXT_MENU_BLOCKED");
+    };
 
     document.addEventListener("keydown", onKeyDown);
     document.addEventListener("visibilitychange", onVisibilityChange);
     window.addEventListener("blur", onBlur);
+    window.addEventListener("focus", onFocus);
     document.addEventListener("fullscreenchange", onFullscreenChange);
 
-    document.addEventListener("copy", block);
-    document.addEventListener("cut", block);
-    document.addEventListener("paste", block);
-    document.addEventListener("contextmenu", block);
+    document.addEventListener("copy", blockClipboard);
+    document.addEventListener("cut", blockClipboard);
+    document.addEventListener("paste", blockClipboard);
+    document.addEventListener("contextmenu", blockContextMenu);
 
     document.body.style.userSelect = "none";
 
@@ -198,16 +275,17 @@ const ExamAttempt = () => {
       document.removeEventListener("keydown", onKeyDown);
       document.removeEventListener("visibilitychange", onVisibilityChange);
       window.removeEventListener("blur", onBlur);
+      window.removeEventListener("focus", onFocus);
       document.removeEventListener("fullscreenchange", onFullscreenChange);
 
-      document.removeEventListener("copy", block);
-      document.removeEventListener("cut", block);
-      document.removeEventListener("paste", block);
-      document.removeEventListener("contextmenu", block);
+      document.removeEventListener("copy", blockClipboard);
+      document.removeEventListener("cut", blockClipboard);
+      document.removeEventListener("paste", blockClipboard);
+      document.removeEventListener("contextmenu", blockContextMenu);
 
       document.body.style.userSelect = "";
     };
-  }, [ready, addViolation, terminateExam]);
+  }, [ready, addViolation, recordEvent, terminateExam]);
 
   /* ================= LOAD EXAM ================= */
   useEffect(() => {